@@ -0,0 +1,144 @@
+package aQute.lib.collections;
+
+import static java.util.Objects.requireNonNull;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A concurrent table of weakly held immutable values. The value interned
+ * first for a key is returned for all later values with an equal key, so
+ * equal values share a single instance. A value is dropped from the table
+ * when it is no longer used.
+ * <p>
+ * The key of a value is held strongly by the table unless the key is the
+ * value itself. Values interning themselves are compared with
+ * {@link Object#equals(Object)}.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values, must be immutable
+ */
+public final class WeakInterner<K, V> {
+	private final ConcurrentHashMap<Object, Entry<K, V>>	table	= new ConcurrentHashMap<>();
+	private final ReferenceQueue<V>							queue	= new ReferenceQueue<>();
+
+	private static final class Entry<K, V> extends WeakReference<V> {
+		private final K		key;
+		private final int	hash;
+
+		Entry(K key, V value, ReferenceQueue<? super V> queue) {
+			super(value, queue);
+			this.key = (key != value) ? key : null;
+			this.hash = key.hashCode();
+		}
+
+		Object key() {
+			return (key != null) ? key : get();
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (obj instanceof Entry<?, ?> other) {
+				return (hash == other.hash) && matches(other.key());
+			}
+			if (obj instanceof Lookup lookup) {
+				return (hash == lookup.hash) && matches(lookup.key);
+			}
+			return false;
+		}
+
+		private boolean matches(Object otherKey) {
+			Object key = key();
+			return (key != null) && key.equals(otherKey);
+		}
+	}
+
+	private static final class Lookup {
+		final Object	key;
+		final int		hash;
+
+		Lookup(Object key) {
+			this.key = key;
+			this.hash = key.hashCode();
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return (obj instanceof Entry<?, ?> entry) && entry.equals(this);
+		}
+	}
+
+	/**
+	 * Return the value interned for the key.
+	 *
+	 * @return the interned value or {@code null} if no value is interned for
+	 *         the key
+	 */
+	public V get(K key) {
+		Entry<K, V> entry = table.get(new Lookup(requireNonNull(key)));
+		return (entry != null) ? entry.get() : null;
+	}
+
+	/**
+	 * Intern the value unless a value with an equal key is already interned.
+	 *
+	 * @param key the key of the value, can be the value itself
+	 * @return the interned value for the key
+	 */
+	public V intern(K key, V value) {
+		requireNonNull(value);
+		expunge();
+		Entry<K, V> entry = new Entry<>(requireNonNull(key), value, queue);
+		for (;;) {
+			Entry<K, V> existing = table.putIfAbsent(entry, entry);
+			if (existing == null) {
+				return value;
+			}
+			V interned = existing.get();
+			if (interned != null) {
+				return interned;
+			}
+			// the interned value was collected, drop its entry
+			remove(existing);
+		}
+	}
+
+	/**
+	 * Return the number of interned values which are not yet collected.
+	 */
+	public int size() {
+		expunge();
+		return table.size();
+	}
+
+	private void expunge() {
+		for (Reference<? extends V> ref; (ref = queue.poll()) != null;) {
+			@SuppressWarnings("unchecked")
+			Entry<K, V> entry = (Entry<K, V>) ref;
+			remove(entry);
+		}
+	}
+
+	/*
+	 * Entries are equal when their keys are equal, so only the entry itself is
+	 * removed and not an entry that replaced it for the same key
+	 */
+	private void remove(Entry<K, V> entry) {
+		table.computeIfPresent(entry, (k, v) -> (v == entry) ? null : v);
+	}
+}
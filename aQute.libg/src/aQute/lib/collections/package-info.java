@@ -1,4 +1,4 @@
-@Version("4.3.0")
+@Version("4.4.0")
 package aQute.lib.collections;
 
 import org.osgi.annotation.versioning.Version;
@@ -22,7 +22,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -48,10 +51,12 @@ public class UTF8Properties extends Properties {
 	private static final long								serialVersionUID	= 1L;
 	private static final List<ThreadLocal<CharsetDecoder>>	decoders			= Collections.unmodifiableList(
 		Arrays.asList(ThreadLocal.withInitial(UTF_8::newDecoder), ThreadLocal.withInitial(ISO_8859_1::newDecoder)));
+	private static final AtomicLong							changes				= new AtomicLong();
 
 	record Provenance(String source) {}
 
 	private final Map<String, Provenance>	provenance	= new HashMap<>();
+	private volatile long					changed		= changes.incrementAndGet();
 
 	public UTF8Properties(Properties p) {
 		super(p);
@@ -244,7 +249,7 @@ public class UTF8Properties extends Properties {
 	@Override
 	public synchronized Object remove(Object key) {
 		getProvenance().remove(key);
-		return super.remove(key);
+		return changed(super.remove(key));
 	}
 
 	/**
@@ -303,8 +308,97 @@ public class UTF8Properties extends Properties {
 	public synchronized void putAll(Map<?, ?> t) {
 		if (t instanceof Properties p) {
 			load(p, true);
-		} else
+		} else {
 			super.putAll(t);
+			changed(null);
+		}
+	}
+
+	/**
+	 * Answer a stamp that changes when these properties or their defaults are
+	 * modified. The stamps of all UTF8Properties are taken from one increasing
+	 * sequence, so the stamp is the latest modification of these properties
+	 * and their defaults. Modifications through the {@link #keySet()},
+	 * {@link #values()} and {@link #entrySet()} views are not tracked.
+	 *
+	 * @return the stamp or -1 if the defaults contain properties that are not
+	 *         UTF8Properties and whose modifications are not tracked
+	 */
+	public long stamp() {
+		long stamp = changed;
+		for (Properties rover = defaults; rover != null;) {
+			if (!(rover instanceof UTF8Properties p)) {
+				return -1L;
+			}
+			stamp = Math.max(stamp, p.changed);
+			rover = p.defaults;
+		}
+		return stamp;
+	}
+
+	private <T> T changed(T result) {
+		changed = changes.incrementAndGet();
+		return result;
+	}
+
+	@Override
+	public synchronized Object put(Object key, Object value) {
+		return changed(super.put(key, value));
+	}
+
+	@Override
+	public synchronized boolean remove(Object key, Object value) {
+		return changed(super.remove(key, value));
+	}
+
+	@Override
+	public synchronized void clear() {
+		super.clear();
+		changed(null);
+	}
+
+	@Override
+	public synchronized Object putIfAbsent(Object key, Object value) {
+		return changed(super.putIfAbsent(key, value));
+	}
+
+	@Override
+	public synchronized Object replace(Object key, Object value) {
+		return changed(super.replace(key, value));
+	}
+
+	@Override
+	public synchronized boolean replace(Object key, Object oldValue, Object newValue) {
+		return changed(super.replace(key, oldValue, newValue));
+	}
+
+	@Override
+	public synchronized void replaceAll(BiFunction<? super Object, ? super Object, ?> function) {
+		super.replaceAll(function);
+		changed(null);
+	}
+
+	@Override
+	public synchronized Object compute(Object key,
+		BiFunction<? super Object, ? super Object, ? extends Object> remappingFunction) {
+		return changed(super.compute(key, remappingFunction));
+	}
+
+	@Override
+	public synchronized Object computeIfAbsent(Object key, Function<? super Object, ? extends Object> mappingFunction) {
+		return changed(super.computeIfAbsent(key, mappingFunction));
+	}
+
+	@Override
+	public synchronized Object computeIfPresent(Object key,
+		BiFunction<? super Object, ? super Object, ? extends Object> remappingFunction) {
+		return changed(super.computeIfPresent(key, remappingFunction));
+	}
+
+	@Override
+	public synchronized Object merge(Object key, Object value,
+		BiFunction<? super Object, ? super Object, ? extends Object> remappingFunction) {
+		return changed(super.merge(key, value, remappingFunction));
 	}
 
 	/**
@@ -0,0 +1,276 @@
+package aQute.lib.zip;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+
+import aQute.lib.io.IO;
+
+/**
+ * A read only zip file backed by a single buffer of the file content.
+ * <p>
+ * The file is read with {@link IO#read(Path)}, which memory maps large files
+ * except on Windows. The central directory is decoded once and no file handle
+ * is kept open. The data of stored entries is returned as read only slices of
+ * the buffer and deflated entries are only inflated when their data is asked
+ * for.
+ * <p>
+ * Zip64 archives, encrypted entries and compression methods other than stored
+ * and deflated are not supported. Use {@link java.util.zip.ZipFile} for those.
+ */
+public class MappedZipFile implements Closeable {
+	private static final int		LOCSIG	= 0x04034b50;
+	private static final int		LOCHDR	= 30;
+	private static final int		CENSIG	= 0x02014b50;
+	private static final int		CENHDR	= 46;
+	private static final int		ENDSIG	= 0x06054b50;
+	private static final int		ENDHDR	= 22;
+	private static final int		ZIP64	= 0xFFFF;
+
+	private final String			name;
+	private final ByteBuffer		buffer;
+	private final Map<String, Entry>	entries;
+
+	/**
+	 * An entry in the central directory of the zip file.
+	 */
+	public static final class Entry extends ZipEntry {
+		final int	flags;
+		final int	headerOffset;
+
+		Entry(String name, int flags, int headerOffset) {
+			super(name);
+			this.flags = flags;
+			this.headerOffset = headerOffset;
+		}
+	}
+
+	public MappedZipFile(File file) throws IOException {
+		this(file.toPath());
+	}
+
+	public MappedZipFile(Path path) throws IOException {
+		this.name = path.toString();
+		this.buffer = IO.read(path)
+			.order(ByteOrder.LITTLE_ENDIAN);
+		this.entries = readCentralDirectory();
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Answer the entries in central directory order.
+	 */
+	public List<Entry> entries() {
+		return Collections.unmodifiableList(new ArrayList<>(entries.values()));
+	}
+
+	public Entry getEntry(String entryName) {
+		return entries.get(entryName);
+	}
+
+	/**
+	 * Answer the uncompressed data of the entry. The data of a stored entry is
+	 * a read only slice of the zip file buffer, a deflated entry is inflated
+	 * into a new buffer.
+	 */
+	public ByteBuffer buffer(Entry entry) throws IOException {
+		ByteBuffer data = data(entry);
+		switch (entry.getMethod()) {
+			case ZipEntry.STORED :
+				return data;
+			case ZipEntry.DEFLATED :
+				return inflate(entry, data);
+			default :
+				throw new ZipException(
+					"Unsupported compression method " + entry.getMethod() + " for " + entry.getName() + " in " + name);
+		}
+	}
+
+	public InputStream getInputStream(Entry entry) throws IOException {
+		return IO.stream(buffer(entry));
+	}
+
+	/**
+	 * The buffer is released by the garbage collector. There is nothing to
+	 * close.
+	 */
+	@Override
+	public void close() {}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+
+	private Map<String, Entry> readCentralDirectory() throws IOException {
+		int end = findEndOfCentralDirectory();
+		int total = Short.toUnsignedInt(buffer.getShort(end + 10));
+		long cenSize = Integer.toUnsignedLong(buffer.getInt(end + 12));
+		long cenOffset = Integer.toUnsignedLong(buffer.getInt(end + 16));
+		if ((total == ZIP64) || (cenSize == 0xFFFFFFFFL) || (cenOffset == 0xFFFFFFFFL)) {
+			throw new ZipException("Zip64 is not supported: " + name);
+		}
+		// Allow for data prepended to the zip file, like a launcher script
+		long prefix = end - cenSize - cenOffset;
+		if (prefix < 0) {
+			throw new ZipException("Invalid central directory: " + name);
+		}
+		int offset = (int) (end - cenSize);
+		Map<String, Entry> result = new LinkedHashMap<>(total * 4 / 3 + 1);
+		for (int i = 0; i < total; i++) {
+			if ((offset + CENHDR > end) || (buffer.getInt(offset) != CENSIG)) {
+				throw new ZipException("Invalid central directory entry " + i + ": " + name);
+			}
+			int flags = Short.toUnsignedInt(buffer.getShort(offset + 8));
+			int method = Short.toUnsignedInt(buffer.getShort(offset + 10));
+			int dostime = buffer.getInt(offset + 12);
+			long crc = Integer.toUnsignedLong(buffer.getInt(offset + 16));
+			long csize = Integer.toUnsignedLong(buffer.getInt(offset + 20));
+			long size = Integer.toUnsignedLong(buffer.getInt(offset + 24));
+			int nameLength = Short.toUnsignedInt(buffer.getShort(offset + 28));
+			int extraLength = Short.toUnsignedInt(buffer.getShort(offset + 30));
+			int commentLength = Short.toUnsignedInt(buffer.getShort(offset + 32));
+			long headerOffset = Integer.toUnsignedLong(buffer.getInt(offset + 42)) + prefix;
+			if ((csize == 0xFFFFFFFFL) || (size == 0xFFFFFFFFL) || (headerOffset >= end)) {
+				throw new ZipException("Zip64 is not supported: " + name);
+			}
+			int nameOffset = offset + CENHDR;
+			int extraOffset = nameOffset + nameLength;
+			offset = extraOffset + extraLength + commentLength;
+			if (offset > end) {
+				throw new ZipException("Invalid central directory entry " + i + ": " + name);
+			}
+
+			Entry entry = new Entry(string(nameOffset, nameLength), flags, (int) headerOffset);
+			entry.setMethod(method);
+			entry.setTime(dosToJavaTime(dostime));
+			if (extraLength > 0) {
+				// after the DOS time since an extended timestamp overrides it
+				entry.setExtra(bytes(extraOffset, extraLength));
+			}
+			entry.setCrc(crc);
+			entry.setCompressedSize(csize);
+			entry.setSize(size);
+			result.putIfAbsent(entry.getName(), entry);
+		}
+		return result;
+	}
+
+	private int findEndOfCentralDirectory() throws ZipException {
+		int limit = buffer.limit();
+		int min = Math.max(0, limit - ENDHDR - 0xFFFF);
+		for (int end = limit - ENDHDR; end >= min; end--) {
+			if ((buffer.getInt(end) == ENDSIG)
+				&& (end + ENDHDR + Short.toUnsignedInt(buffer.getShort(end + 20)) == limit)) {
+				return end;
+			}
+		}
+		throw new ZipException("Not a zip file: " + name);
+	}
+
+	private ByteBuffer data(Entry entry) throws ZipException {
+		if ((entry.flags & 1) != 0) {
+			throw new ZipException("Encrypted entries are not supported: " + entry.getName() + " in " + name);
+		}
+		int header = entry.headerOffset;
+		if (buffer.getInt(header) != LOCSIG) {
+			throw new ZipException("Invalid local header for " + entry.getName() + " in " + name);
+		}
+		int start = header + LOCHDR + Short.toUnsignedInt(buffer.getShort(header + 26))
+			+ Short.toUnsignedInt(buffer.getShort(header + 28));
+		long end = start + entry.getCompressedSize();
+		if (end > buffer.limit()) {
+			throw new ZipException("Truncated entry " + entry.getName() + " in " + name);
+		}
+		ByteBuffer data = buffer.duplicate();
+		data.position(start)
+			.limit((int) end);
+		return data.slice()
+			.asReadOnlyBuffer();
+	}
+
+	private ByteBuffer inflate(Entry entry, ByteBuffer data) throws ZipException {
+		ByteBuffer out = ByteBuffer.allocate((int) entry.getSize());
+		Inflater inflater = new Inflater(true);
+		try {
+			inflater.setInput(data);
+			while (out.hasRemaining() && !inflater.finished()) {
+				if (inflater.inflate(out) == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+					break;
+				}
+			}
+		} catch (DataFormatException e) {
+			ZipException ze = new ZipException("Invalid deflated data for " + entry.getName() + " in " + name);
+			ze.initCause(e);
+			throw ze;
+		} finally {
+			inflater.end();
+		}
+		if (out.hasRemaining()) {
+			throw new ZipException("Truncated deflated data for " + entry.getName() + " in " + name);
+		}
+		out.flip();
+		return out;
+	}
+
+	private String string(int offset, int length) {
+		return new String(bytes(offset, length), UTF_8);
+	}
+
+	private byte[] bytes(int offset, int length) {
+		byte[] bytes = new byte[length];
+		buffer.duplicate()
+			.position(offset)
+			.get(bytes);
+		return bytes;
+	}
+
+	private static long dosToJavaTime(int dostime) {
+		int year = ((dostime >> 25) & 0x7f) + 1980;
+		int month = (dostime >> 21) & 0x0f;
+		int day = (dostime >> 16) & 0x1f;
+		int hour = (dostime >> 11) & 0x1f;
+		int minute = (dostime >> 5) & 0x3f;
+		int second = (dostime << 1) & 0x3e;
+		LocalDateTime ldt;
+		if ((month > 0) && (month < 13) && (day > 0) && (hour < 24) && (minute < 60) && (second < 60)) {
+			ldt = LocalDateTime.of(year, month, day, hour, minute, second);
+		} else {
+			// Out of range fields overflow into the next field like
+			// java.util.zip does
+			ldt = LocalDateTime.of(year, 1, 1, 0, 0)
+				.plusMonths(month - 1)
+				.plusDays(day - 1)
+				.plusHours(hour)
+				.plusMinutes(minute)
+				.plusSeconds(second);
+		}
+		return ldt.atZone(ZoneId.systemDefault())
+			.toInstant()
+			.toEpochMilli();
+	}
+}
@@ -1,4 +1,4 @@
-@Version("1.3.0")
+@Version("1.4.0")
 package aQute.lib.zip;
 
 import org.osgi.annotation.versioning.Version;
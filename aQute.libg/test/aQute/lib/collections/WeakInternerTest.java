@@ -0,0 +1,70 @@
+package aQute.lib.collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class WeakInternerTest {
+
+	@Test
+	public void testInternValues() {
+		WeakInterner<Object, Object> interner = new WeakInterner<>();
+		List<String> a = List.of("a", "b");
+		List<String> b = List.of("a", "b");
+		assertThat(interner.intern(a, a)).isSameAs(a);
+		assertThat(interner.intern(b, b)).isSameAs(a);
+		assertThat(interner.get(b)).isSameAs(a);
+		assertThat(interner.get(List.of("c"))).isNull();
+		assertThat(interner.size()).isEqualTo(1);
+	}
+
+	@Test
+	public void testInternKeys() {
+		WeakInterner<String, StringBuilder> interner = new WeakInterner<>();
+		StringBuilder a = new StringBuilder("a");
+		assertThat(interner.intern("a", a)).isSameAs(a);
+		assertThat(interner.intern(new String("a"), new StringBuilder("a"))).isSameAs(a);
+		assertThat(interner.get("a")).isSameAs(a);
+		assertThat(interner.get("b")).isNull();
+	}
+
+	@Test
+	public void testCollectedValuesAreDropped() throws Exception {
+		WeakInterner<String, Object> interner = new WeakInterner<>();
+		for (int i = 0; i < 100; i++) {
+			interner.intern(Integer.toString(i), new Object());
+		}
+		for (int i = 0; (i < 100) && (interner.size() > 0); i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		assertThat(interner.size()).isZero();
+		Object value = new Object();
+		assertThat(interner.intern("1", value)).isSameAs(value);
+		assertThat(interner.get("1")).isSameAs(value);
+	}
+
+	@Test
+	public void testReplacedEntryIsKept() throws Exception {
+		WeakInterner<String, Object> interner = new WeakInterner<>();
+		for (int round = 0; round < 20; round++) {
+			String key = Integer.toString(round);
+			interner.intern(key, new Object());
+			// the value is collected but its entry is not yet expunged
+			for (int i = 0; (i < 100) && (interner.get(key) != null); i++) {
+				System.gc();
+			}
+			Object value = new Object();
+			assertThat(interner.intern(key, value)).isSameAs(value);
+			// expunging the collected entry keeps the entry that replaced it
+			for (int i = 0; i < 5; i++) {
+				System.gc();
+				Thread.sleep(10);
+				interner.size();
+			}
+			assertThat(interner.get(key)).isSameAs(value);
+		}
+	}
+}
@@ -445,6 +445,39 @@ public class UTF8PropertiesTest {
 			.isEqualTo("from_b");
 	}
 
+	@Test
+	public void testStamp() throws IOException {
+		UTF8Properties defaults = new UTF8Properties();
+		UTF8Properties p = new UTF8Properties(defaults);
+		long stamp = p.stamp();
+
+		p.setProperty("a", "1");
+		assertThat(p.stamp()).isGreaterThan(stamp);
+		stamp = p.stamp();
+
+		p.load(new StringReader("b=2"));
+		assertThat(p.stamp()).isGreaterThan(stamp);
+		stamp = p.stamp();
+
+		// a change of the defaults is a change of the properties
+		defaults.setProperty("c", "3");
+		assertThat(p.stamp()).isGreaterThan(stamp);
+		stamp = p.stamp();
+
+		p.remove("a");
+		assertThat(p.stamp()).isGreaterThan(stamp);
+		stamp = p.stamp();
+
+		p.computeIfAbsent("d", k -> "4");
+		assertThat(p.stamp()).isGreaterThan(stamp);
+		stamp = p.stamp();
+
+		assertThat(p.getProperty("c")).isEqualTo("3");
+		assertThat(p.stamp()).isEqualTo(stamp);
+
+		assertThat(new UTF8Properties(new Properties()).stamp()).isEqualTo(-1L);
+	}
+
 	private void testProperty(String content, String key, String value) throws IOException {
 		testProperty(content, key, value, null);
 	}
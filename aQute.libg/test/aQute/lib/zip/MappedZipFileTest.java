@@ -0,0 +1,91 @@
+package aQute.lib.zip;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+
+import aQute.bnd.test.jupiter.InjectTemporaryDirectory;
+import aQute.lib.collections.Iterables;
+import aQute.lib.io.IO;
+
+public class MappedZipFileTest {
+
+	@Test
+	public void testSameAsZipFile() throws Exception {
+		File file = IO.getFile("testresources/osgi-3.0.0.jar");
+		try (ZipFile zipFile = new ZipFile(file); MappedZipFile mapped = new MappedZipFile(file)) {
+			List<String> names = new ArrayList<>();
+			for (ZipEntry expected : Iterables.iterable(zipFile.entries())) {
+				names.add(expected.getName());
+				MappedZipFile.Entry actual = mapped.getEntry(expected.getName());
+				assertThat(actual).as(expected.getName())
+					.isNotNull();
+				assertThat(actual.getMethod()).isEqualTo(expected.getMethod());
+				assertThat(actual.getSize()).isEqualTo(expected.getSize());
+				assertThat(actual.getCompressedSize()).isEqualTo(expected.getCompressedSize());
+				assertThat(actual.getCrc()).isEqualTo(expected.getCrc());
+				assertThat(actual.getTime()).isEqualTo(expected.getTime());
+				assertThat(actual.getExtra()).isEqualTo(expected.getExtra());
+				assertThat(actual.isDirectory()).isEqualTo(expected.isDirectory());
+				assertThat(IO.read(mapped.buffer(actual))).isEqualTo(IO.read(zipFile.getInputStream(expected)));
+			}
+			assertThat(mapped.entries()).extracting(ZipEntry::getName)
+				.containsExactlyElementsOf(names);
+		}
+	}
+
+	@Test
+	public void testStoredEntryIsSlice(@InjectTemporaryDirectory
+	File tmp) throws Exception {
+		byte[] content = "stored content".getBytes(UTF_8);
+		File file = new File(tmp, "stored.zip");
+		try (OutputStream fout = IO.outputStream(file)) {
+			// data before the zip file, like a launcher script
+			fout.write("#!/bin/sh\n".getBytes(UTF_8));
+			try (ZipOutputStream zout = new ZipOutputStream(fout)) {
+				ZipEntry entry = new ZipEntry("a/stored.txt");
+				entry.setMethod(ZipEntry.STORED);
+				entry.setSize(content.length);
+				CRC32 crc = new CRC32();
+				crc.update(content);
+				entry.setCrc(crc.getValue());
+				zout.putNextEntry(entry);
+				zout.write(content);
+				zout.closeEntry();
+				zout.putNextEntry(new ZipEntry("a/deflated.txt"));
+				zout.write(content);
+				zout.closeEntry();
+				zout.setComment("comment");
+			}
+		}
+		try (MappedZipFile mapped = new MappedZipFile(file)) {
+			assertThat(mapped.size()).isEqualTo(2);
+			ByteBuffer stored = mapped.buffer(mapped.getEntry("a/stored.txt"));
+			assertThat(stored.isReadOnly()).isTrue();
+			assertThat(IO.read(stored)).isEqualTo(content);
+			ByteBuffer deflated = mapped.buffer(mapped.getEntry("a/deflated.txt"));
+			assertThat(IO.read(deflated)).isEqualTo(content);
+		}
+	}
+
+	@Test
+	public void testNotAZipFile(@InjectTemporaryDirectory
+	File tmp) throws Exception {
+		File file = new File(tmp, "not.zip");
+		IO.store("not a zip file", file);
+		assertThatExceptionOfType(ZipException.class).isThrownBy(() -> new MappedZipFile(file));
+	}
+}
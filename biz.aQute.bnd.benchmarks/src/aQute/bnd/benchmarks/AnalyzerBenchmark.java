@@ -0,0 +1,61 @@
+package aQute.bnd.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.jar.Manifest;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import aQute.bnd.osgi.Analyzer;
+import aQute.bnd.osgi.Constants;
+import aQute.bnd.osgi.Jar;
+
+/**
+ * Calculate the manifest of a jar with several thousand classes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AnalyzerBenchmark {
+	@Param({
+		"false", "true"
+	})
+	public boolean	parallelAnalysis;
+
+	private Jar		jar;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		jar = BenchmarkData.largeJar();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		jar.close();
+	}
+
+	@Benchmark
+	public Manifest analyze() throws Exception {
+		try (Analyzer analyzer = BenchmarkData.analyzer(jar)) {
+			analyzer.setProperty(Constants.PARALLELANALYSIS, Boolean.toString(parallelAnalysis));
+			Manifest manifest = analyzer.calcManifest();
+			// the jar is reused by the next invocation
+			analyzer.setJar((Jar) null);
+			return manifest;
+		}
+	}
+}
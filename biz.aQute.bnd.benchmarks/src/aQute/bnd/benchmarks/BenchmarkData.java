@@ -0,0 +1,147 @@
+package aQute.bnd.benchmarks;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.Manifest;
+
+import org.osgi.resource.Resource;
+
+import aQute.bnd.osgi.Analyzer;
+import aQute.bnd.osgi.Constants;
+import aQute.bnd.osgi.Domain;
+import aQute.bnd.osgi.EmbeddedResource;
+import aQute.bnd.osgi.Jar;
+import aQute.bnd.osgi.repository.XMLResourceGenerator;
+import aQute.bnd.osgi.resource.ResourceBuilder;
+import aQute.lib.io.IO;
+import aQute.libg.cryptography.SHA256;
+
+/**
+ * Synthesizes the inputs of the benchmarks.
+ */
+final class BenchmarkData {
+	private BenchmarkData() {}
+
+	/**
+	 * Answer a jar with the classes of all the jars and directories on the
+	 * class path. This is bndlib, its dependencies and JMH, so several
+	 * thousand classes of real code.
+	 */
+	static Jar largeJar() throws Exception {
+		Jar large = new Jar("large");
+		for (String entry : System.getProperty("java.class.path")
+			.split(File.pathSeparator)) {
+			File file = new File(entry);
+			if (!file.exists()) {
+				continue;
+			}
+			try (Jar jar = new Jar(file)) {
+				for (Map.Entry<String, aQute.bnd.osgi.Resource> e : jar.getResources()
+					.entrySet()) {
+					String path = e.getKey();
+					if (path.endsWith(".class") && !path.startsWith("META-INF/") && !path.endsWith("module-info.class")
+						&& !large.exists(path)) {
+						aQute.bnd.osgi.Resource resource = e.getValue();
+						large.putResource(path,
+							new EmbeddedResource(IO.read(resource.openInputStream()), resource.lastModified()));
+					}
+				}
+			}
+		}
+		return large;
+	}
+
+	/**
+	 * Answer an analyzer that exports all the packages of the jar.
+	 */
+	static Analyzer analyzer(Jar jar) {
+		Analyzer analyzer = new Analyzer();
+		analyzer.setProperty(Constants.BUNDLE_SYMBOLICNAME, "large");
+		analyzer.setProperty(Constants.BUNDLE_VERSION, "1.0.0");
+		analyzer.setProperty(Constants.EXPORT_CONTENTS, "*");
+		analyzer.setProperty(Constants.IMPORT_PACKAGE, "*;resolution:=optional");
+		analyzer.setProperty(Constants.NOEXTRAHEADERS, "true");
+		analyzer.setJar(jar);
+		return analyzer;
+	}
+
+	/**
+	 * Answer the manifest calculated for the jar.
+	 */
+	static Manifest manifest(Jar jar) throws Exception {
+		try (Analyzer analyzer = analyzer(jar)) {
+			Manifest manifest = analyzer.calcManifest();
+			analyzer.setJar((Jar) null);
+			return manifest;
+		}
+	}
+
+	/**
+	 * Answer the resources of a synthesized repository. Each resource exports
+	 * and imports some packages and provides and requires a capability.
+	 */
+	static List<Resource> resources(int count) throws Exception {
+		List<Resource> resources = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			String bsn = "bench.bundle" + i;
+			String version = "1." + (i % 7) + "." + (i % 13);
+			Map<String, String> headers = new HashMap<>();
+			headers.put(Constants.BUNDLE_MANIFESTVERSION, "2");
+			headers.put(Constants.BUNDLE_SYMBOLICNAME, bsn);
+			headers.put(Constants.BUNDLE_VERSION, version);
+			StringBuilder exports = new StringBuilder();
+			StringBuilder imports = new StringBuilder();
+			for (int p = 0; p < 5; p++) {
+				if (p > 0) {
+					exports.append(',');
+					imports.append(',');
+				}
+				exports.append(bsn)
+					.append(".api")
+					.append(p)
+					.append(";version=\"")
+					.append(version)
+					.append("\";uses:=\"org.osgi.framework\"");
+				imports.append("bench.bundle")
+					.append((i + 1 + p * 31) % count)
+					.append(".api")
+					.append(p)
+					.append(";version=\"[1.0,2)\"");
+			}
+			headers.put(Constants.EXPORT_PACKAGE, exports.toString());
+			headers.put(Constants.IMPORT_PACKAGE, imports + ",org.osgi.framework;version=\"[1.8,2)\"");
+			headers.put(Constants.PROVIDE_CAPABILITY, "bench.capability;bench.capability=" + bsn + ";version:Version=" + version);
+			headers.put(Constants.REQUIRE_CAPABILITY,
+				"osgi.ee;filter:=\"(&(osgi.ee=JavaSE)(version=17))\",bench.capability;filter:=\"(bench.capability=bench.bundle"
+					+ ((i + 7) % count) + ")\"");
+
+			ResourceBuilder builder = new ResourceBuilder();
+			builder.addManifest(Domain.domain(headers));
+			String sha256 = SHA256.digest(bsn.getBytes(UTF_8))
+				.asHex();
+			builder.addContentCapability(URI.create("bundles/" + bsn + "-" + version + ".jar"), sha256, 10_000L + i,
+				"application/vnd.osgi.bundle");
+			resources.add(builder.build());
+		}
+		return resources;
+	}
+
+	/**
+	 * Answer the OBR index of the synthesized repository.
+	 */
+	static byte[] index(int count) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new XMLResourceGenerator().name("bench")
+			.increment(0L)
+			.resources(resources(count))
+			.save(out);
+		return out.toByteArray();
+	}
+}
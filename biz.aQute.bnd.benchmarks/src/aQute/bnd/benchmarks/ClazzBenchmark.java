@@ -0,0 +1,59 @@
+package aQute.bnd.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import aQute.bnd.osgi.Analyzer;
+import aQute.bnd.osgi.Clazz;
+import aQute.bnd.osgi.Jar;
+import aQute.bnd.osgi.Resource;
+
+/**
+ * Parse all the classes of a jar with several thousand classes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ClazzBenchmark {
+	private Jar			jar;
+	private Analyzer	analyzer;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		jar = BenchmarkData.largeJar();
+		analyzer = new Analyzer();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		analyzer.close();
+		jar.close();
+	}
+
+	@Benchmark
+	public void parseClassFile(Blackhole blackhole) throws Exception {
+		for (Map.Entry<String, Resource> entry : jar.getResources()
+			.entrySet()) {
+			Clazz clazz = new Clazz(analyzer, entry.getKey(), entry.getValue());
+			clazz.parseClassFile();
+			blackhole.consume(clazz);
+		}
+	}
+}
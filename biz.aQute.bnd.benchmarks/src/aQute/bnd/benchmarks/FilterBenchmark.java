@@ -0,0 +1,73 @@
+package aQute.bnd.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.osgi.resource.Capability;
+import org.osgi.resource.Resource;
+
+import aQute.bnd.osgi.resource.ResourceUtils;
+
+/**
+ * Match requirement filters against the capabilities of a synthesized
+ * repository, like the resolver does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilterBenchmark {
+	@Param({
+		"(&(osgi.wiring.package=bench.bundle500.api3)(version>=1.0.0)(!(version>=2.0.0)))",
+		"(|(osgi.wiring.package=bench.bundle1.api0)(osgi.wiring.package=bench.bundle2.api0)(osgi.wiring.package=bench.bundle3.api0))",
+		"(&(osgi.wiring.package=bench.*)(version>=1.5))"
+	})
+	public String								filter;
+
+	private List<Map<String, Object>>			attributes;
+	private Predicate<Map<String, Object>>		predicate;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		attributes = new ArrayList<>();
+		for (Resource resource : BenchmarkData.resources(1000)) {
+			for (Capability capability : resource.getCapabilities("osgi.wiring.package")) {
+				attributes.add(capability.getAttributes());
+			}
+		}
+		predicate = ResourceUtils.filterPredicate(filter);
+	}
+
+	@Benchmark
+	public int match() {
+		int matches = 0;
+		for (Map<String, Object> map : attributes) {
+			if (predicate.test(map)) {
+				matches++;
+			}
+		}
+		return matches;
+	}
+
+	@Benchmark
+	public Predicate<Map<String, Object>> parse() {
+		return ResourceUtils.filterPredicate(filter);
+	}
+}
@@ -0,0 +1,55 @@
+package aQute.bnd.benchmarks;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import aQute.bnd.osgi.Jar;
+
+/**
+ * Write a jar with several thousand classes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class JarBenchmark {
+	@Param({
+		"false", "true"
+	})
+	public boolean	parallelDeflate;
+
+	private Jar		jar;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		jar = BenchmarkData.largeJar();
+		jar.setManifest(BenchmarkData.manifest(jar));
+		jar.setParallelDeflate(parallelDeflate);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		jar.close();
+	}
+
+	@Benchmark
+	public void write() throws Exception {
+		jar.write(OutputStream.nullOutputStream());
+	}
+}
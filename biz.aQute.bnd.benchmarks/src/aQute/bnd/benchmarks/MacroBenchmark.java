@@ -0,0 +1,79 @@
+package aQute.bnd.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import aQute.bnd.osgi.Macro;
+import aQute.bnd.osgi.Processor;
+
+/**
+ * Expand macros the way a workspace, project and bnd file hierarchy uses them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MacroBenchmark {
+	@Param({
+		"${base.version}.${tstamp;yyyyMMddHHmm}-SNAPSHOT",
+		"${replace;${buildpath};([^,]+);$1.jar}",
+		"${if;${is;${project.level};3};${filter;${buildpath};bench.*};${def;undefined;default}}",
+		"${sort;${uniq;${buildpath},${testpath}}}",
+		"${range;[==,+);${base.version}}"
+	})
+	public String		line;
+
+	private Processor	workspace;
+	private Processor	project;
+	private Processor	bnd;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		workspace = new Processor();
+		for (int i = 0; i < 200; i++) {
+			workspace.setProperty("workspace.property" + i, "value" + i + ",${workspace.property" + (i / 2) + "}");
+		}
+		workspace.setProperty("base.version", "7.5.0");
+		project = new Processor(workspace);
+		project.setProperty("project.level", "3");
+		StringBuilder buildpath = new StringBuilder();
+		for (int i = 0; i < 50; i++) {
+			if (i > 0) {
+				buildpath.append(',');
+			}
+			buildpath.append("bench.bundle")
+				.append(i);
+		}
+		project.setProperty("buildpath", buildpath.toString());
+		project.setProperty("testpath", "${buildpath},junit,assertj");
+		bnd = new Processor(project);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		bnd.close();
+		project.close();
+		workspace.close();
+	}
+
+	@Benchmark
+	public String process() {
+		Macro replacer = bnd.getReplacer();
+		return replacer.process(line);
+	}
+}
@@ -0,0 +1,48 @@
+package aQute.bnd.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.osgi.resource.Resource;
+
+import aQute.bnd.osgi.Domain;
+import aQute.bnd.osgi.Jar;
+import aQute.bnd.osgi.resource.ResourceBuilder;
+
+/**
+ * Create a resource from the manifest of a bundle with several hundred
+ * exported and imported packages.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResourceBuilderBenchmark {
+	private Domain manifest;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		try (Jar jar = BenchmarkData.largeJar()) {
+			manifest = Domain.domain(BenchmarkData.manifest(jar));
+		}
+	}
+
+	@Benchmark
+	public Resource addManifest() throws Exception {
+		ResourceBuilder builder = new ResourceBuilder();
+		builder.addManifest(manifest);
+		return builder.build();
+	}
+}
@@ -5,12 +5,17 @@ import static java.util.Objects.requireNonNull;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
-import java.util.Arrays;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.StringJoiner;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 import org.osgi.annotation.versioning.ProviderType;
 
+import aQute.lib.io.ByteBufferDataInput;
+
 public class ConstantPool {
 	public static final int	CONSTANT_Utf8				= 1;
 	public static final int	CONSTANT_Integer			= 3;
@@ -42,10 +47,19 @@ public class ConstantPool {
 
 	@SuppressWarnings("unchecked")
 	public <T> T entry(int index) {
-		return (T) pool[index];
+		Object entry = pool[index];
+		if (entry instanceof Utf8 utf8) {
+			// Racing threads decode the same interned string
+			pool[index] = entry = utf8.decode();
+		}
+		return (T) entry;
 	}
 
 	public int tag(int index) {
+		// Do not decode a UTF8 entry just to answer its tag
+		if ((index < pool.length) && (pool[index] instanceof Utf8)) {
+			return CONSTANT_Utf8;
+		}
 		Object entry = entry(index);
 		if (entry instanceof Info info) {
 			return info.tag();
@@ -90,7 +104,11 @@ public class ConstantPool {
 
 	@Override
 	public String toString() {
-		return Arrays.toString(pool);
+		StringJoiner sj = new StringJoiner(", ", "[", "]");
+		for (int index = 0, len = size(); index < len; index++) {
+			sj.add(Objects.toString(entry(index)));
+		}
+		return sj.toString();
 	}
 
 	public static ConstantPool read(DataInput in) throws IOException {
@@ -100,7 +118,9 @@ public class ConstantPool {
 			int tag = in.readUnsignedByte();
 			switch (tag) {
 				case CONSTANT_Utf8 : {
-					pool[index] = readUtf8Info(in);
+					// Decoded on first access since many entries, like the
+					// names of referenced members, are never used
+					pool[index] = new Utf8(ClassFile.slice(in, in.readUnsignedShort()));
 					break;
 				}
 				case CONSTANT_Integer : {
@@ -190,6 +210,31 @@ public class ConstantPool {
 		return constant.intern();
 	}
 
+	/**
+	 * The undecoded modified UTF-8 bytes of a CONSTANT_Utf8 entry.
+	 */
+	private static final class Utf8 {
+		private final ByteBuffer bytes;
+
+		Utf8(ByteBuffer bytes) {
+			this.bytes = bytes;
+		}
+
+		String decode() {
+			ByteBuffer bb = bytes.duplicate();
+			int size = bb.remaining();
+			ByteBuffer utf = ByteBuffer.allocate(size + 2);
+			utf.putShort((short) size)
+				.put(bb)
+				.flip();
+			try {
+				return readUtf8Info(ByteBufferDataInput.wrap(utf));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
 	static void writeUtf8Info(DataOutput out, String constant) throws IOException {
 		out.writeByte(CONSTANT_Utf8);
 		out.writeUTF(constant);
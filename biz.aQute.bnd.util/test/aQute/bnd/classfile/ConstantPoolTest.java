@@ -0,0 +1,61 @@
+package aQute.bnd.classfile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import aQute.lib.io.ByteBufferDataInput;
+import aQute.lib.io.IO;
+
+public class ConstantPoolTest {
+
+	@Test
+	public void testUtf8DecodedOnDemand() throws Exception {
+		byte[] bytes = IO.read(new File("testresources/record/MinMax.class"));
+		ByteBuffer bb = ByteBuffer.wrap(bytes);
+		DataInput in = ByteBufferDataInput.wrap(bb);
+		in.skipBytes(8); // magic, minor_version, major_version
+		ConstantPool constantPool = ConstantPool.read(in);
+		int end = bb.position();
+
+		int utf8_index = -1;
+		for (int index = 1; index < constantPool.size(); index++) {
+			if (constantPool.tag(index) == ConstantPool.CONSTANT_Utf8) {
+				utf8_index = index;
+				break;
+			}
+		}
+		assertThat(utf8_index).isPositive();
+		assertThat(constantPool.pool[utf8_index]).isNotInstanceOf(String.class);
+
+		String utf8 = constantPool.utf8(utf8_index);
+		assertThat(constantPool.pool[utf8_index]).isSameAs(utf8);
+		assertThat(utf8).isSameAs(utf8.intern());
+		assertThat(constantPool.tag(utf8_index)).isEqualTo(ConstantPool.CONSTANT_Utf8);
+		assertThat(constantPool.utf8Info(utf8)).isEqualTo(utf8_index);
+		assertThat(constantPool.toString()).contains(utf8);
+
+		// writing decodes the remaining entries
+		ByteArrayOutputStream bout = new ByteArrayOutputStream();
+		constantPool.write(new DataOutputStream(bout));
+		byte[] expected = Arrays.copyOfRange(bytes, 8, end);
+		assertThat(bout.toByteArray()).isEqualTo(expected);
+	}
+
+	@Test
+	public void testUtf8FromStream() throws Exception {
+		try (DataInputStream in = new DataInputStream(IO.stream(new File("testresources/record/MinMax.class")))) {
+			ClassFile clazz = ClassFile.parseClassFile(in);
+			assertThat(clazz.this_class).isEqualTo("MinMax");
+			assertThat(clazz.constant_pool.className(clazz.constant_pool.classInfo("MinMax"))).isEqualTo("MinMax");
+		}
+	}
+}
@@ -41,6 +41,9 @@ public class IndexCommand extends Processor {
 
 		@Description("The name of the index (default: name of the output file directory)")
 		String name();
+
+		@Description("The directory in which to cache the analysis of each bundle so unchanged bundles are not analyzed again, it must only be used by this index (default: no cache)")
+		File cache();
 	}
 
 	public void _index(indexOptions opts) throws Exception {
@@ -91,6 +94,7 @@ public class IndexCommand extends Processor {
 			.base(base)
 			.name(name)
 			.compress(compress)
+			.cache(opts.cache())
 			.index(repositoryFile);
 	}
 }
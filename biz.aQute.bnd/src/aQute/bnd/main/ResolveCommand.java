@@ -2,6 +2,7 @@ package aQute.bnd.main;
 
 import java.io.File;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
@@ -277,71 +278,79 @@ public class ResolveCommand extends Processor {
 
 		@Description("Quiet")
 		boolean quiet();
+
+		@Description("The maximum number of bndrun files resolved concurrently, 1 resolves them one at a time. The default is based on the available processors and memory")
+		int jobs();
 	}
 
 	@Description("Resolve a bndrun file")
 	public void _resolve(ResolveOptions options) throws Exception {
 		HandledProjectWorkspaceOptions hwpo = bnd.handleOptions(options, aQute.bnd.main.bnd.BNDRUN_ALL);
 
-		for (File f : hwpo.files()) {
-			if (options.verbose())
-				bnd.out.println("resolve " + f);
+		List<Bndrun> bndruns = new ArrayList<>();
+		try {
+			for (File f : hwpo.files()) {
+				if (!f.isFile()) {
+					error("Missing bndrun file: %s", f);
+				} else {
+					Bndrun bndrun = Bndrun.createBndrun(hwpo.workspace(), f);
+					bndruns.add(bndrun);
+					if (options.runorder() != null)
+						bndrun.setProperty("-runorder", options.runorder()
+							.toString());
+				}
+			}
 
-			if (!f.isFile()) {
-				error("Missing bndrun file: %s", f);
-			} else {
-				try (Bndrun bndrun = Bndrun.createBndrun(hwpo.workspace(), f)) {
-
-					try {
-						if (options.runorder() != null)
-							bndrun.setProperty("-runorder", options.runorder()
-								.toString());
-
-						RunResolution resolution = bndrun.resolve(quiet(options.quiet()));
-
-						bnd.out.println();
-
-						if (bndrun.isOk()) {
-
-							if (options.urls()) {
-								bnd.out.println("# URLS");
-								doUrls(resolution.getOrderedResources());
-								bnd.out.println();
-							}
-
-							if (options.bundles()) {
-								bnd.out.println("# BUNDLES");
-								doVersionedClauses(resolution.getRunBundles());
-								bnd.out.println();
-							}
-
-							if (options.files()) {
-								bnd.out.println("# FILES");
-								doFiles(resolution.getContainers());
-								bnd.out.println();
-							}
-
-							if (options.optionals()) {
-								bnd.out.println("# OPTIONALS");
-								doUrls(resolution.optional.keySet());
-								bnd.out.println();
-							}
-
-							bndrun.update(resolution, options.xchange(), options.write());
-						} else {
-							if (!options.quiet()) {
-								bnd.out.println("Failed to resolve");
-								bnd.out.println(resolution.report(true));
-							}
+			Bndrun.resolve(bndruns, options.jobs(), bndrun -> {
+				if (options.verbose())
+					bnd.out.println("resolve " + bndrun.getPropertiesFile());
+			}, (bndrun, resolution) -> {
+				File f = bndrun.getPropertiesFile();
+				try {
+					bnd.out.println();
+
+					if (bndrun.isOk()) {
+
+						if (options.urls()) {
+							bnd.out.println("# URLS");
+							doUrls(resolution.getOrderedResources());
+							bnd.out.println();
+						}
+
+						if (options.bundles()) {
+							bnd.out.println("# BUNDLES");
+							doVersionedClauses(resolution.getRunBundles());
+							bnd.out.println();
+						}
+
+						if (options.files()) {
+							bnd.out.println("# FILES");
+							doFiles(resolution.getContainers());
+							bnd.out.println();
+						}
+
+						if (options.optionals()) {
+							bnd.out.println("# OPTIONALS");
+							doUrls(resolution.optional.keySet());
+							bnd.out.println();
+						}
+
+						bndrun.update(resolution, options.xchange(), options.write());
+					} else {
+						if (!options.quiet()) {
+							bnd.out.println("Failed to resolve");
+							bnd.out.println(resolution.report(true));
 						}
-					} catch (Exception e) {
-						bnd.out.printf("%-50s %s\n", f.getName(), e);
-						exception(e, "Failed to resolve %s: %s", f, e);
-					} finally {
-						getInfo(bndrun);
 					}
+				} catch (Exception e) {
+					bnd.out.printf("%-50s %s\n", f.getName(), e);
+					exception(e, "Failed to resolve %s: %s", f, e);
+				} finally {
+					getInfo(bndrun);
 				}
-			}
+			}, quiet(options.quiet()));
+		} finally {
+			bndruns.forEach(IO::close);
 		}
 	}
 
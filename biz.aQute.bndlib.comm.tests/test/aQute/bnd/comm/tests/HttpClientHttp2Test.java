@@ -0,0 +1,331 @@
+package aQute.bnd.comm.tests;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.http.HttpClient.Version;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.SSLContext;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.osgi.util.promise.Promise;
+
+import aQute.bnd.comm.tests.HttpClientTest.TestServer;
+import aQute.bnd.connection.settings.ConnectionSettings;
+import aQute.bnd.exceptions.RunnableWithException;
+import aQute.bnd.http.HttpClient;
+import aQute.bnd.http.HttpRequestException;
+import aQute.bnd.osgi.Processor;
+import aQute.bnd.service.url.State;
+import aQute.bnd.service.url.TaggedData;
+import aQute.bnd.test.jupiter.InjectTemporaryDirectory;
+import aQute.bnd.url.BasicAuthentication;
+import aQute.http.testservers.Http2TestServer;
+import aQute.http.testservers.HttpTestServer.Config;
+import aQute.http.testservers.Httpbin;
+import aQute.lib.io.IO;
+import aQute.lib.strings.Strings;
+
+public class HttpClientHttp2Test {
+	private TestServer		httpServer;
+	private Httpbin			httpsServer;
+	private Http2TestServer	h2Server;
+
+	@BeforeEach
+	protected void setUp() throws Exception {
+		Config config = new Config();
+		config.https = false;
+		httpServer = new TestServer(config);
+		httpServer.start();
+
+		Config configs = new Config();
+		configs.https = true;
+		httpsServer = new Httpbin(configs);
+		httpsServer.start();
+
+		h2Server = new Http2TestServer(new Config());
+		h2Server.start();
+	}
+
+	@AfterEach
+	protected void tearDown() throws Exception {
+		IO.close(httpServer);
+		IO.close(httpsServer);
+		IO.close(h2Server);
+	}
+
+	/**
+	 * Run the test with the default TLS context trusting the h2 server, the
+	 * java.net.http client of the transport uses the default TLS context.
+	 */
+	private void trustingH2Server(RunnableWithException test) throws Exception {
+		SSLContext previous = SSLContext.getDefault();
+		SSLContext.setDefault(h2Server.getClientContext());
+		try {
+			test.run();
+		} finally {
+			SSLContext.setDefault(previous);
+		}
+	}
+
+	@Test
+	public void testFetch() throws Exception {
+		try (HttpClient hc = new HttpClient().http2(true)) {
+			assertThat(hc.isHttp2()).isTrue();
+			String userAgent = hc.build()
+				.get(String.class)
+				.go(httpServer.getBaseURI("user-agent"));
+			assertThat(userAgent).contains("Java-http-client");
+
+			TaggedData tag = hc.build()
+				.asTag()
+				.go(httpServer.getBaseURI("status/404"));
+			assertThat(tag.getState()).isEqualTo(State.NOT_FOUND);
+
+			String redirected = hc.build()
+				.get(String.class)
+				.go(httpServer.getBaseURI("redirect/3/200"));
+			assertThat(redirected).isNotNull();
+
+			String gzip = hc.build()
+				.get(String.class)
+				.go(httpServer.getBaseURI("gzip"));
+			assertThat(gzip).contains("Markus Kuhn");
+		}
+	}
+
+	@Test
+	public void testCache(@InjectTemporaryDirectory
+	File tmp) throws Exception {
+		try (HttpClient hc = new HttpClient().http2(true)) {
+			hc.setCache(tmp);
+
+			Promise<TaggedData> a = hc.build()
+				.useCache()
+				.retries(0)
+				.age(1, TimeUnit.DAYS)
+				.asTag()
+				.async(httpServer.getBaseURI("mftch"));
+			Thread.sleep(100);
+			Promise<TaggedData> b = hc.build()
+				.useCache()
+				.retries(0)
+				.age(1, TimeUnit.DAYS)
+				.asTag()
+				.async(httpServer.getBaseURI("mftch"));
+
+			TaggedData ta = a.getValue();
+			assertThat(ta.getTag()).isEqualTo("FOO");
+			assertThat(ta.getState()).isEqualTo(State.UPDATED);
+			TaggedData tb = b.getValue();
+			assertThat(tb.getTag()).isEqualTo("FOO");
+			assertThat(tb.getState()).isEqualTo(State.UNMODIFIED);
+			assertThat(IO.collect(hc.getCacheFileFor(httpServer.getBaseURI("mftch")))).isEqualTo("OK!");
+		}
+	}
+
+	@Test
+	public void testAuthentication() throws Exception {
+		try (Processor p = new Processor(); HttpClient hc = new HttpClient().http2(true)) {
+			TaggedData unauthorized = hc.build()
+				.retries(0)
+				.asTag()
+				.go(httpServer.getBaseURI("basic-auth/user/good"));
+			assertThat(unauthorized.getResponseCode()).isEqualTo(HttpURLConnection.HTTP_UNAUTHORIZED);
+
+			hc.addURLConnectionHandler(new BasicAuthentication("user", "good", p));
+			TaggedData authorized = hc.build()
+				.retries(0)
+				.asTag()
+				.go(httpServer.getBaseURI("basic-auth/user/good"));
+			assertThat(authorized.getResponseCode()).isEqualTo(HttpURLConnection.HTTP_OK);
+			IO.close(authorized);
+		}
+	}
+
+	@Test
+	public void testHttpsWithTrustedCertificates(@InjectTemporaryDirectory
+	File tmp) throws Exception {
+		try (Processor p = new Processor(); HttpClient hc = new HttpClient()) {
+			p.setProperty("-connection-http2", "true");
+			p.setProperty("-connection-settings", "server;id=\"" + httpsServer.getBaseURI() + "\";verify=true;trust=\""
+				+ Strings.join(httpsServer.getTrustedCertificateFiles(tmp)) + "\"");
+			hc.setReporter(p);
+			ConnectionSettings cs = new ConnectionSettings(p, hc);
+			cs.readSettings();
+			assertThat(hc.isHttp2()).isTrue();
+
+			// the trust configured by the connection settings is used
+			TaggedData tag = hc.build()
+				.retries(0)
+				.asTag()
+				.go(httpsServer.getBaseURI("get/foo"));
+			assertThat(tag.getResponseCode()).isEqualTo(HttpURLConnection.HTTP_OK);
+			IO.close(tag);
+		}
+	}
+
+	@Test
+	public void testReadTimeout() throws Exception {
+		try (HttpClient hc = new HttpClient().http2(true)) {
+			// connect first, so only the read timeout applies
+			hc.build()
+				.get(String.class)
+				.go(httpServer.getBaseURI("get"));
+			TaggedData tag = hc.build()
+				.timeout(1000)
+				.retries(2)
+				.asTag()
+				.go(httpServer.getBaseURI("readtimeout/1"));
+			assertThat(tag.getResponseCode()).isEqualTo(HttpURLConnection.HTTP_OK);
+		}
+	}
+
+	@Test
+	public void testConcurrentRequests() throws Exception {
+		try (HttpClient hc = new HttpClient().http2(true)) {
+			List<Promise<String>> promises = new ArrayList<>();
+			for (int i = 0; i < 100; i++) {
+				promises.add(hc.build()
+					.get(String.class)
+					.async(httpServer.getBaseURI("get/" + i)));
+			}
+			for (int i = 0; i < promises.size(); i++) {
+				assertThat(promises.get(i)
+					.getValue()).contains("/get/" + i);
+			}
+		}
+	}
+
+	@Test
+	public void testHttp2Negotiated() throws Exception {
+		java.net.http.HttpClient client = java.net.http.HttpClient.newBuilder()
+			.sslContext(h2Server.getClientContext())
+			.build();
+		HttpResponse<String> response = client.send(HttpRequest.newBuilder(h2Server.getBaseURI("get"))
+			.build(), BodyHandlers.ofString());
+		assertThat(response.version()).isEqualTo(Version.HTTP_2);
+		assertThat(response.body()).isEqualTo("OK!");
+
+		trustingH2Server(() -> {
+			try (HttpClient hc = new HttpClient().http2(true)) {
+				TaggedData tag = hc.build()
+					.retries(0)
+					.asTag()
+					.go(h2Server.getBaseURI("get"));
+				assertThat(tag.getConnection()
+					.getHeaderField(0)).isEqualTo("HTTP/2 200");
+				assertThat(IO.collect(tag.getInputStream())).isEqualTo("OK!");
+			}
+		});
+		assertThat(h2Server.getConnections()).isEqualTo(2);
+	}
+
+	@Test
+	public void testHttp2StreamsBounded() throws Exception {
+		trustingH2Server(() -> {
+			try (HttpClient hc = new HttpClient().http2(true)) {
+				// connect first, so all requests share the connection
+				hc.build()
+					.get(String.class)
+					.go(h2Server.getBaseURI("get"));
+
+				// a stream is open until its body is read
+				h2Server.delay = 200L;
+				List<Promise<String>> promises = new ArrayList<>();
+				for (int i = 0; i < 96; i++) {
+					promises.add(hc.build()
+						.retries(0)
+						.get(String.class)
+						.async(h2Server.getBaseURI("get/" + i)));
+				}
+				for (Promise<String> promise : promises) {
+					assertThat(promise.getValue()).isEqualTo("OK!");
+				}
+			}
+		});
+		assertThat(h2Server.getConnections()).isEqualTo(1);
+		assertThat(h2Server.getStreams()).isEqualTo(97);
+		assertThat(h2Server.getMaxOpenStreams()).isGreaterThan(1)
+			.isLessThanOrEqualTo(32);
+	}
+
+	@Test
+	public void testHttp2BodyReadTimeout() throws Exception {
+		trustingH2Server(() -> {
+			try (HttpClient hc = new HttpClient().http2(true)) {
+				hc.build()
+					.get(String.class)
+					.go(h2Server.getBaseURI("get"));
+
+				// the headers arrive but the body stalls
+				h2Server.delay = 60_000L;
+				long start = System.nanoTime();
+				assertThatThrownBy(() -> hc.build()
+					.timeout(1000)
+					.retries(0)
+					.get(String.class)
+					.go(h2Server.getBaseURI("stall"))).isInstanceOf(IOException.class);
+				assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(30_000L);
+				assertThat(Thread.interrupted()).isFalse();
+			}
+		});
+	}
+
+	@Test
+	public void testHttp2AbandonedResponses() throws Exception {
+		trustingH2Server(() -> {
+			try (HttpClient hc = new HttpClient().http2(true)) {
+				hc.build()
+					.get(String.class)
+					.go(h2Server.getBaseURI("get"));
+
+				// responses that are neither read nor closed hold their stream
+				List<TaggedData> abandoned = new ArrayList<>();
+				for (int i = 0; i < 32; i++) {
+					abandoned.add(hc.build()
+						.retries(0)
+						.asTag()
+						.go(h2Server.getBaseURI("abandoned/" + i)));
+				}
+				assertThat(abandoned).allMatch(tag -> tag.getResponseCode() == 200);
+				long start = System.nanoTime();
+				assertThatThrownBy(() -> hc.build()
+					.timeout(1000)
+					.retries(0)
+					.get(String.class)
+					.go(h2Server.getBaseURI("blocked"))).isInstanceOfSatisfying(HttpRequestException.class,
+						e -> assertThat(e.responseCode).isEqualTo(HttpURLConnection.HTTP_GATEWAY_TIMEOUT));
+				assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(30_000L);
+
+				// until they are garbage collected
+				abandoned.clear();
+				String result = null;
+				for (int i = 0; (i < 50) && (result == null); i++) {
+					System.gc();
+					try {
+						result = hc.build()
+							.timeout(1000)
+							.retries(0)
+							.get(String.class)
+							.go(h2Server.getBaseURI("released"));
+					} catch (HttpRequestException e) {
+						// not yet collected
+					}
+				}
+				assertThat(result).isEqualTo("OK!");
+			}
+		});
+	}
+}
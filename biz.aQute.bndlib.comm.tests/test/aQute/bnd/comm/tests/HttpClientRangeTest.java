@@ -0,0 +1,211 @@
+package aQute.bnd.comm.tests;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import aQute.bnd.http.HttpClient;
+import aQute.bnd.test.jupiter.InjectTemporaryDirectory;
+import aQute.http.testservers.HttpTestServer.Config;
+import aQute.http.testservers.Httpbin;
+import aQute.lib.io.IO;
+
+public class HttpClientRangeTest {
+	private RangeServer httpServer;
+
+	/**
+	 * Serves a byte array with support for range requests. The response to
+	 * the first request can be cut off to simulate an interrupted download.
+	 */
+	public static class RangeServer extends Httpbin {
+		final static Pattern	RANGE_P		= Pattern.compile("bytes=(\\d+)-(\\d*)");
+		final List<String>		ranges		= Collections.synchronizedList(new ArrayList<>());
+		volatile byte[]			data;
+		volatile String			etag		= "\"v1\"";
+		volatile int			failAfter	= -1;
+
+		public RangeServer(Config config) throws Exception {
+			super(config);
+		}
+
+		public InputStream _ranged(Request rq, Response rsp) throws Exception {
+			byte[] data = this.data;
+			int start = 0;
+			int end = data.length;
+			rsp.code = 200;
+			rsp.headers.put("ETag", etag);
+			rsp.headers.put("Accept-Ranges", "bytes");
+			String range = rq.headers.get("Range");
+			String ifRange = rq.headers.get("If-Range");
+			if ((range != null) && ((ifRange == null) || ifRange.equals(etag))) {
+				ranges.add(range);
+				Matcher m = RANGE_P.matcher(range);
+				assertThat(m.matches()).isTrue();
+				start = Integer.parseInt(m.group(1));
+				if (!m.group(2)
+					.isEmpty()) {
+					end = Math.min(end, Integer.parseInt(m.group(2)) + 1);
+				}
+				rsp.code = 206;
+				rsp.headers.put("Content-Range", "bytes " + start + "-" + (end - 1) + "/" + data.length);
+			}
+			rsp.length = end - start;
+			int limit = failAfter;
+			failAfter = -1;
+			return new ByteArrayInputStream(data, start, end - start) {
+				int sent;
+
+				@Override
+				public synchronized int read(byte[] b, int off, int len) {
+					if ((limit >= 0) && (sent >= limit)) {
+						throw new RuntimeException("cut off");
+					}
+					int n = super.read(b, off, (limit >= 0) ? Math.min(len, limit - sent) : len);
+					if (n > 0) {
+						sent += n;
+					}
+					return n;
+				}
+			};
+		}
+	}
+
+	@BeforeEach
+	protected void setUp() throws Exception {
+		Config config = new Config();
+		config.https = false;
+		httpServer = new RangeServer(config);
+		httpServer.start();
+	}
+
+	@AfterEach
+	protected void tearDown() throws Exception {
+		IO.close(httpServer);
+	}
+
+	private static byte[] data(int length) {
+		byte[] data = new byte[length];
+		new Random(length).nextBytes(data);
+		return data;
+	}
+
+	private static void assertNoPartialFiles(File dir) {
+		assertThat(dir.list((d, name) -> name.contains(".partial"))).isEmpty();
+	}
+
+	private static void assertContent(File file, byte[] expected) throws IOException {
+		byte[] actual = IO.read(file);
+		assertThat(actual.length).as("length")
+			.isEqualTo(expected.length);
+		assertThat(Arrays.mismatch(actual, expected)).as("first difference")
+			.isEqualTo(-1);
+	}
+
+	@Test
+	public void testResume(@InjectTemporaryDirectory
+	File tmp) throws Exception {
+		httpServer.data = data(4 * 1024 * 1024);
+		httpServer.failAfter = 1024 * 1024;
+		File file = new File(tmp, "ranged.bin");
+		try (HttpClient hc = new HttpClient()) {
+			File result = hc.build()
+				.retries(1)
+				.useCache(file)
+				.go(httpServer.getBaseURI("ranged"));
+			assertThat(result).isEqualTo(file);
+			assertContent(file, httpServer.data);
+		}
+		// the retry only requested the missing bytes
+		assertThat(httpServer.ranges).hasSize(1);
+		Matcher m = RangeServer.RANGE_P.matcher(httpServer.ranges.get(0));
+		assertThat(m.matches()).isTrue();
+		assertThat(Integer.parseInt(m.group(1))).isPositive();
+		assertThat(Integer.parseInt(m.group(2))).isEqualTo(httpServer.data.length - 1);
+		assertNoPartialFiles(tmp);
+	}
+
+	@Test
+	public void testResumeChangedContent(@InjectTemporaryDirectory
+	File tmp) throws Exception {
+		httpServer.data = data(2 * 1024 * 1024);
+		httpServer.failAfter = 512 * 1024;
+		File file = new File(tmp, "ranged.bin");
+		try (HttpClient hc = new HttpClient()) {
+			try {
+				hc.build()
+					.retries(0)
+					.useCache(file)
+					.go(httpServer.getBaseURI("ranged"));
+			} catch (Exception e) {
+				// expected
+			}
+			assertThat(file).doesNotExist();
+
+			// the resource changed, the If-Range validator does not match
+			httpServer.data = data(3 * 1024 * 1024);
+			httpServer.etag = "\"v2\"";
+			hc.build()
+				.retries(0)
+				.useCache(file)
+				.go(httpServer.getBaseURI("ranged"));
+			assertContent(file, httpServer.data);
+		}
+		assertThat(httpServer.ranges).isEmpty();
+		assertNoPartialFiles(tmp);
+	}
+
+	@Test
+	public void testParallelRanges(@InjectTemporaryDirectory
+	File tmp) throws Exception {
+		httpServer.data = data(24 * 1024 * 1024 + 17);
+		File file = new File(tmp, "ranged.bin");
+		try (HttpClient hc = new HttpClient().parallelRanges(4)) {
+			assertThat(hc.getParallelRanges()).isEqualTo(4);
+			hc.build()
+				.retries(0)
+				.useCache(file)
+				.go(httpServer.getBaseURI("ranged"));
+			assertContent(file, httpServer.data);
+		}
+		// at least 8MB per range, the first range is the initial request
+		assertThat(httpServer.ranges).hasSize(2);
+		assertNoPartialFiles(tmp);
+	}
+
+	@Test
+	public void testSmallFileNotSplit(@InjectTemporaryDirectory
+	File tmp) throws Exception {
+		httpServer.data = data(64 * 1024);
+		File file = new File(tmp, "ranged.bin");
+		try (HttpClient hc = new HttpClient().parallelRanges(4)) {
+			hc.build()
+				.retries(0)
+				.useCache(file)
+				.go(httpServer.getBaseURI("ranged"));
+			assertContent(file, httpServer.data);
+		}
+		assertThat(httpServer.ranges).isEmpty();
+		assertNoPartialFiles(tmp);
+	}
+
+	@Test
+	public void testInvalidSetting() throws Exception {
+		try (HttpClient hc = new HttpClient().parallelRanges(0)) {
+			assertThat(hc.getParallelRanges()).isEqualTo(1);
+		}
+	}
+}
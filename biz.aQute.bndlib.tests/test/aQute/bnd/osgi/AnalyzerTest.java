@@ -1,7 +1,17 @@
 package aQute.bnd.osgi;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.jar.Manifest;
+
 import org.junit.jupiter.api.Test;
 
+import aQute.bnd.osgi.Descriptors.TypeRef;
+import aQute.lib.io.IO;
+
 public class AnalyzerTest {
 
 
@@ -14,4 +24,125 @@ public class AnalyzerTest {
 		}
 	}
 
+	@Test
+	public void testRestoredClassesParsedWhenVisited() throws Exception {
+		File file = IO.getFile("jar/ds.jar");
+		IncrementalAnalysis state = new IncrementalAnalysis();
+		Manifest expected = null;
+		for (int i = 0; i < 2; i++) {
+			try (Jar jar = new Jar(file); Analyzer a = new Analyzer(jar)) {
+				a.setProperty(Constants.EXPORT_PACKAGE, "*");
+				a.setProperty(Constants.PARALLELANALYSIS, "true");
+				a.setProperty(Constants.NOEXTRAHEADERS, "true");
+				a.setIncrementalAnalysis(state);
+				Manifest manifest = a.calcManifest();
+				assertThat(a.check()).isTrue();
+				if (expected == null) {
+					expected = manifest;
+					continue;
+				}
+				assertThat(state.getReused()).isPositive();
+				assertThat(manifest.getMainAttributes()).isEqualTo(expected.getMainAttributes());
+				// The collectors only visit annotated classes
+				assertThat(a.getClassspace()
+					.values()).filteredOn(c -> c.annotations()
+						.isEmpty())
+						.isNotEmpty()
+						.noneMatch(Clazz::hasClassFile);
+			}
+		}
+	}
+
+	@Test
+	public void testParallelClassspaceReadSameAsSequential() throws Exception {
+		Map<String, String> expected = null;
+		for (String parallel : new String[] {
+			"false", "true"
+		}) {
+			try (Builder b = new Builder()) {
+				b.setProperty(Constants.PRIVATEPACKAGE,
+					"test.component, test.metatype, test.annotationheaders.multiple.std");
+				b.setProperty(Constants.PARALLELANALYSIS, parallel);
+				b.setProperty(Constants.NOEXTRAHEADERS, "true");
+				b.addClasspath(IO.getFile("bin_test"));
+				b.addClasspath(IO.getFile("jar/osgi.jar"));
+				Jar jar = b.build();
+				Map<String, String> output = new LinkedHashMap<>();
+				b.getErrors()
+					.stream()
+					.sorted()
+					.forEach(e -> output.put("error " + e, ""));
+				b.getWarnings()
+					.stream()
+					.sorted()
+					.forEach(w -> output.put("warning " + w, ""));
+				jar.getManifest()
+					.getMainAttributes()
+					.forEach((k, v) -> output.put(k.toString(), v.toString()));
+				for (Map.Entry<String, Resource> entry : jar.getResources()
+					.entrySet()) {
+					if (entry.getKey()
+						.startsWith("OSGI-INF/")) {
+						output.put(entry.getKey(), IO.collect(entry.getValue()
+							.openInputStream()));
+					}
+				}
+				assertThat(output.keySet()).contains("Foo", "Service-Component")
+					.anyMatch(k -> k.startsWith("OSGI-INF/test.component."))
+					.anyMatch(k -> k.startsWith("OSGI-INF/metatype/"));
+				if (expected == null) {
+					expected = output;
+				} else {
+					assertThat(output).containsExactlyEntriesOf(expected);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testImportedClassesCacheEvictsLeastRecentlyUsed() throws Exception {
+		try (Analyzer a = new Analyzer()) {
+			a.setProperty(Constants.IMPORTEDCLASSESCACHE, "2");
+			a.setJar(new Jar("dot"));
+			a.addClasspath(IO.getFile("jar/osgi.jar"));
+			TypeRef bundle = a.getTypeRef("org/osgi/framework/Bundle");
+			TypeRef context = a.getTypeRef("org/osgi/framework/BundleContext");
+			TypeRef service = a.getTypeRef("org/osgi/framework/ServiceReference");
+
+			Clazz clazz = a.findClass(bundle);
+			assertThat(clazz).isNotNull();
+			assertThat(a.findClass(context)).isNotNull();
+			assertThat(a.findClass(bundle)).isSameAs(clazz);
+			// evicts BundleContext, the least recently used
+			assertThat(a.findClass(service)).isNotNull();
+			assertThat(a.findClass(bundle)).isSameAs(clazz);
+			assertThat(a.findClass(context)).isNotNull();
+
+			ImportedClassesCache cache = a.importedClassesCache();
+			assertThat(cache.size()).isEqualTo(2);
+			assertThat(cache.getHits()).isEqualTo(2);
+			assertThat(cache.getMisses()).isEqualTo(4);
+			assertThat(cache.getEvictions()).isEqualTo(2);
+
+			Map<String, Object> table = new LinkedHashMap<>();
+			a.report(table);
+			assertThat(table).containsEntry("Imported Classes Cache", cache);
+			assertThat(a.check()).isTrue();
+		}
+	}
+
+	@Test
+	public void testImportedClassesCacheUnbounded() throws Exception {
+		ImportedClassesCache cache = new ImportedClassesCache(0);
+		try (Analyzer a = new Analyzer()) {
+			for (int i = 0; i < 100; i++) {
+				TypeRef typeRef = a.getTypeRef("test/C" + i);
+				cache.put(typeRef, new Clazz(a, typeRef.getPath(), null));
+			}
+		}
+		assertThat(cache.size()).isEqualTo(100);
+		assertThat(cache.getEvictions()).isZero();
+		assertThat(cache).hasToString("size=100 maximum=unbounded hits=0 misses=0 evictions=0");
+	}
+
 }
@@ -0,0 +1,48 @@
+package aQute.bnd.osgi.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.osgi.resource.Resource;
+
+import aQute.bnd.osgi.resource.ResourceBuilder;
+import aQute.bnd.version.Version;
+
+public class BridgeRepositoryTest {
+
+	@Test
+	public void testList() throws Exception {
+		List<Resource> resources = new ArrayList<>();
+		for (String bsn : List.of("org.osgi.service.log", "org.osgi.dto", "org.apache.felix.scr", "com.example.log(x)")) {
+			ResourceBuilder rb = new ResourceBuilder();
+			BridgeRepository.addInformationCapability(rb, bsn, Version.parseVersion("1.0.0"), "test", null);
+			resources.add(rb.build());
+		}
+		BridgeRepository bridge = new BridgeRepository(resources);
+
+		assertThat(bridge.list(null)).hasSize(4);
+		assertThat(bridge.list("*")).hasSize(4);
+		// literals and globs match anywhere in the bsn
+		assertThat(bridge.list("log")).containsExactlyInAnyOrder("org.osgi.service.log", "com.example.log(x)");
+		assertThat(bridge.list("osgi.*")).containsExactlyInAnyOrder("org.osgi.service.log", "org.osgi.dto");
+		assertThat(bridge.list("felix dto")).containsExactlyInAnyOrder("org.apache.felix.scr", "org.osgi.dto");
+		assertThat(bridge.list("org.osgi.{dto,foo}")).containsExactly("org.osgi.dto");
+		assertThat(bridge.list("f?lix")).containsExactly("org.apache.felix.scr");
+		assertThat(bridge.list("log(x)")).isEmpty();
+		assertThat(bridge.list("nothing")).isEmpty();
+
+		// the result can be changed by the caller
+		List<String> list = bridge.list("log");
+		list.clear();
+		assertThat(bridge.list("log")).hasSize(2);
+
+		for (int i = 0; i < 2 * BridgeRepository.MAX_LISTED; i++) {
+			assertThat(bridge.list("dto" + i)).isEmpty();
+		}
+		assertThat(bridge.list("dto")).containsExactly("org.osgi.dto");
+		assertThat(bridge.versions("org.osgi.dto")).containsExactly(Version.parseVersion("1.0.0"));
+	}
+}
@@ -0,0 +1,84 @@
+package aQute.bnd.osgi.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.osgi.framework.namespace.PackageNamespace;
+import org.osgi.namespace.service.ServiceNamespace;
+import org.osgi.resource.Capability;
+import org.osgi.resource.Requirement;
+import org.osgi.resource.Resource;
+
+import aQute.bnd.osgi.resource.CapabilityBuilder;
+import aQute.bnd.osgi.resource.RequirementBuilder;
+import aQute.bnd.osgi.resource.ResourceBuilder;
+import aQute.bnd.version.Version;
+
+public class ResourcesRepositoryTest {
+
+	@Test
+	public void testFindProviderByPrimaryAttribute() throws Exception {
+		Resource a1 = resource(PackageNamespace.PACKAGE_NAMESPACE, "a", "1.0.0");
+		Resource b1 = resource(PackageNamespace.PACKAGE_NAMESPACE, "b", "1.0.0");
+		Resource a2 = resource(PackageNamespace.PACKAGE_NAMESPACE, "a", "2.0.0");
+		ResourcesRepository repository = new ResourcesRepository(List.of(a1, b1, a2));
+
+		assertThat(providers(repository, PackageNamespace.PACKAGE_NAMESPACE, "(osgi.wiring.package=a)"))
+			.containsExactly(a1, a2);
+		assertThat(providers(repository, PackageNamespace.PACKAGE_NAMESPACE,
+			"(&(osgi.wiring.package=a)(version>=1.5.0)(!(version>=3.0.0)))")).containsExactly(a2);
+		assertThat(providers(repository, PackageNamespace.PACKAGE_NAMESPACE,
+			"(|(osgi.wiring.package=a)(osgi.wiring.package=b))")).containsExactly(a1, b1, a2);
+		assertThat(providers(repository, PackageNamespace.PACKAGE_NAMESPACE, "(osgi.wiring.package=a*)"))
+			.containsExactly(a1, a2);
+		assertThat(providers(repository, PackageNamespace.PACKAGE_NAMESPACE, "(osgi.wiring.package=c)")).isEmpty();
+		assertThat(providers(repository, ServiceNamespace.SERVICE_NAMESPACE, "(objectClass=a)")).isEmpty();
+
+		// the index follows the added resources
+		Resource a3 = resource(PackageNamespace.PACKAGE_NAMESPACE, "a", "3.0.0");
+		repository.add(a3);
+		repository.add(a1);
+		assertThat(providers(repository, PackageNamespace.PACKAGE_NAMESPACE, "(osgi.wiring.package=a)"))
+			.containsExactly(a1, a2, a3);
+	}
+
+	@Test
+	public void testFindProviderByListAndTypedAttributes() throws Exception {
+		Resource service = attributeResource(ServiceNamespace.SERVICE_NAMESPACE,
+			ServiceNamespace.CAPABILITY_OBJECTCLASS_ATTRIBUTE, List.of("x.A", "x.B"));
+		Resource typed = attributeResource("test", "test", new Version(1, 2, 0));
+		Resource string = attributeResource("test", "test", "1.2.0");
+		ResourcesRepository repository = new ResourcesRepository(List.of(service, typed, string));
+
+		assertThat(providers(repository, ServiceNamespace.SERVICE_NAMESPACE, "(objectClass=x.B)"))
+			.containsExactly(service);
+		assertThat(providers(repository, ServiceNamespace.SERVICE_NAMESPACE, "(objectClass=x.C)")).isEmpty();
+		// a version attribute matches other strings than its own
+		assertThat(providers(repository, "test", "(test=1.2)")).containsExactly(typed);
+		assertThat(providers(repository, "test", "(test=1.2.0)")).containsExactly(typed, string);
+	}
+
+	private static Resource attributeResource(String namespace, String attribute, Object value) throws Exception {
+		ResourceBuilder rb = new ResourceBuilder();
+		rb.addCapability(new CapabilityBuilder(namespace).addAttribute(attribute, value));
+		return rb.build();
+	}
+
+	private static Resource resource(String namespace, String name, String version) throws Exception {
+		ResourceBuilder rb = new ResourceBuilder();
+		rb.addCapability(new CapabilityBuilder(namespace).addAttribute(namespace, name)
+			.addAttribute(PackageNamespace.CAPABILITY_VERSION_ATTRIBUTE, new Version(version)));
+		return rb.build();
+	}
+
+	private static List<Resource> providers(ResourcesRepository repository, String namespace, String filter) {
+		Requirement requirement = new RequirementBuilder(namespace).addFilter(filter)
+			.buildSyntheticRequirement();
+		List<Capability> providers = repository.findProvider(requirement);
+		return providers.stream()
+			.map(Capability::getResource)
+			.toList();
+	}
+}
@@ -0,0 +1,111 @@
+package aQute.bnd.osgi.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.osgi.resource.Resource;
+
+import aQute.bnd.osgi.resource.ResourceUtils;
+import aQute.bnd.osgi.resource.ResourceUtils.ContentCapability;
+import aQute.bnd.test.jupiter.InjectTemporaryDirectory;
+import aQute.lib.io.IO;
+
+public class SimpleIndexerTest {
+
+	@Test
+	public void testCache(@InjectTemporaryDirectory
+	File tmp) throws Exception {
+		List<File> files = new ArrayList<>();
+		IO.mkdirs(IO.getFile(tmp, "bundles"));
+		for (String name : List.of("rox.jar", "ds.jar", "jsr311-api-1.1.1.jar", "osgi.core.jar")) {
+			files.add(IO.copy(IO.getFile("jar/" + name), IO.getFile(tmp, "bundles/" + name)));
+		}
+		File cache = IO.getFile(tmp, "cache");
+
+		List<Resource> expected = new SimpleIndexer().files(files)
+			.base(tmp.toURI())
+			.getResources();
+		List<Resource> first = new SimpleIndexer().files(files)
+			.base(tmp.toURI())
+			.cache(cache)
+			.getResources();
+		assertThat(summary(first)).isEqualTo(summary(expected));
+		File[] entries = cache.listFiles();
+		assertThat(expected).hasSize(4);
+		assertThat(entries).hasSize(4);
+
+		// the cached resources are the same
+		List<Resource> second = new SimpleIndexer().files(files)
+			.base(tmp.toURI())
+			.cache(cache)
+			.getResources();
+		assertThat(summary(second)).isEqualTo(summary(expected));
+		assertThat(cache.listFiles()).hasSize(expected.size());
+
+		// a changed file is analyzed again
+		File changed = files.get(1);
+		IO.copy(IO.getFile("jar/osgi.core.jar"), changed);
+		changed.setLastModified(changed.lastModified() + 10_000L);
+		List<Resource> third = new SimpleIndexer().files(files)
+			.base(tmp.toURI())
+			.cache(cache)
+			.getResources();
+		assertThat(ResourceUtils.getIdentityCapability(third.get(1))
+			.osgi_identity()).isEqualTo(ResourceUtils.getIdentityCapability(third.get(3))
+				.osgi_identity());
+	}
+
+	@Test
+	public void testCacheTouchedAndRemovedFiles(@InjectTemporaryDirectory
+	File tmp) throws Exception {
+		List<File> files = new ArrayList<>();
+		IO.mkdirs(IO.getFile(tmp, "bundles"));
+		for (String name : List.of("rox.jar", "ds.jar", "osgi.core.jar")) {
+			files.add(IO.copy(IO.getFile("jar/" + name), IO.getFile(tmp, "bundles/" + name)));
+		}
+		File cache = IO.getFile(tmp, "cache");
+
+		List<Resource> first = new SimpleIndexer().files(files)
+			.base(tmp.toURI())
+			.cache(cache)
+			.getResources();
+		assertThat(cache.listFiles()).hasSize(3);
+
+		// a file with a new last modified time but the same content is not
+		// analyzed again, its entry gets the new last modified time
+		File touched = files.get(0);
+		touched.setLastModified(touched.lastModified() + 10_000L);
+		List<Resource> second = new SimpleIndexer().files(files)
+			.base(tmp.toURI())
+			.cache(cache)
+			.getResources();
+		assertThat(summary(second)).isEqualTo(summary(first));
+		assertThat(cache.listFiles()).extracting(File::lastModified)
+			.contains(touched.lastModified());
+
+		// the entries of files no longer indexed are removed
+		List<Resource> third = new SimpleIndexer().files(files.subList(0, 2))
+			.base(tmp.toURI())
+			.cache(cache)
+			.getResources();
+		assertThat(summary(third)).isEqualTo(summary(first.subList(0, 2)));
+		assertThat(cache.listFiles()).hasSize(2);
+	}
+
+	private static List<String> summary(List<Resource> resources) {
+		return resources.stream()
+			.map(r -> {
+				ContentCapability content = ResourceUtils.getContentCapability(r);
+				return ResourceUtils.getIdentityCapability(r) + " " + content.url() + " " + content.osgi_content() + " "
+					+ content.size() + " " + r.getCapabilities(null)
+						.size()
+					+ " " + r.getRequirements(null)
+						.size();
+			})
+			.toList();
+	}
+}
@@ -12,6 +12,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
 import org.osgi.resource.Capability;
@@ -21,6 +22,7 @@ import org.osgi.service.repository.Repository;
 
 import aQute.bnd.osgi.resource.ResourceUtils;
 import aQute.bnd.test.jupiter.InjectTemporaryDirectory;
+import aQute.lib.io.IO;
 
 public class XMLResourceGeneratorTest {
 	private static final Requirement	WILDCARD	= ResourceUtils.createWildcardRequirement();
@@ -46,6 +48,45 @@ public class XMLResourceGeneratorTest {
 			.toString()).endsWith("/name.njbartlett.eclipse.macbadge_1.0.0.201110100042.jar");
 	}
 
+	@Test
+	public void testBinary(@InjectTemporaryDirectory
+	File tmp) throws Exception {
+		File index = IO.getFile("test/test/larger-repo.xml");
+		List<Resource> expected = XMLResourceParser.getResources(index);
+		File location = new File(tmp, "index.bndx");
+		new XMLResourceGenerator().name("test")
+			.increment(42L)
+			.resources(expected)
+			.base(index.getParentFile()
+				.toURI())
+			.saveBinary(location);
+
+		BinaryResourceParser parser = new BinaryResourceParser(location, index.toURI());
+		List<Resource> actual = parser.parse();
+		assertThat(parser.name()).isEqualTo("test");
+		assertThat(parser.increment()).isEqualTo(42L);
+		assertThat(actual).hasSameSizeAs(expected);
+		for (int i = 0; i < expected.size(); i++) {
+			assertThat(capReqs(actual.get(i))).isEqualTo(capReqs(expected.get(i)));
+		}
+
+		// relative urls are resolved against the given location
+		List<Resource> relocated = BinaryResourceParser.getResources(location, location.toURI());
+		assertThat(ResourceUtils.getContentCapability(relocated.get(0))
+			.url()).isEqualTo(tmp.toURI()
+				.resolve("aQute.xray.plugin/aQute.xray.plugin-1.7.0.jar"));
+	}
+
+	private static List<String> capReqs(Resource resource) {
+		return Stream.concat(resource.getCapabilities(null)
+			.stream()
+			.map(c -> "cap " + c.getNamespace() + c.getDirectives() + c.getAttributes()),
+			resource.getRequirements(null)
+				.stream()
+				.map(r -> "req " + r.getNamespace() + r.getDirectives() + r.getAttributes()))
+			.toList();
+	}
+
 	private Repository getTestRepository() throws URISyntaxException, Exception {
 		return getRepository(XMLResourceGeneratorTest.class.getResource("data/macbadge.xml")
 			.toURI());
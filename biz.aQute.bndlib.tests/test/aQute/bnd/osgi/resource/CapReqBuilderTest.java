@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -275,6 +276,50 @@ public class CapReqBuilderTest {
 
 
 
+	@Test
+	public void testInternedAttributesAndDirectives() throws Exception {
+		Requirement ee1 = new RequirementBuilder("osgi.ee").addDirective("filter", "(osgi.ee=JavaSE)")
+			.buildSyntheticRequirement();
+		Requirement ee2 = new RequirementBuilder(new String("osgi.ee"))
+			.addDirective(new String("filter"), new String("(osgi.ee=JavaSE)"))
+			.buildSyntheticRequirement();
+		assertThat(ee2.getDirectives()).isSameAs(ee1.getDirectives());
+
+		Capability p1 = new CapabilityBuilder("osgi.wiring.package").addAttribute("osgi.wiring.package", "p")
+			.addAttribute("version", new Version(1, 2, 3))
+			.buildSyntheticCapability();
+		Capability p2 = new CapabilityBuilder("osgi.wiring.package").addAttribute("osgi.wiring.package", "q")
+			.addAttribute("version", new Version(1, 2, 3))
+			.buildSyntheticCapability();
+		assertThat(p2.getAttributes()
+			.get("version")).isSameAs(p1.getAttributes()
+				.get("version"));
+
+		// equal maps with another order are not shared
+		Map<String, Object> ordered = new LinkedHashMap<>();
+		ordered.put("a", "1");
+		ordered.put("b", "2");
+		Capability ab = new CapabilityImpl("test", null, Map.of(), ordered);
+		ordered.remove("a");
+		ordered.put("a", "1");
+		Capability ba = new CapabilityImpl("test", null, Map.of(), ordered);
+		assertThat(ba.getAttributes()).isEqualTo(ab.getAttributes());
+		assertThat(ab.getAttributes()
+			.keySet()).containsExactly("a", "b");
+		assertThat(ba.getAttributes()
+			.keySet()).containsExactly("b", "a");
+
+		// lists are not shared
+		Capability l1 = new CapabilityBuilder("test").addAttribute("l", List.of("x"))
+			.buildSyntheticCapability();
+		Capability l2 = new CapabilityBuilder("test").addAttribute("l", List.of("x"))
+			.buildSyntheticCapability();
+		assertThat(l2.getAttributes()).isEqualTo(l1.getAttributes());
+		assertThat(l2.getAttributes()
+			.get("l")).isNotSameAs(l1.getAttributes()
+				.get("l"));
+	}
+
 	private CapabilityImpl createCap(String bundleSymName, String pck, String version, String... hashes) {
 		CapReqBuilder cr = new CapReqBuilder("osgi.wiring.package");
 		Attrs attrs1 = new Attrs();
@@ -0,0 +1,64 @@
+package aQute.bnd.osgi.resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.osgi.framework.Version;
+import org.osgi.framework.namespace.PackageNamespace;
+import org.osgi.resource.Capability;
+import org.osgi.resource.Requirement;
+
+public class FilterImplTest {
+
+	@Test
+	public void testConvertedValues() throws Exception {
+		FilterImpl filter = FilterImpl.createFilter("(&(a>=1.2)(!(a>=2)))");
+		assertThat(filter.matches(Map.of("a", new Version(1, 5, 0)))).isTrue();
+		assertThat(filter.matches(Map.of("a", new Version(2, 0, 0)))).isFalse();
+		// the conversion follows the type of the attribute values
+		assertThat(filter.matches(Map.of("a", 1L))).isFalse();
+		assertThat(filter.matches(Map.of("a", List.of(1.5d, 1.8d)))).isTrue();
+		assertThat(filter.matches(Map.of("a", new BigDecimal("1.9")))).isTrue();
+		assertThat(filter.matches(Map.of("a", "1.3"))).isTrue();
+		assertThat(filter.matches(Map.of("a", new Version(1, 1, 0)))).isFalse();
+
+		// values that cannot be converted never match
+		FilterImpl invalid = FilterImpl.createFilter("(a=x.y)");
+		assertThat(invalid.matches(Map.of("a", new Version(1, 0, 0)))).isFalse();
+		assertThat(invalid.matches(Map.of("a", new Version(1, 0, 0)))).isFalse();
+		assertThat(invalid.matches(Map.of("a", 1L))).isFalse();
+		assertThat(invalid.matches(Map.of("a", "x.y"))).isTrue();
+	}
+
+	@Test
+	public void testApprox() throws Exception {
+		FilterImpl filter = FilterImpl.createFilter("(a~=Foo Bar)");
+		assertThat(filter.matches(Map.of("a", "foobar"))).isTrue();
+		assertThat(filter.matches(Map.of("a", " F o O b A r "))).isTrue();
+		assertThat(filter.matches(Map.of("a", "foobars"))).isFalse();
+		assertThat(filter.matches(Map.of("a", "fooba"))).isFalse();
+		assertThat(filter.matches(Map.of("a", ""))).isFalse();
+	}
+
+	@Test
+	public void testMandatoryAttributes() throws Exception {
+		Capability capability = new CapabilityBuilder(PackageNamespace.PACKAGE_NAMESPACE)
+			.addAttribute(PackageNamespace.PACKAGE_NAMESPACE, "p")
+			.addAttribute("x", "1")
+			.addDirective(PackageNamespace.CAPABILITY_MANDATORY_DIRECTIVE, "x")
+			.buildSyntheticCapability();
+		Requirement without = new RequirementBuilder(PackageNamespace.PACKAGE_NAMESPACE)
+			.addFilter("(osgi.wiring.package=p)")
+			.buildSyntheticRequirement();
+		Requirement with = new RequirementBuilder(PackageNamespace.PACKAGE_NAMESPACE)
+			.addFilter("(&(osgi.wiring.package=p)(x=1))")
+			.buildSyntheticRequirement();
+		assertThat(ResourceUtils.matches(without, capability)).isFalse();
+		assertThat(ResourceUtils.matches(with, capability)).isTrue();
+		assertThat(ResourceUtils.matches(with, capability)).isTrue();
+	}
+}
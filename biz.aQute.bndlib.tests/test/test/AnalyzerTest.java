@@ -1,5 +1,7 @@
 package test;
 
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -7,6 +9,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
@@ -29,15 +32,18 @@ import aQute.bnd.osgi.About;
 import aQute.bnd.osgi.Analyzer;
 import aQute.bnd.osgi.Builder;
 import aQute.bnd.osgi.Clazz;
+import aQute.bnd.osgi.ClazzCache;
 import aQute.bnd.osgi.Constants;
 import aQute.bnd.osgi.Domain;
 import aQute.bnd.osgi.EmbeddedResource;
+import aQute.bnd.osgi.IncrementalAnalysis;
 import aQute.bnd.osgi.FileResource;
 import aQute.bnd.osgi.Jar;
 import aQute.bnd.osgi.Packages;
 import aQute.bnd.osgi.Processor;
 import aQute.bnd.osgi.Resource;
 import aQute.bnd.osgi.metainf.MetaInfService;
+import aQute.bnd.test.jupiter.InjectTemporaryDirectory;
 import aQute.lib.io.IO;
 
 class T0 {}
@@ -1415,6 +1421,132 @@ public class AnalyzerTest {
 		}
 	}
 
+	/**
+	 * Parallel class parsing must result in the same manifest as sequential
+	 * class parsing.
+	 */
+	@Test
+	public void testParallelAnalysis() throws Exception {
+		File osgi = IO.getFile("jar/osgi.jar");
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		try (Analyzer h = new Analyzer()) {
+			h.setJar(osgi);
+			h.setProperty(Constants.EXPORT_PACKAGE, "*");
+			h.setProperty(Constants.NOEXTRAHEADERS, "true");
+			h.calcManifest()
+				.write(expected);
+			assertTrue(h.check());
+		}
+		ByteArrayOutputStream actual = new ByteArrayOutputStream();
+		try (Analyzer h = new Analyzer()) {
+			h.setJar(osgi);
+			h.setProperty(Constants.EXPORT_PACKAGE, "*");
+			h.setProperty(Constants.NOEXTRAHEADERS, "true");
+			h.setProperty(Constants.PARALLELANALYSIS, "true");
+			h.calcManifest()
+				.write(actual);
+			assertTrue(h.check());
+			assertThat(h.getClassspace()).hasSizeGreaterThan(64);
+		}
+		assertThat(actual.toByteArray()).isEqualTo(expected.toByteArray());
+	}
+
+	@Test
+	public void testClazzCache(@InjectTemporaryDirectory
+	File tmp) throws Exception {
+		File osgi = IO.getFile("jar/osgi.jar");
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		try (Analyzer h = new Analyzer()) {
+			h.setJar(osgi);
+			h.setProperty(Constants.EXPORT_PACKAGE, "*");
+			h.setProperty(Constants.NOEXTRAHEADERS, "true");
+			h.calcManifest()
+				.write(expected);
+			assertTrue(h.check());
+		}
+		ClazzCache cache = new ClazzCache(tmp);
+		for (int i = 0; i < 2; i++) {
+			ByteArrayOutputStream actual = new ByteArrayOutputStream();
+			try (Analyzer h = new Analyzer()) {
+				h.setJar(osgi);
+				h.setProperty(Constants.EXPORT_PACKAGE, "*");
+				h.setProperty(Constants.NOEXTRAHEADERS, "true");
+				h.setClazzCache(cache);
+				h.calcManifest()
+					.write(actual);
+				assertTrue(h.check());
+				// restored classes parse the class file on demand
+				for (Clazz c : h.getClassspace()
+					.values()) {
+					Clazz parsed = new Clazz(h, c.getAbsolutePath(), c.getResource());
+					parsed.parseClassFile();
+					assertThat(c.getSourceFile()).isEqualTo(parsed.getSourceFile());
+					assertThat(c.methods()).hasSameSizeAs(parsed.methods()
+						.toList());
+				}
+			}
+			assertThat(actual.toByteArray()).isEqualTo(expected.toByteArray());
+		}
+		assertThat(cache.getHits()).isGreaterThan(64);
+		assertThat(cache.getMisses()).isEqualTo(cache.getHits());
+	}
+
+	@Test
+	public void testIncrementalAnalysis() throws Exception {
+		File osgi = IO.getFile("jar/osgi.jar");
+		IncrementalAnalysis state = new IncrementalAnalysis();
+		for (int i = 0; i < 2; i++) {
+			try (Jar jar = new Jar(osgi)) {
+				assertThat(incrementalManifest(jar, state)).isEqualTo(incrementalManifest(jar, null));
+			}
+		}
+		int classes = state.size();
+		assertThat(classes).isGreaterThan(64);
+		assertThat(state.getParsed()).isEqualTo(classes);
+		assertThat(state.getReused()).isEqualTo(classes);
+
+		try (Jar jar = new Jar(osgi)) {
+			// remove one class
+			jar.remove("org/osgi/service/log/LogService.class");
+			// change another without changing its size or last modified time
+			String path = "org/osgi/framework/Bundle.class";
+			Resource resource = jar.getResource(path);
+			byte[] data = IO.read(resource.openInputStream());
+			String content = new String(data, ISO_8859_1);
+			assertThat(content).contains("java/io/InputStream");
+			data = content.replace("java/io/InputStream", "javx/io/InputStream")
+				.getBytes(ISO_8859_1);
+			jar.putResource(path, new EmbeddedResource(data, resource.lastModified()));
+			// touch another without changing its content
+			path = "org/osgi/framework/BundleContext.class";
+			resource = jar.getResource(path);
+			jar.putResource(path,
+				new EmbeddedResource(IO.read(resource.openInputStream()), resource.lastModified() + 1000L));
+			String manifest = incrementalManifest(jar, state);
+			assertThat(manifest).isEqualTo(incrementalManifest(jar, null))
+				.contains("javx.io");
+		}
+		assertThat(state.size()).isEqualTo(classes - 1);
+		assertThat(state.getParsed()).isEqualTo(classes + 1);
+		assertThat(state.getReused()).isEqualTo(classes + classes - 2);
+	}
+
+	private static String incrementalManifest(Jar jar, IncrementalAnalysis state) throws Exception {
+		try (Analyzer h = new Analyzer()) {
+			h.setJar(jar);
+			h.setProperty(Constants.EXPORT_PACKAGE, "*");
+			h.setProperty(Constants.NOEXTRAHEADERS, "true");
+			h.setIncrementalAnalysis(state);
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			h.calcManifest()
+				.write(out);
+			assertTrue(h.check());
+			// the jar is analyzed again
+			h.setJar((Jar) null);
+			return out.toString(UTF_8);
+		}
+	}
+
 	/**
 	 * We detect that there are instruction on im/export package headers that
 	 * are never used. This usually indicates a misunderstanding or a change in
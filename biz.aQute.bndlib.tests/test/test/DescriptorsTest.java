@@ -35,6 +35,33 @@ public class DescriptorsTest {
 
 	}
 
+	@Test
+	public void testSharedReferences(SoftAssertions softly) {
+		Descriptors d1 = new Descriptors();
+		Descriptors d2 = new Descriptors();
+		TypeRef string = d1.getTypeRef("java/lang/String");
+		softly.assertThat(d2.getTypeRef("java/lang/String"))
+			.isSameAs(string);
+		softly.assertThat(d2.getTypeRef("Ljava/lang/String;"))
+			.isSameAs(string);
+		softly.assertThat(d2.getPackageRef("java.lang"))
+			.isSameAs(string.getPackageRef());
+		softly.assertThat(d2.getTypeRef("[Ljava/lang/String;")
+			.getComponentTypeRef())
+			.isSameAs(string);
+		softly.assertThat(d1.getTypeRef("I"))
+			.isSameAs(d2.getTypeRef("I"));
+		softly.assertThat(d1.getTypeRef("I")
+			.isPrimitive())
+			.isTrue();
+		softly.assertThat(d1.getTypeRef("A")
+			.isPrimitive())
+			.isFalse();
+		softly.assertThat(d1.getPackageRef(""))
+			.isSameAs(d2.getTypeRef("A")
+				.getPackageRef());
+	}
+
 	@Test
 	public void testDetermine(SoftAssertions softly) {
 		softly.assertThat(Descriptors.determine("simple")
@@ -37,6 +37,7 @@ import aQute.bnd.osgi.Jar;
 import aQute.bnd.osgi.Resource;
 import aQute.bnd.test.jupiter.InjectTemporaryDirectory;
 import aQute.lib.io.IO;
+import aQute.lib.zip.ZipUtil;
 import aQute.libg.cryptography.SHA256;
 
 public class JarTest {
@@ -173,6 +174,76 @@ public class JarTest {
 		}
 	}
 
+	@Test
+	public void testParallelDeflate() throws Exception {
+		File file = IO.getFile("jar/osgi.jar");
+		for (String mode : new String[] {
+			"manifest", "reproducible", "donottouchmanifest", "store"
+		}) {
+			byte[] expected = writeJar(file, mode, false);
+			byte[] actual = writeJar(file, mode, true);
+			assertThat(actual).as(mode)
+				.isEqualTo(expected);
+		}
+	}
+
+	private static byte[] writeJar(File file, String mode, boolean parallel) throws Exception {
+		try (Jar jar = new Jar(file)) {
+			// a zero modified time is written as the current time
+			jar.putResource("empty/resource", new EmbeddedResource(new byte[0], 1_000_000_000_000L));
+			jar.putResource("extra/resource", new EmbeddedResource("extra", 1_000_000_000_000L));
+			jar.getResource("extra/resource")
+				.setExtra(Resource.encodeExtra(ZipUtil.extraFieldFromString(null, "extra")));
+			switch (mode) {
+				case "reproducible" -> jar.setReproducible("true");
+				case "donottouchmanifest" -> jar.setDoNotTouchManifest();
+				case "store" -> jar.setCompression(Jar.Compression.STORE);
+				default -> {}
+			}
+			jar.setParallelDeflate(parallel);
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			jar.write(out);
+			return out.toByteArray();
+		}
+	}
+
+	@Test
+	public void testFromMappedFile() throws Exception {
+		File file = IO.getFile("jar/osgi.jar");
+		try (Jar expected = new Jar(file); Jar actual = Jar.fromMappedFile(file)) {
+			assertThat(actual.getName()).isEqualTo(expected.getName());
+			assertThat(actual.getSource()).isEqualTo(expected.getSource());
+			assertThat(actual.getResources()
+				.keySet()).containsExactlyElementsOf(expected.getResources()
+					.keySet());
+			assertThat(actual.getManifest()
+				.getMainAttributes()).isEqualTo(expected.getManifest()
+					.getMainAttributes());
+			expected.getResources()
+				.forEach((path, resource) -> {
+					Resource mapped = actual.getResource(path);
+					try {
+						assertThat(mapped.lastModified()).as(path)
+							.isEqualTo(resource.lastModified());
+						assertThat(mapped.size()).as(path)
+							.isEqualTo(resource.size());
+						assertThat(IO.read(mapped.buffer())).as(path)
+							.isEqualTo(IO.read(resource.buffer()));
+					} catch (Exception e) {
+						throw new AssertionError(e);
+					}
+				});
+		}
+	}
+
+	@Test
+	public void testFromMappedFileNotAZipFile(@InjectTemporaryDirectory
+	File tmp) throws Exception {
+		File file = new File(tmp, "not.jar");
+		IO.store("not a zip file", file);
+		assertThat(catchThrowable(() -> Jar.fromMappedFile(file))).isInstanceOf(ZipException.class);
+	}
+
 	@Test
 	public void testNoManifest() throws Exception {
 		try (Jar jar = new Jar("dot")) {
@@ -44,6 +44,61 @@ import aQute.service.reporter.Reporter.SetLocation;
 @ExtendWith(SoftAssertionsExtension.class)
 public class ProcessorTest {
 
+	@Test
+	void testMemoizedPropertyExpansion() throws IOException {
+		try (Processor parent = new Processor(); Processor p = new Processor(parent)) {
+			parent.setProperty("a", "A");
+			p.setProperty("b", "${toupper;${a}}-${c}");
+			p.setProperty("c", "C");
+			assertThat(p.getProperty("b")).isEqualTo("A-C");
+			assertThat(p.getProperty("b")).isEqualTo("A-C");
+
+			// changes of the properties drop the memoized expansions
+			p.getProperties()
+				.put("c", "D");
+			assertThat(p.getProperty("b")).isEqualTo("A-D");
+			parent.setProperty("a", "b");
+			assertThat(p.getProperty("b")).isEqualTo("B-D");
+			p.unsetProperty("c");
+			assertThat(p.getProperty("b")).isEqualTo("B-${c}");
+			assertThat(p.check("No translation found for macro: c")).isTrue();
+		}
+	}
+
+	@Test
+	void testMemoizedPropertyExpansionStamps() throws IOException {
+		try (Processor p = new Processor()) {
+			p.setProperty("b", "${c}");
+			p.setProperty("c", "C");
+			// the processor counts its own changes apart from the changes of
+			// the properties, make its count the larger one
+			for (int i = 0; i < 1_000_000; i++) {
+				p.setForceLocal(null);
+			}
+			assertThat(p.getProperty("b")).isEqualTo("C");
+			p.getProperties()
+				.put("c", "D");
+			assertThat(p.getProperty("b")).isEqualTo("D");
+		}
+	}
+
+	@Test
+	void testImpurePropertyExpansionNotMemoized() throws IOException {
+		String key = "test.memo." + System.nanoTime();
+		try (Processor p = new Processor()) {
+			p.setProperty("a", "${" + key + "}");
+			try {
+				System.setProperty(key, "1");
+				assertThat(p.getProperty("a")).isEqualTo("1");
+				System.setProperty(key, "2");
+				assertThat(p.getProperty("a")).isEqualTo("2");
+			} finally {
+				System.clearProperty(key);
+			}
+			assertTrue(p.check());
+		}
+	}
+
 	@Test
 	void testMacroReferences() throws IOException {
 		testMacroReference("""
@@ -734,6 +789,45 @@ public class ProcessorTest {
 
 	}
 
+	@Test
+	public void testPropertyIndex() throws IOException {
+		try (Processor top = new Processor()) {
+			top.setProperty("-buildpath.top", "t");
+			top.setProperty("-buildpathx", "x");
+			try (Processor bottom = new Processor(top)) {
+				bottom.setProperty("-buildpath", "b");
+				bottom.setProperty("-buildpath-a", "a");
+				assertThat(bottom.mergeProperties("-buildpath")).isEqualTo("b,t");
+				assertThat(bottom.mergeLocalProperties("-buildpath")).isEqualTo("b");
+				assertThat(bottom.getMergePropertyKeys("-buildpath")).containsExactly(//
+					new PropertyKey(bottom, "-buildpath", 0), //
+					new PropertyKey(top, "-buildpath.top", 1));
+
+				// changes of any level rebuild the index
+				top.setProperty("-buildpath.extra", "e");
+				bottom.getProperties()
+					.put("-buildpath.1", "1");
+				assertThat(bottom.mergeProperties("-buildpath")).isEqualTo("b,1,e,t");
+				assertThat(bottom.mergeLocalProperties("-buildpath")).isEqualTo("b,1");
+				assertThat(bottom.getMergePropertyKeys("-buildpath")).containsExactly(//
+					new PropertyKey(bottom, "-buildpath", 0), //
+					new PropertyKey(bottom, "-buildpath.1", 0), //
+					new PropertyKey(top, "-buildpath.extra", 1), //
+					new PropertyKey(top, "-buildpath.top", 1));
+
+				top.unsetProperty("-buildpath.top");
+				bottom.setForceLocal(List.of("-buildpathx"));
+				assertThat(bottom.mergeProperties("-buildpath")).isEqualTo("b,1,e");
+				assertThat(bottom.getPropertyKeys(k -> k.startsWith("-buildpath"))).containsExactly(//
+					new PropertyKey(bottom, "-buildpath", 0), //
+					new PropertyKey(bottom, "-buildpath-a", 0), //
+					new PropertyKey(bottom, "-buildpath.1", 0), //
+					new PropertyKey(top, "-buildpath.extra", 1), //
+					new PropertyKey(top, "-buildpathx", 1));
+			}
+		}
+	}
+
 	@Test
 	public void testPropertyKeysFindVisibles() throws IOException {
 		try (Processor top = new Processor()) {
@@ -49,6 +49,7 @@ import aQute.bnd.build.Workspace;
 import aQute.bnd.osgi.About;
 import aQute.bnd.osgi.Builder;
 import aQute.bnd.osgi.Constants;
+import aQute.bnd.osgi.IncrementalAnalysis;
 import aQute.bnd.osgi.Jar;
 import aQute.bnd.osgi.Processor;
 import aQute.bnd.osgi.Resource;
@@ -110,6 +111,22 @@ public class ProjectTest {
 		}
 	}
 
+	@Test
+	public void testIncrementalAnalysisDropped() throws Exception {
+		IO.mkdirs(new File(tmp, Workspace.CNFDIR));
+		try (Workspace workspace = new Workspace(tmp); Project project = new Project(workspace, tmp)) {
+			IncrementalAnalysis state = project.getIncrementalAnalysis("p");
+			assertThat(project.getIncrementalAnalysis("p")).isSameAs(state);
+
+			project.propertiesChanged();
+			IncrementalAnalysis refreshed = project.getIncrementalAnalysis("p");
+			assertThat(refreshed).isNotSameAs(state);
+
+			project.close();
+			assertThat(project.getIncrementalAnalysis("p")).isNotSameAs(refreshed);
+		}
+	}
+
 	@Test
 	public void testAliasbuild() throws Exception {
 		Workspace ws = getWorkspace(IO.getFile("testresources/ws"));
@@ -5,11 +5,17 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.jupiter.api.Test;
 import org.osgi.resource.Capability;
@@ -20,6 +26,7 @@ import aQute.bnd.osgi.repository.ResourcesRepository;
 import aQute.bnd.osgi.repository.XMLResourceParser;
 import aQute.bnd.osgi.resource.RequirementBuilder;
 import aQute.bnd.osgi.resource.ResourceUtils;
+import aQute.lib.io.IO;
 
 /**
  * Test the repository classes
@@ -65,6 +72,42 @@ public class RepositoryTest {
 		}
 	}
 
+	@Test
+	public void testXMLParserStreaming() throws Exception {
+		URL url = RepositoryTest.class.getResource("larger-repo.xml");
+		List<Resource> expected = XMLResourceParser.getResources(url.toURI());
+		byte[] index = IO.read(url);
+		AtomicLong read = new AtomicLong();
+		InputStream in = new FilterInputStream(new ByteArrayInputStream(index)) {
+			@Override
+			public int read(byte[] b, int off, int len) throws IOException {
+				int n = super.read(b, off, Math.min(len, 1024));
+				if (n > 0) {
+					read.addAndGet(n);
+				}
+				return n;
+			}
+		};
+		List<Resource> resources = new ArrayList<>();
+		List<Long> readAt = new ArrayList<>();
+		try (XMLResourceParser xrp = new XMLResourceParser(in, "streaming", url.toURI())) {
+			assertTrue(xrp.parse(resource -> {
+				resources.add(resource);
+				readAt.add(read.get());
+			}));
+			assertTrue(xrp.check());
+		}
+		assertEquals(expected.size(), resources.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(ResourceUtils.getIdentityCapability(expected.get(i))
+				.getAttributes(),
+				ResourceUtils.getIdentityCapability(resources.get(i))
+					.getAttributes());
+		}
+		// the first resource is passed on before the index is read completely
+		assertTrue(readAt.get(0) < index.length, readAt.toString());
+	}
+
 	@Test
 	public void testXMLParserSmall() throws Exception {
 		URL url = RepositoryTest.class.getResource("repoindex-file.xml");
@@ -39,6 +39,7 @@ import java.util.SortedMap;
 import java.util.SortedSet;
 import java.util.StringTokenizer;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
@@ -77,6 +78,7 @@ import aQute.bnd.osgi.About;
 import aQute.bnd.osgi.Analyzer;
 import aQute.bnd.osgi.Builder;
 import aQute.bnd.osgi.Constants;
+import aQute.bnd.osgi.IncrementalAnalysis;
 import aQute.bnd.osgi.Instruction;
 import aQute.bnd.osgi.Instructions;
 import aQute.bnd.osgi.Jar;
@@ -133,6 +135,7 @@ public class Project extends Processor {
 	class RefreshData implements AutoCloseable {
 		final Memoize<Parameters>				installRepositories;
 		final CloseableMemoize<ProjectGenerate>	generate;
+		final Map<String, IncrementalAnalysis>	incrementalAnalysis	= new ConcurrentHashMap<>();
 
 		RefreshData() {
 			installRepositories = Memoize.supplier(() -> new Parameters(mergeProperties(BUILDREPO), Project.this));
@@ -142,6 +145,7 @@ public class Project extends Processor {
 		@Override
 		public void close() {
 			IO.close(generate);
+			incrementalAnalysis.clear();
 		}
 	}
 
@@ -279,6 +283,16 @@ public class Project extends Processor {
 		return workspace;
 	}
 
+	/**
+	 * Return the state of the previous analysis of the bundle with the
+	 * symbolic name built by this project.
+	 *
+	 * @see Constants#INCREMENTALANALYSIS
+	 */
+	public IncrementalAnalysis getIncrementalAnalysis(String bsn) {
+		return data.incrementalAnalysis.computeIfAbsent(bsn, k -> new IncrementalAnalysis());
+	}
+
 	@Override
 	public String toString() {
 		return getName();
@@ -2350,6 +2364,13 @@ public class Project extends Processor {
 		workspace.notifier.changedProject(this);
 	}
 
+	@Override
+	public void close() throws IOException {
+		// drop the state of the previous analysis of the bundles
+		data.incrementalAnalysis.clear();
+		super.close();
+	}
+
 	public String getName() {
 		return getBase().getName();
 	}
@@ -185,6 +185,13 @@ public class ProjectBuilder extends Builder {
 		try {
 			if (!initialized) {
 				initialized = true;
+				if (is(CLASSCACHE)) {
+					setClazzCache(project.getWorkspace()
+						.getClazzCache());
+				}
+				if (is(INCREMENTALANALYSIS)) {
+					setIncrementalAnalysis(project.getIncrementalAnalysis(getBsn()));
+				}
 				Parameters dependencies = (getProperty(MAVEN_DEPENDENCIES) == null) ? new Parameters() : null;
 				doRequireBnd();
 				for (Container file : project.getClasspath()) {
@@ -72,6 +72,7 @@ import aQute.bnd.memoize.CloseableMemoize;
 import aQute.bnd.memoize.Memoize;
 import aQute.bnd.osgi.About;
 import aQute.bnd.osgi.BundleId;
+import aQute.bnd.osgi.ClazzCache;
 import aQute.bnd.osgi.Constants;
 import aQute.bnd.osgi.Descriptors;
 import aQute.bnd.osgi.Jar;
@@ -138,6 +139,7 @@ public class Workspace extends Processor {
 		final CloseableMemoize<WorkspaceExternalPluginHandler>	externalPlugins;
 		final CloseableMemoize<LibraryHandler>					libraryHandler;
 		final Memoize<Parameters>								gestalt;
+		final Memoize<ClazzCache>								clazzCache;
 
 		WorkspaceData() {
 			repositories = Memoize.supplier(Workspace.this::initRepositories);
@@ -150,6 +152,7 @@ public class Workspace extends Processor {
 				gestalt.mergeWith(overallGestalt, false);
 				return gestalt;
 			});
+			clazzCache = Memoize.supplier(() -> new ClazzCache(getCache("classes")));
 			RemoteWorkspaceServer s = null;
 			if (remoteWorkspaces || Processor.isTrue(getProperty(Constants.REMOTEWORKSPACE))) {
 				try {
@@ -1059,6 +1062,15 @@ public class Workspace extends Processor {
 		return getFile(buildDir, CACHEDIR + "/" + name);
 	}
 
+	/**
+	 * Return the class analysis cache shared by the projects in this workspace.
+	 *
+	 * @see Constants#CLASSCACHE
+	 */
+	public ClazzCache getClazzCache() {
+		return data.clazzCache.get();
+	}
+
 	/**
 	 * Return the workspace repo
 	 */
@@ -149,10 +149,18 @@ public class DSAnnotationReader extends ClassDataCollector {
 	public static ComponentDef getDefinition(Clazz c, Analyzer analyzer, Set<Options> options,
 		XMLAttributeFinder finder, Version minVersion) throws Exception {
 		DSAnnotationReader r = new DSAnnotationReader(analyzer, c, options, finder, minVersion);
+		if (!r.isComponent()) {
+			return null;
+		}
+		c.parseClassFileWithCollector(r);
 		return r.getDef();
 	}
 
-	private ComponentDef getDef() throws Exception {
+	/*
+	 * Answer if the class is a component class that must be parsed with this
+	 * reader
+	 */
+	boolean isComponent() throws Exception {
 		if (clazz.isEnum() || clazz.isInterface() || clazz.isAnnotation()) {
 			// These types cannot be components so don't bother scanning them
 
@@ -163,16 +171,18 @@ public class DSAnnotationReader extends ClassDataCollector {
 					"[%s] The type is not a class and therefore not suitable for the @Component annotation",
 					details.location());
 			}
-			return null;
+			return false;
 		}
 
-		if (!clazz.is(ANNOTATED, COMPONENT_INSTR, analyzer)) {
-			// This class is not annotated with @Component and so not suitable
-			// for processing
-			return null;
-		}
+		// A class that is not annotated with @Component is not suitable for
+		// processing
+		return clazz.is(ANNOTATED, COMPONENT_INSTR, analyzer);
+	}
 
-		clazz.parseClassFileWithCollector(this);
+	/*
+	 * Answer the component after the class was parsed with this reader
+	 */
+	ComponentDef getDef() throws Exception {
 		if (component.implementation == null)
 			return null;
 
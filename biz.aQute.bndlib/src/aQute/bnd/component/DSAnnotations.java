@@ -28,6 +28,8 @@ import aQute.bnd.header.Attrs;
 import aQute.bnd.header.OSGiHeader;
 import aQute.bnd.header.Parameters;
 import aQute.bnd.osgi.Analyzer;
+import aQute.bnd.osgi.ClassDataCollector;
+import aQute.bnd.osgi.ClassspaceReader;
 import aQute.bnd.osgi.Clazz;
 import aQute.bnd.osgi.Constants;
 import aQute.bnd.osgi.Descriptors.PackageRef;
@@ -35,7 +37,7 @@ import aQute.bnd.osgi.Descriptors.TypeRef;
 import aQute.bnd.osgi.Instruction;
 import aQute.bnd.osgi.Instructions;
 import aQute.bnd.osgi.Processor;
-import aQute.bnd.service.AnalyzerPlugin;
+import aQute.bnd.service.classparser.ClassspaceReaderPlugin;
 import aQute.bnd.stream.MapStream;
 import aQute.bnd.version.Version;
 import aQute.bnd.xmlattribute.XMLAttributeFinder;
@@ -45,7 +47,7 @@ import aQute.lib.strings.Strings;
 /**
  * Analyze the class space for any classes that have an OSGi annotation for DS.
  */
-public class DSAnnotations implements AnalyzerPlugin {
+public class DSAnnotations implements ClassspaceReaderPlugin<DSAnnotations.ComponentReader> {
 
 	public enum Options {
 		inherit,
@@ -105,14 +107,67 @@ public class DSAnnotations implements AnalyzerPlugin {
 		Version	maxVersion	= VMAX;
 	}
 
+	/*
+	 * Reads the component definitions of the classes in classspace order
+	 */
+	static class ComponentReader implements ClassspaceReader<ComponentDef> {
+		final Analyzer				analyzer;
+		final Instructions			instructions;
+		final Set<Options>			options;
+		final VersionSettings		settings;
+		final XMLAttributeFinder	finder;
+		final List<ComponentDef>	definitions	= new ArrayList<>();
+
+		ComponentReader(Analyzer analyzer, Instructions instructions, Set<Options> options, VersionSettings settings) {
+			this.analyzer = analyzer;
+			this.instructions = instructions;
+			this.options = options;
+			this.settings = settings;
+			this.finder = new XMLAttributeFinder(analyzer);
+		}
+
+		@Override
+		public ClassReader<ComponentDef> reader(Clazz c) throws Exception {
+			for (Instruction instruction : instructions.keySet()) {
+				if (instruction.matches(c.getFQN())) {
+					if (instruction.isNegated()) {
+						return null;
+					}
+					DSAnnotationReader reader = new DSAnnotationReader(analyzer, c, options, finder,
+						settings.minVersion);
+					if (!reader.isComponent()) {
+						return null;
+					}
+					return new ClassReader<>() {
+						@Override
+						public List<? extends ClassDataCollector> collectors() {
+							return Collections.singletonList(reader);
+						}
+
+						@Override
+						public ComponentDef result() throws Exception {
+							return reader.getDef();
+						}
+					};
+				}
+			}
+			return null;
+		}
+
+		@Override
+		public void read(Clazz c, ComponentDef definition) {
+			definitions.add(definition);
+		}
+	}
+
 	@Override
-	public boolean analyzeJar(Analyzer analyzer) throws Exception {
+	public ComponentReader getClassspaceReader(Analyzer analyzer) throws Exception {
 
 		VersionSettings settings = new VersionSettings();
 
 		Parameters header = OSGiHeader.parseHeader(analyzer.getProperty(Constants.DSANNOTATIONS, "*"));
 		if (header.isEmpty()) {
-			return false;
+			return null;
 		}
 
 		Parameters optionsHeader = OSGiHeader.parseHeader(analyzer.mergeProperties(Constants.DSANNOTATIONS_OPTIONS));
@@ -133,9 +188,18 @@ public class DSAnnotations implements AnalyzerPlugin {
 			options.add(Options.felixExtensions);
 		}
 
-		Instructions instructions = new Instructions(header);
-		Collection<Clazz> list = analyzer.getClassspace()
-			.values();
+		return new ComponentReader(analyzer, new Instructions(header), options, settings);
+	}
+
+	@Override
+	public boolean analyzeJar(Analyzer analyzer) throws Exception {
+		ComponentReader reader = analyzer.readClassspace(this);
+		if (reader == null) {
+			return false;
+		}
+		Set<Options> options = reader.options;
+		VersionSettings settings = reader.settings;
+
 		String sc = analyzer.getProperty(Constants.SERVICE_COMPONENT);
 		List<String> componentPaths = new ArrayList<>();
 		if (sc != null && sc.trim()
@@ -150,58 +214,39 @@ public class DSAnnotations implements AnalyzerPlugin {
 		TreeSet<String> requires = new TreeSet<>();
 		Version maxVersionUsedByAnyComponent = V1_0;
 
-		XMLAttributeFinder finder = new XMLAttributeFinder(analyzer);
-		boolean componentProcessed = false;
-		for (Clazz c : list) {
-			for (Instruction instruction : instructions.keySet()) {
-				if (instruction.matches(c.getFQN())) {
-					if (instruction.isNegated()) {
-						break;
-					}
-					ComponentDef definition = DSAnnotationReader.getDefinition(c, analyzer, options, finder,
-						settings.minVersion);
-					if (definition == null) {
-						break;
-					}
-
-					componentProcessed = true;
-					definition.sortReferences();
-					definition.prepare(analyzer);
+		for (ComponentDef definition : reader.definitions) {
+			definition.sortReferences();
+			definition.prepare(analyzer);
 
-					checkVersionConflicts(analyzer, definition, settings);
+			checkVersionConflicts(analyzer, definition, settings);
 
-					//
-					// we need a unique definition.name
-					// according to the spec so we should deduplicate
-					// these names
-					//
+			//
+			// we need a unique definition.name
+			// according to the spec so we should deduplicate
+			// these names
+			//
 
-					makeUnique(definitionsByName, definition);
+			makeUnique(definitionsByName, definition);
 
-					String path = "OSGI-INF/" + analyzer.validResourcePath(definition.name, "Invalid component name")
-						+ ".xml";
-					componentPaths.add(path);
-					analyzer.getJar()
-						.putResource(path, new TagResource(definition.getTag()));
+			String path = "OSGI-INF/" + analyzer.validResourcePath(definition.name, "Invalid component name") + ".xml";
+			componentPaths.add(path);
+			analyzer.getJar()
+				.putResource(path, new TagResource(definition.getTag()));
 
-					if (!options.contains(Options.nocapabilities)) {
-						addServiceCapability(definition, provides, nouses);
-					}
-
-					if (!options.contains(Options.norequirements)) {
-						MergedRequirement serviceReqMerge = new MergedRequirement(ServiceNamespace.SERVICE_NAMESPACE);
-						for (ReferenceDef ref : definition.references.values()) {
-							addServiceRequirement(ref, serviceReqMerge);
-						}
-						requires.addAll(serviceReqMerge.toStringList());
-					}
-					maxVersionUsedByAnyComponent = ComponentDef.max(maxVersionUsedByAnyComponent, definition.version);
+			if (!options.contains(Options.nocapabilities)) {
+				addServiceCapability(definition, provides, nouses);
+			}
 
-					break;
+			if (!options.contains(Options.norequirements)) {
+				MergedRequirement serviceReqMerge = new MergedRequirement(ServiceNamespace.SERVICE_NAMESPACE);
+				for (ReferenceDef ref : definition.references.values()) {
+					addServiceRequirement(ref, serviceReqMerge);
 				}
+				requires.addAll(serviceReqMerge.toStringList());
 			}
+			maxVersionUsedByAnyComponent = ComponentDef.max(maxVersionUsedByAnyComponent, definition.version);
 		}
-		if (componentProcessed
+		if (!reader.definitions.isEmpty()
 			&& (options.contains(Options.extender) || (maxVersionUsedByAnyComponent.compareTo(V1_3) >= 0))) {
 			Clazz componentAnnotation = analyzer
 				.findClass(analyzer.getTypeRef("org/osgi/service/component/annotations/Component"));
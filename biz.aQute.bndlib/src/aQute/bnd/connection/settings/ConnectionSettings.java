@@ -83,6 +83,19 @@ public class ConnectionSettings {
 				.mkdirs();
 			this.client.setLog(file);
 		}
+		if (processor.is(Constants.CONNECTION_HTTP2)) {
+			this.client.http2(true);
+		}
+		String parallelRanges = processor.getProperty(Constants.CONNECTION_PARALLEL_RANGES);
+		if (Strings.nonNullOrEmpty(parallelRanges)) {
+			try {
+				this.client.parallelRanges(Integer.parseInt(parallelRanges.trim()));
+			} catch (NumberFormatException e) {
+				processor.error("Invalid %s value %s, expected the number of ranges", Constants.CONNECTION_PARALLEL_RANGES,
+					parallelRanges)
+					.header(Constants.CONNECTION_PARALLEL_RANGES);
+			}
+		}
 		mavenMasterPassphrase = new MasterPassphrase(processor);
 	}
 
@@ -402,6 +402,12 @@ public class Syntax implements Constants {
 
 		new Syntax(CONNECTION_SETTINGS, "Setting up the communications for bnd.",
 			CONNECTION_SETTINGS + "= ~/.bnd/connection-settings.xml", null, null),
+		new Syntax(CONNECTION_HTTP2,
+			"Send the http and https requests of the workspace with a multiplexing HTTP/2 client that shares the connections to a host.",
+			CONNECTION_HTTP2 + "=true", "true,false", Verifier.TRUEORFALSEPATTERN),
+		new Syntax(CONNECTION_PARALLEL_RANGES,
+			"The maximum number of ranges of a large file in the cache that are downloaded in parallel when the server supports range requests. The default 1 downloads a file in a single request.",
+			CONNECTION_PARALLEL_RANGES + "=4", null, Verifier.NUMBERPATTERN),
 
 		new Syntax(CONDUIT, "Allows a bnd file to point to files which will be returned when the bnd file is build.",
 			CONDUIT + "= jar/osgi.jar", null, null),
@@ -633,6 +639,21 @@ public class Syntax implements Constants {
 			NOEE + "=true", "true,false", Verifier.TRUEORFALSEPATTERN),
 		new Syntax(NOPARALLEL, "Prevent Gradle tasks in the same category from executing in parallel.",
 			NOPARALLEL + "=true", "true,false", Verifier.TRUEORFALSEPATTERN),
+		new Syntax(PARALLELANALYSIS,
+			"Parse the class files of the bundle in parallel during analysis. The resulting manifest is the same as with sequential analysis.",
+			PARALLELANALYSIS + "=true", "true,false", Verifier.TRUEORFALSEPATTERN),
+		new Syntax(CLASSCACHE,
+			"Cache the analysis results of class files in the workspace cache directory, keyed by their content, so unchanged classes are not parsed again in later builds.",
+			CLASSCACHE + "=true", "true,false", Verifier.TRUEORFALSEPATTERN),
+		new Syntax(PARALLELDEFLATE,
+			"Compress the resources of the bundle in parallel when writing it. The written bundle is the same as when compressing sequentially.",
+			PARALLELDEFLATE + "=true", "true,false", Verifier.TRUEORFALSEPATTERN),
+		new Syntax(INCREMENTALANALYSIS,
+			"Keep the analysis results of the classes of a project build in memory, so the next build of the project in the same process only parses the classes that were added or changed.",
+			INCREMENTALANALYSIS + "=true", "true,false", Verifier.TRUEORFALSEPATTERN),
+		new Syntax(IMPORTEDCLASSESCACHE,
+			"The maximum number of classes found on the classpath that the analyzer keeps parsed in memory. The least recently used classes are evicted and parsed again when needed. The value 0 keeps all classes.",
+			IMPORTEDCLASSESCACHE + "=20000", null, Verifier.NUMBERPATTERN),
 		new Syntax(NAMESECTION,
 			"Create a name section (second part of manifest) with optional property expansion and addition of custom attributes. Patterns not ending with \"/\" target resources. Those ending with \"/\" target packages.",
 			NAMESECTION + "=*;baz=true, abc/def/bar/X.class;bar=3", null, null),
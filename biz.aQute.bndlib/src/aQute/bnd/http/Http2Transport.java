@@ -0,0 +1,684 @@
+package aQute.bnd.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.lang.ref.Cleaner;
+import java.net.Authenticator;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.PasswordAuthentication;
+import java.net.Proxy;
+import java.net.ProxySelector;
+import java.net.SocketTimeoutException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.http.HttpClient.Redirect;
+import java.net.http.HttpClient.Version;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.net.http.HttpTimeoutException;
+import java.security.cert.Certificate;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLPeerUnverifiedException;
+import javax.net.ssl.SSLSession;
+
+import aQute.bnd.osgi.Processor;
+import aQute.bnd.service.url.ProxyHandler.ProxySetup;
+import aQute.bnd.service.url.URLConnectionHandler;
+import aQute.lib.io.IO;
+
+/**
+ * A transport for the {@link HttpClient} that sends requests with a
+ * {@link java.net.http.HttpClient}. Requests to the same host share the
+ * connections of this client, over HTTP/2 all requests to a host are
+ * multiplexed over a single connection. The number of concurrent requests to a
+ * host is bounded, a request counts until its response body is read to the end
+ * or closed, or the body is no longer used.
+ * <p>
+ * A request is presented as an {@link HttpURLConnection}, so the
+ * {@link URLConnectionHandler}s can decorate it like any other connection and
+ * the response is read like the response of a JDK connection. Requests that
+ * this transport cannot send are sent with a JDK connection: uploads, requests
+ * over a SOCKS proxy and requests for which a handler configured the TLS
+ * socket factory or host name verifier.
+ */
+final class Http2Transport {
+	/**
+	 * The default maximum number of concurrent requests to a host.
+	 */
+	static final int										MAX_STREAMS_PER_HOST	= 32;
+
+	// The maximum number of bytes of an error body kept for getErrorStream
+	private static final int								MAX_ERROR_BODY			= 64 * 1024;
+
+	// These headers are set by java.net.http and cannot be set on a request
+	private static final Set<String>						RESTRICTED_HEADERS		= Set.of("connection",
+		"content-length", "expect", "host", "upgrade");
+
+	// Releases the streams of the bodies that are no longer used
+	private static final Cleaner							CLEANER					= Cleaner.create();
+
+	private final Map<ClientKey, java.net.http.HttpClient>	clients					= new ConcurrentHashMap<>();
+	private final Map<String, Host>							hosts					= new ConcurrentHashMap<>();
+	private final int										maxStreams;
+
+	/**
+	 * The proxy and proxy authentication of a client.
+	 */
+	private record ClientKey(Proxy proxy, String user, String password) {
+		static ClientKey of(ProxySetup setup) {
+			if (setup == null) {
+				return new ClientKey(null, null, null);
+			}
+			PasswordAuthentication authentication = setup.authentication;
+			return (authentication == null) ? new ClientKey(setup.proxy, null, null)
+				: new ClientKey(setup.proxy, authentication.getUserName(),
+					String.valueOf(authentication.getPassword()));
+		}
+	}
+
+	/**
+	 * The bound of the concurrent requests to a host and whether a connection
+	 * to the host was established.
+	 */
+	private record Host(Semaphore streams, AtomicBoolean connected) {}
+
+	Http2Transport(int maxStreams) {
+		if (maxStreams < 1) {
+			throw new IllegalArgumentException("The maximum number of streams must be positive: " + maxStreams);
+		}
+		this.maxStreams = maxStreams;
+	}
+
+	/**
+	 * Open a connection for a request and let the handler decorate it.
+	 *
+	 * @param url the url of the request
+	 * @param proxy the proxy setup, or {@code null} for the default proxy
+	 *            selector
+	 * @param handler the matching handler, or {@code null}
+	 * @return the decorated connection, or {@code null} when the request must
+	 *         be sent with a JDK connection
+	 */
+	HttpURLConnection open(URL url, ProxySetup proxy, URLConnectionHandler handler) throws Exception {
+		if ((proxy != null) && (proxy.proxy != null) && (proxy.proxy.type() == Proxy.Type.SOCKS)) {
+			return null;
+		}
+		HttpURLConnection connection = switch (url.getProtocol()
+			.toLowerCase(Locale.ROOT)) {
+			case "http" -> new Connection(new Exchange(url, proxy));
+			case "https" -> new SecureConnection(new Exchange(url, proxy));
+			default -> null;
+		};
+		if ((connection != null) && (handler != null)) {
+			handler.handle(connection);
+			if ((connection instanceof SecureConnection https) && https.isCustomized()) {
+				return null;
+			}
+		}
+		return connection;
+	}
+
+	/**
+	 * Close the clients of this transport. The clients are closed on Java 21
+	 * and later, on older versions their connections are closed when they are
+	 * garbage collected. A request sent after the transport is closed creates
+	 * a new client.
+	 */
+	void close() {
+		clients.values()
+			.forEach(client -> {
+				if (client instanceof AutoCloseable closeable) {
+					IO.close(closeable);
+				}
+			});
+		clients.clear();
+		hosts.clear();
+	}
+
+	private java.net.http.HttpClient client(ProxySetup proxy) {
+		return clients.computeIfAbsent(ClientKey.of(proxy), key -> {
+			java.net.http.HttpClient.Builder builder = java.net.http.HttpClient.newBuilder()
+				.followRedirects(Redirect.NEVER)
+				.version(Version.HTTP_2);
+			if (key.proxy() == null) {
+				ProxySelector selector = ProxySelector.getDefault();
+				if (selector != null) {
+					builder.proxy(selector);
+				}
+			} else if (key.proxy()
+				.type() == Proxy.Type.HTTP) {
+				builder.proxy(ProxySelector.of((InetSocketAddress) key.proxy()
+					.address()));
+			} else {
+				builder.proxy(java.net.http.HttpClient.Builder.NO_PROXY);
+			}
+			if (key.user() != null) {
+				PasswordAuthentication authentication = new PasswordAuthentication(key.user(), key.password()
+					.toCharArray());
+				builder.authenticator(new Authenticator() {
+					@Override
+					protected PasswordAuthentication getPasswordAuthentication() {
+						return (getRequestorType() == RequestorType.PROXY) ? authentication : null;
+					}
+				});
+			}
+			return builder.build();
+		});
+	}
+
+	private Host host(URL url) {
+		String host = url.getProtocol()
+			.toLowerCase(Locale.ROOT) + "://"
+			+ url.getHost()
+				.toLowerCase(Locale.ROOT)
+			+ ":" + ((url.getPort() < 0) ? url.getDefaultPort() : url.getPort());
+		return hosts.computeIfAbsent(host, h -> new Host(new Semaphore(maxStreams), new AtomicBoolean()));
+	}
+
+	/**
+	 * The exchange of a connection. Sends the request when the connection
+	 * connects and holds the response.
+	 */
+	private final class Exchange {
+		private final URL							url;
+		private final ProxySetup					proxy;
+		private volatile HttpResponse<InputStream>	response;
+		private volatile InputStream				body;
+
+		Exchange(URL url, ProxySetup proxy) {
+			this.url = url;
+			this.proxy = proxy;
+		}
+
+		synchronized HttpResponse<InputStream> send(HttpURLConnection connection) throws IOException {
+			HttpResponse<InputStream> response = this.response;
+			if (response != null) {
+				return response;
+			}
+			HttpRequest.Builder builder;
+			try {
+				builder = HttpRequest.newBuilder(url.toURI());
+			} catch (URISyntaxException e) {
+				throw new IOException("Invalid url " + url, e);
+			}
+			builder.method(connection.getRequestMethod(), BodyPublishers.noBody());
+			if ("http".equalsIgnoreCase(url.getProtocol())) {
+				// avoid the h2c upgrade, servers often do not handle it
+				builder.version(Version.HTTP_1_1);
+			}
+			Host host = host(url);
+			// the timeout includes the connect when there is no connection yet
+			long timeout = connection.getReadTimeout();
+			if ((timeout > 0L) && !host.connected()
+				.get()) {
+				timeout += connection.getConnectTimeout();
+			}
+			if (timeout > 0L) {
+				builder.timeout(Duration.ofMillis(timeout));
+			}
+			connection.getRequestProperties()
+				.forEach((name, values) -> {
+					if ((name != null) && !RESTRICTED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+						values.stream()
+							.filter(value -> value != null)
+							.forEach(value -> builder.header(name, value));
+					}
+				});
+
+			Semaphore streams = host.streams();
+			try {
+				if (timeout > 0L) {
+					if (!streams.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+						throw new SocketTimeoutException("Timed out waiting for a stream to " + url);
+					}
+				} else {
+					streams.acquire();
+				}
+				try {
+					response = client(proxy).send(builder.build(), BodyHandlers.ofInputStream());
+				} catch (Throwable t) {
+					streams.release();
+					throw t;
+				}
+				host.connected()
+					.set(true);
+			} catch (InterruptedException e) {
+				Thread.currentThread()
+					.interrupt();
+				InterruptedIOException interrupted = new InterruptedIOException("Interrupted " + url);
+				interrupted.initCause(e);
+				throw interrupted;
+			} catch (HttpTimeoutException e) {
+				SocketTimeoutException timedOut = new SocketTimeoutException(e.getMessage());
+				timedOut.initCause(e);
+				throw timedOut;
+			}
+			// the stream of the request is released when the body is done
+			InputStream body = new Body(url, response.body(), streams, connection.getReadTimeout());
+			int code = response.statusCode();
+			if ((code / 100) == 2) {
+				if ((code == HttpURLConnection.HTTP_NO_CONTENT) || "HEAD".equals(connection.getRequestMethod())) {
+					body.close();
+				}
+			} else if (code >= 400) {
+				// the error body is read later, if at all, so it is buffered
+				byte[] error;
+				try (InputStream in = body) {
+					error = in.readNBytes(MAX_ERROR_BODY);
+				} catch (IOException e) {
+					error = new byte[0];
+				}
+				body = new ByteArrayInputStream(error);
+			} else {
+				// redirects are handled by the client and other responses
+				// have no body, release the stream
+				body.close();
+			}
+			this.body = body;
+			this.response = response;
+			return response;
+		}
+
+		int getResponseCode(HttpURLConnection connection) throws IOException {
+			return send(connection).statusCode();
+		}
+
+		String getHeaderField(HttpURLConnection connection, String name) {
+			try {
+				return send(connection).headers()
+					.firstValue(name)
+					.orElse(null);
+			} catch (IOException e) {
+				return null;
+			}
+		}
+
+		Map<String, List<String>> getHeaderFields(HttpURLConnection connection) {
+			try {
+				return send(connection).headers()
+					.map();
+			} catch (IOException e) {
+				return Collections.emptyMap();
+			}
+		}
+
+		InputStream getInputStream(HttpURLConnection connection) throws IOException {
+			HttpResponse<InputStream> response = send(connection);
+			int code = response.statusCode();
+			if (code >= 400) {
+				if ((code == HttpURLConnection.HTTP_NOT_FOUND) || (code == HttpURLConnection.HTTP_GONE)) {
+					throw new FileNotFoundException(url.toString());
+				}
+				throw new IOException("Server returned HTTP response code: " + code + " for URL: " + url);
+			}
+			return body;
+		}
+
+		InputStream getErrorStream() {
+			HttpResponse<InputStream> response = this.response;
+			if ((response == null) || (response.statusCode() < 400)) {
+				return null;
+			}
+			return body;
+		}
+
+		Optional<SSLSession> sslSession(HttpURLConnection connection) {
+			try {
+				return send(connection).sslSession();
+			} catch (IOException e) {
+				return Optional.empty();
+			}
+		}
+
+		String getStatusLine(HttpURLConnection connection) {
+			try {
+				HttpResponse<InputStream> response = send(connection);
+				String version = (response.version() == Version.HTTP_2) ? "HTTP/2" : "HTTP/1.1";
+				return version + " " + response.statusCode();
+			} catch (IOException e) {
+				return null;
+			}
+		}
+
+		void disconnect() {
+			InputStream body = this.body;
+			if (body != null) {
+				IO.close(body);
+			}
+		}
+
+		boolean usingProxy() {
+			return (proxy != null) && (proxy.proxy != null) && (proxy.proxy.type() != Proxy.Type.DIRECT);
+		}
+	}
+
+	/**
+	 * The body of a response. The stream of the request to the host is
+	 * released when the body is closed, read to the end or fails. A body that
+	 * is dropped without being closed is closed and its stream released when
+	 * it is garbage collected. The read timeout of the connection applies to
+	 * each read, a watchdog interrupts a read that receives no data in time.
+	 */
+	private static final class Body extends FilterInputStream {
+		private final URL				url;
+		private final long				timeout;
+		private final Release			release;
+		private final Cleaner.Cleanable	cleanable;
+		private Thread					reader;
+		private boolean					expired;
+
+		Body(URL url, InputStream in, Semaphore streams, long timeout) {
+			super(in);
+			this.url = url;
+			this.timeout = timeout;
+			this.release = new Release(in, streams);
+			this.cleanable = CLEANER.register(this, release);
+		}
+
+		@Override
+		public int read() throws IOException {
+			ScheduledFuture<?> watchdog = watch();
+			try {
+				int b = in.read();
+				if (b < 0) {
+					release(false);
+				}
+				return b;
+			} catch (IOException e) {
+				release(true);
+				throw failure(e);
+			} finally {
+				unwatch(watchdog);
+			}
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			ScheduledFuture<?> watchdog = watch();
+			try {
+				int n = in.read(b, off, len);
+				if (n < 0) {
+					release(false);
+				}
+				return n;
+			} catch (IOException e) {
+				release(true);
+				throw failure(e);
+			} finally {
+				unwatch(watchdog);
+			}
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			ScheduledFuture<?> watchdog = watch();
+			try {
+				return in.skip(n);
+			} catch (IOException e) {
+				release(true);
+				throw failure(e);
+			} finally {
+				unwatch(watchdog);
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			release(true);
+		}
+
+		/*
+		 * A body read to the end stays open, so later reads still return the
+		 * end of the stream
+		 */
+		private void release(boolean close) {
+			if (!close) {
+				release.in = null;
+			}
+			cleanable.clean();
+		}
+
+		private ScheduledFuture<?> watch() {
+			if (timeout <= 0L) {
+				return null;
+			}
+			synchronized (this) {
+				reader = Thread.currentThread();
+			}
+			return Processor.getScheduledExecutor()
+				.schedule(this::expire, timeout, TimeUnit.MILLISECONDS);
+		}
+
+		/*
+		 * A blocked read of the java.net.http body only fails when the body
+		 * is closed before the reader is interrupted
+		 */
+		private synchronized void expire() {
+			if (reader != null) {
+				expired = true;
+				IO.close(this);
+				reader.interrupt();
+			}
+		}
+
+		private void unwatch(ScheduledFuture<?> watchdog) {
+			if (watchdog == null) {
+				return;
+			}
+			watchdog.cancel(false);
+			boolean interrupted;
+			synchronized (this) {
+				reader = null;
+				interrupted = expired;
+			}
+			if (interrupted) {
+				// clear the interrupt of the watchdog
+				Thread.interrupted();
+			}
+		}
+
+		private synchronized IOException failure(IOException e) {
+			return expired ? new SocketTimeoutException("Read timed out " + url) : e;
+		}
+	}
+
+	/**
+	 * Closes the body of a response and releases its stream, runs at most
+	 * once. Must not refer to the {@link Body}, so the body can become
+	 * unreachable.
+	 */
+	private static final class Release implements Runnable {
+		private final Semaphore			streams;
+		private volatile InputStream	in;
+
+		Release(InputStream in, Semaphore streams) {
+			this.in = in;
+			this.streams = streams;
+		}
+
+		@Override
+		public void run() {
+			try {
+				InputStream in = this.in;
+				if (in != null) {
+					IO.close(in);
+				}
+			} finally {
+				streams.release();
+			}
+		}
+	}
+
+	/**
+	 * An http connection sent by this transport.
+	 */
+	private static final class Connection extends HttpURLConnection {
+		private final Exchange exchange;
+
+		Connection(Exchange exchange) {
+			super(exchange.url);
+			this.exchange = exchange;
+		}
+
+		@Override
+		public void connect() throws IOException {
+			exchange.send(this);
+			connected = true;
+		}
+
+		@Override
+		public void disconnect() {
+			exchange.disconnect();
+		}
+
+		@Override
+		public boolean usingProxy() {
+			return exchange.usingProxy();
+		}
+
+		@Override
+		public int getResponseCode() throws IOException {
+			connect();
+			return exchange.getResponseCode(this);
+		}
+
+		@Override
+		public String getHeaderField(String name) {
+			return exchange.getHeaderField(this, name);
+		}
+
+		@Override
+		public String getHeaderField(int n) {
+			return (n == 0) ? exchange.getStatusLine(this) : null;
+		}
+
+		@Override
+		public Map<String, List<String>> getHeaderFields() {
+			return exchange.getHeaderFields(this);
+		}
+
+		@Override
+		public InputStream getInputStream() throws IOException {
+			connect();
+			return exchange.getInputStream(this);
+		}
+
+		@Override
+		public InputStream getErrorStream() {
+			return exchange.getErrorStream();
+		}
+	}
+
+	/**
+	 * An https connection sent by this transport.
+	 */
+	private static final class SecureConnection extends HttpsURLConnection {
+		private final Exchange exchange;
+
+		SecureConnection(Exchange exchange) {
+			super(exchange.url);
+			this.exchange = exchange;
+		}
+
+		/**
+		 * A handler changed the TLS configuration, the java.net.http client
+		 * cannot use it.
+		 */
+		boolean isCustomized() {
+			return (getSSLSocketFactory() != HttpsURLConnection.getDefaultSSLSocketFactory())
+				|| (getHostnameVerifier() != HttpsURLConnection.getDefaultHostnameVerifier());
+		}
+
+		@Override
+		public void connect() throws IOException {
+			exchange.send(this);
+			connected = true;
+		}
+
+		@Override
+		public void disconnect() {
+			exchange.disconnect();
+		}
+
+		@Override
+		public boolean usingProxy() {
+			return exchange.usingProxy();
+		}
+
+		@Override
+		public int getResponseCode() throws IOException {
+			connect();
+			return exchange.getResponseCode(this);
+		}
+
+		@Override
+		public String getHeaderField(String name) {
+			return exchange.getHeaderField(this, name);
+		}
+
+		@Override
+		public String getHeaderField(int n) {
+			return (n == 0) ? exchange.getStatusLine(this) : null;
+		}
+
+		@Override
+		public Map<String, List<String>> getHeaderFields() {
+			return exchange.getHeaderFields(this);
+		}
+
+		@Override
+		public InputStream getInputStream() throws IOException {
+			connect();
+			return exchange.getInputStream(this);
+		}
+
+		@Override
+		public InputStream getErrorStream() {
+			return exchange.getErrorStream();
+		}
+
+		@Override
+		public String getCipherSuite() {
+			return exchange.sslSession(this)
+				.map(SSLSession::getCipherSuite)
+				.orElseThrow(() -> new IllegalStateException("No TLS session " + url));
+		}
+
+		@Override
+		public Certificate[] getLocalCertificates() {
+			return exchange.sslSession(this)
+				.map(SSLSession::getLocalCertificates)
+				.orElse(null);
+		}
+
+		@Override
+		public Certificate[] getServerCertificates() throws SSLPeerUnverifiedException {
+			Optional<SSLSession> session = exchange.sslSession(this);
+			if (session.isEmpty()) {
+				throw new SSLPeerUnverifiedException("No TLS session " + url);
+			}
+			return session.get()
+				.getPeerCertificates();
+		}
+	}
+}
@@ -7,6 +7,7 @@ import static java.net.HttpURLConnection.HTTP_MOVED_TEMP;
 import static java.net.HttpURLConnection.HTTP_NOT_FOUND;
 import static java.net.HttpURLConnection.HTTP_NOT_MODIFIED;
 import static java.net.HttpURLConnection.HTTP_OK;
+import static java.net.HttpURLConnection.HTTP_PARTIAL;
 import static java.net.HttpURLConnection.HTTP_SEE_OTHER;
 import static java.util.Objects.requireNonNull;
 
@@ -28,9 +29,11 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLConnection;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Formatter;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -95,6 +98,8 @@ public class HttpClient implements Closeable, URLConnector {
 	int											retries					= 3;
 	long										retryDelay				= 0L;
 	final Map<URLConnectionHandler, Semaphore>	blocker					= new HashMap<>();
+	private volatile Http2Transport				transport;
+	private volatile int						parallelRanges			= 1;
 
 	public HttpClient() {
 		promiseFactory = Processor.getPromiseFactory();
@@ -118,6 +123,10 @@ public class HttpClient implements Closeable, URLConnector {
 	@Override
 	public void close() {
 		Authenticator.setDefault(null);
+		Http2Transport transport = this.transport;
+		if (transport != null) {
+			transport.close();
+		}
 	}
 
 	@Override
@@ -367,6 +376,50 @@ public class HttpClient implements Closeable, URLConnector {
 		return this;
 	}
 
+	/**
+	 * Send the http and https requests with a multiplexing HTTP/2 client
+	 * instead of opening a JDK connection for each request. Requests to the
+	 * same host share the connections of the client and the number of
+	 * concurrent requests to a host is bounded. The proxy handlers, connection
+	 * handlers and the cache are used as before. Uploads, requests over a SOCKS
+	 * proxy and requests for which a connection handler configures TLS are
+	 * still sent with a JDK connection.
+	 *
+	 * @param http2 {@code true} to use the HTTP/2 client
+	 * @return this
+	 */
+	public HttpClient http2(boolean http2) {
+		Http2Transport previous = this.transport;
+		this.transport = http2 ? new Http2Transport(Http2Transport.MAX_STREAMS_PER_HOST) : null;
+		if (previous != null) {
+			previous.close();
+		}
+		return this;
+	}
+
+	public boolean isHttp2() {
+		return transport != null;
+	}
+
+	/**
+	 * Download large files in the cache with parallel range requests. A file
+	 * is only split when the server accepts byte ranges and each range is at
+	 * least 8 MB. Interrupted downloads in the cache are always resumed with a
+	 * range request if the server supports it.
+	 *
+	 * @param ranges the maximum number of ranges downloaded in parallel, 1
+	 *            downloads a file with a single request
+	 * @return this
+	 */
+	public HttpClient parallelRanges(int ranges) {
+		this.parallelRanges = Math.max(ranges, 1);
+		return this;
+	}
+
+	public int getParallelRanges() {
+		return parallelRanges;
+	}
+
 	class HttpConnection<T> implements Callable<T> {
 		// These are not in HttpURLConnection
 		private static final int		HTTP_TEMPORARY_REDIRECT			= 307;	// https://developer.mozilla.org/en-US/docs/Web/HTTP/Status/307
@@ -376,6 +429,7 @@ public class HttpClient implements Closeable, URLConnector {
 		private final HttpRequest<T>	request;
 		private volatile Thread			requestThread;
 		private volatile TaggedData		connected;
+		private Map<String, String>		rangeHeaders;
 
 		HttpConnection(HttpRequest<T> request) {
 			this.request = requireNonNull(request);
@@ -502,17 +556,20 @@ public class HttpClient implements Closeable, URLConnector {
 							}
 						}
 
+						PartialDownload partial = resume(info, uri);
 						TaggedData tag = connect();
 
 						if (tag.getState() == State.NOT_FOUND) {
+							partial.delete();
 							cache().clear(uri);
 						} else if (tag.getState() == State.UPDATED) {
 							//
 							// update the cache from the input stream
 							//
 
-							info.update(tag.getInputStream(), tag.getTag(), tag.getModified());
+							update(info, tag, partial);
 						} else if (tag.getState() == State.UNMODIFIED) {
+							partial.delete();
 							info.jsonFile.setLastModified(System.currentTimeMillis());
 						}
 
@@ -532,10 +589,13 @@ public class HttpClient implements Closeable, URLConnector {
 					return new TaggedData(uri, HTTP_NOT_FOUND, request.useCacheFile);
 				}
 
+				PartialDownload partial = resume(info, uri);
 				TaggedData tag = connect();
 
 				if (tag.isOk()) {
-					info.update(tag.getInputStream(), tag.getTag(), tag.getModified());
+					update(info, tag, partial);
+				} else {
+					partial.delete();
 				}
 				return tag;
 			}
@@ -546,7 +606,8 @@ public class HttpClient implements Closeable, URLConnector {
 			final URLConnectionHandler matching = findMatchingHandler(request.url);
 			Semaphore semaphore = getConnectionBlocker(matching);
 
-			final URLConnection con = getProxiedAndConfiguredConnection(request.url, proxy, matching);
+			final URLConnection con = getProxiedAndConfiguredConnection(request.url, proxy, matching,
+				request.upload == null);
 			final HttpURLConnection hcon = (con instanceof HttpURLConnection hc) ? hc : null;
 
 			if (request.ifNoneMatch != null) {
@@ -568,6 +629,7 @@ public class HttpClient implements Closeable, URLConnector {
 			}
 
 			setHeaders(request.headers, con);
+			setHeaders(rangeHeaders, con);
 			setHeadersIfAbsent(request.headersIfAbsent, con);
 
 			configureHttpConnection(request.verb, hcon);
@@ -679,9 +741,16 @@ public class HttpClient implements Closeable, URLConnector {
 				// later
 
 				InputStream xin = con.getInputStream();
-				InputStream in = handleContentEncoding(xin, hcon);
-				in = createProgressWrappedStream(in, con.toString(), con.getContentLength(), task, request.timeout);
-				return new TaggedData(con, in, request.useCacheFile);
+				try {
+					InputStream in = handleContentEncoding(xin, hcon);
+					in = createProgressWrappedStream(in, con.toString(), con.getContentLength(), task,
+						request.timeout);
+					return new TaggedData(con, in, request.useCacheFile);
+				} catch (Throwable t) {
+					// the stream was not handed over, close it
+					IO.close(xin);
+					throw t;
+				}
 			} catch (javax.net.ssl.SSLHandshakeException e) {
 				task.done(Exceptions.causes(e), null);
 				// 526 Invalid SSL Certificate
@@ -711,9 +780,137 @@ public class HttpClient implements Closeable, URLConnector {
 			}
 		}
 
+		/*
+		 * Prepare the request to resume an interrupted download of the content
+		 * of a cache entry
+		 */
+		private PartialDownload resume(Info info, URI uri) {
+			PartialDownload partial = new PartialDownload(info.file, uri);
+			if (partial.load()) {
+				int range = partial.next();
+				logger.debug("resuming {} with range {}", uri, partial.range(range));
+				rangeHeaders = rangeHeaders(partial, range);
+			}
+			return partial;
+		}
+
+		private Map<String, String> rangeHeaders(PartialDownload partial, int range) {
+			Map<String, String> headers = new LinkedHashMap<>();
+			headers.put("Range", partial.range(range));
+			headers.put("If-Range", partial.validator());
+			headers.put("Accept-Encoding", "identity");
+			return headers;
+		}
+
+		/*
+		 * Update the cache entry from the content of a response. The content is
+		 * received in part files so an interrupted download can be resumed. If
+		 * the file is large and parallel ranges are enabled the other ranges of
+		 * the file are requested in parallel.
+		 */
+		private void update(Info info, TaggedData tag, PartialDownload partial) throws Exception {
+			URLConnection con = tag.getConnection();
+			String encoding = con.getHeaderField("Content-Encoding");
+			int range;
+			if (partial.isResumable() && (tag.getResponseCode() == HTTP_PARTIAL)) {
+				range = partial.next();
+				if ((encoding != null) || !PartialDownload.hasContentRange(con, partial.position(range))) {
+					IO.close(tag);
+					partial.delete();
+					throw new IOException(
+						"Unexpected partial content " + con.getHeaderField("Content-Range") + " for " + request.url);
+				}
+			} else {
+				// the complete content, replaces an earlier partial download
+				String validator = ((encoding == null)
+					&& !"none".equalsIgnoreCase(con.getHeaderField("Accept-Ranges"))) ? PartialDownload.validator(con)
+						: null;
+				long length = (validator != null) ? con.getContentLengthLong() : -1L;
+				partial.start(validator, length, ranges(con, validator, length));
+				range = 0;
+			}
+
+			List<Promise<Void>> ranges = new ArrayList<>();
+			for (int r = 0; r < partial.ranges(); r++) {
+				if ((r != range) && !partial.isComplete(r)) {
+					ranges.add(download(partial, r));
+				}
+			}
+			Throwable failure = null;
+			try {
+				partial.append(range, tag.getInputStream());
+			} catch (Throwable t) {
+				failure = t;
+			} finally {
+				IO.close(tag);
+			}
+			// wait for all ranges so no part file is written by a later retry
+			for (Promise<Void> promise : ranges) {
+				Throwable f = promise.getFailure();
+				if (failure == null) {
+					failure = f;
+				}
+			}
+			if (failure != null) {
+				if (!partial.isResumable()) {
+					partial.delete();
+				}
+				throw Exceptions.duck(failure);
+			}
+
+			File content = partial.complete();
+			IO.rename(content, info.file);
+			long modified = tag.getModified();
+			if (modified > 0) {
+				info.file.setLastModified(modified);
+			}
+			info.update(tag.getTag());
+		}
+
+		private int ranges(URLConnection con, String validator, long length) {
+			int ranges = getParallelRanges();
+			if ((validator == null) || (ranges < 2) || (length < 2 * PartialDownload.MIN_RANGE)
+				|| !"bytes".equalsIgnoreCase(con.getHeaderField("Accept-Ranges"))) {
+				return 1;
+			}
+			return (int) Math.min(ranges, length / PartialDownload.MIN_RANGE);
+		}
+
+		/*
+		 * Download the rest of a range with a separate request
+		 */
+		private Promise<Void> download(PartialDownload partial, int range) {
+			Map<String, String> headers = new LinkedHashMap<>(request.headers);
+			headers.keySet()
+				.removeAll(
+					Arrays.asList("If-None-Match", "If-Match", "If-Modified-Since", "If-Unmodified-Since"));
+			headers.putAll(rangeHeaders(partial, range));
+			return build().asTag()
+				.headers(headers)
+				.timeout(request.timeout)
+				.retries(0)
+				.async(request.url)
+				.map(tag -> {
+					try {
+						if ((tag.getResponseCode() != HTTP_PARTIAL)
+							|| (tag.getConnection()
+								.getHeaderField("Content-Encoding") != null)
+							|| !PartialDownload.hasContentRange(tag.getConnection(), partial.position(range))) {
+							throw new IOException("Range " + range + " of " + request.url + " failed: " + tag);
+						}
+						partial.append(range, tag.getInputStream());
+						return null;
+					} finally {
+						IO.close(tag);
+					}
+				});
+		}
+
 		private void configureHttpConnection(String verb, HttpURLConnection hcon) throws ProtocolException {
 			if (hcon != null) {
-				hcon.setRequestProperty("Accept-Encoding", "deflate, gzip");
+				if (hcon.getRequestProperty("Accept-Encoding") == null) {
+					hcon.setRequestProperty("Accept-Encoding", "deflate, gzip");
+				}
 				hcon.setInstanceFollowRedirects(false); // we handle it
 				hcon.setRequestMethod(verb);
 			}
@@ -802,7 +999,15 @@ public class HttpClient implements Closeable, URLConnector {
 		}
 
 		private URLConnection getProxiedAndConfiguredConnection(URL url, ProxySetup proxy,
-			URLConnectionHandler matching) throws Exception {
+			URLConnectionHandler matching, boolean multiplex) throws Exception {
+			Http2Transport transport = HttpClient.this.transport;
+			if (multiplex && (transport != null)) {
+				URLConnection multiplexed = transport.open(url, proxy, matching);
+				if (multiplexed != null) {
+					return multiplexed;
+				}
+			}
+
 			final URLConnection urlc = proxy != null ? url.openConnection(proxy.proxy) : url.openConnection();
 
 			if (matching == null) {
@@ -0,0 +1,270 @@
+package aQute.bnd.http;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URLConnection;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import aQute.lib.date.Dates;
+import aQute.lib.io.IO;
+import aQute.lib.io.IOConstants;
+
+/**
+ * The state of a download that can be resumed with HTTP range requests.
+ * <p>
+ * The bytes received so far are kept in part files next to the target file,
+ * one part file for each range when the file is downloaded in parallel ranges.
+ * A JSON file records the validator of the resource, its length and the number
+ * of ranges. An interrupted download is resumed if the resource has not
+ * changed, which the server verifies with the validator in an
+ * {@code If-Range} header.
+ */
+final class PartialDownload {
+	private final static Logger		logger			= LoggerFactory.getLogger(PartialDownload.class);
+	final static String				SUFFIX			= ".partial";
+	/**
+	 * Each parallel range is at least this long.
+	 */
+	final static long				MIN_RANGE		= 8L * 1024L * 1024L;
+	private final static Pattern	CONTENT_RANGE_P	= Pattern
+		.compile("\\s*bytes\\s+(?<start>\\d+)-(?<end>\\d+)/(?<length>\\d+|\\*)\\s*");
+
+	public static class PartialDTO {
+		public URI		uri;
+		public String	validator;
+		public long		length;
+		public int		ranges;
+	}
+
+	private final File	file;
+	private final File	jsonFile;
+	private final URI	uri;
+	private PartialDTO	dto;
+
+	PartialDownload(File file, URI uri) {
+		this.file = file;
+		this.uri = uri;
+		this.jsonFile = new File(file.getParentFile(), file.getName() + SUFFIX + ".json");
+	}
+
+	/**
+	 * Load the state of an earlier interrupted download.
+	 *
+	 * @return {@code true} if there is a download to resume
+	 */
+	boolean load() {
+		dto = null;
+		if (!jsonFile.isFile()) {
+			return false;
+		}
+		try {
+			PartialDTO loaded = HttpClient.codec.dec()
+				.from(jsonFile)
+				.get(PartialDTO.class);
+			if (Objects.equals(loaded.uri, uri) && (loaded.validator != null) && (loaded.ranges > 0)
+				&& ((loaded.ranges == 1) || (loaded.length > 0))) {
+				dto = loaded;
+				return next() >= 0;
+			}
+		} catch (Exception e) {
+			logger.debug("Invalid partial download {}", jsonFile, e);
+		}
+		delete();
+		return false;
+	}
+
+	/**
+	 * Start a new download. The download can only be resumed if the validator
+	 * is not {@code null}.
+	 */
+	void start(String validator, long length, int ranges) throws Exception {
+		delete();
+		dto = new PartialDTO();
+		dto.uri = uri;
+		dto.validator = validator;
+		dto.length = length;
+		dto.ranges = ranges;
+		IO.mkdirs(file.getParentFile());
+		if (validator != null) {
+			HttpClient.codec.enc()
+				.to(jsonFile)
+				.put(dto);
+		}
+	}
+
+	boolean isResumable() {
+		return (dto != null) && (dto.validator != null);
+	}
+
+	String validator() {
+		return dto.validator;
+	}
+
+	int ranges() {
+		return dto.ranges;
+	}
+
+	long start(int range) {
+		return range * rangeLength();
+	}
+
+	/**
+	 * The exclusive end of a range or -1 if the length of the resource is not
+	 * known.
+	 */
+	long end(int range) {
+		if (dto.length < 0) {
+			return -1L;
+		}
+		return Math.min(dto.length, (range + 1) * rangeLength());
+	}
+
+	private long rangeLength() {
+		return (dto.length + dto.ranges - 1) / dto.ranges;
+	}
+
+	File part(int range) {
+		return new File(file.getParentFile(), file.getName() + SUFFIX + "." + range);
+	}
+
+	/**
+	 * The offset of the next byte to receive for a range.
+	 */
+	long position(int range) {
+		return start(range) + part(range).length();
+	}
+
+	boolean isComplete(int range) {
+		long end = end(range);
+		return (end >= 0) && (position(range) >= end);
+	}
+
+	/**
+	 * The first range that is not complete or -1.
+	 */
+	int next() {
+		for (int range = 0; range < dto.ranges; range++) {
+			if (!isComplete(range)) {
+				return range;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * The value of the {@code Range} header for the rest of a range.
+	 */
+	String range(int range) {
+		long end = end(range);
+		return "bytes=" + position(range) + "-" + ((end < 0) ? "" : Long.toString(end - 1));
+	}
+
+	/**
+	 * Append the content of a response to the part of a range. Only the bytes
+	 * that belong to the range are read.
+	 *
+	 * @throws IOException if the content ends before the end of the range
+	 */
+	void append(int range, InputStream in) throws IOException {
+		long end = end(range);
+		long remaining = (end < 0) ? Long.MAX_VALUE : end - position(range);
+		byte[] buffer = new byte[IOConstants.PAGE_SIZE * 16];
+		try (OutputStream out = Files.newOutputStream(part(range).toPath(), CREATE, WRITE, APPEND)) {
+			while (remaining > 0) {
+				int size = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+				if (size < 0) {
+					if (end < 0) {
+						return;
+					}
+					throw new IOException("Premature end of range " + range + " of " + uri + " at " + position(range));
+				}
+				out.write(buffer, 0, size);
+				remaining -= size;
+			}
+		}
+	}
+
+	/**
+	 * Join the parts into the file of the first range and forget the state.
+	 *
+	 * @return the file with the complete content
+	 */
+	File complete() throws IOException {
+		File first = part(0);
+		try (FileChannel out = FileChannel.open(first.toPath(), CREATE, WRITE, APPEND)) {
+			for (int range = 1; range < dto.ranges; range++) {
+				try (FileChannel in = IO.readChannel(part(range).toPath())) {
+					long size = in.size();
+					for (long position = 0; position < size;) {
+						position += in.transferTo(position, size - position, out);
+					}
+				}
+			}
+		}
+		if ((dto.length >= 0) && (first.length() != dto.length)) {
+			delete();
+			throw new IOException("Received " + first.length() + " bytes instead of " + dto.length + " for " + uri);
+		}
+		IO.delete(jsonFile);
+		for (int range = 1; range < dto.ranges; range++) {
+			IO.delete(part(range));
+		}
+		return first;
+	}
+
+	/**
+	 * Forget the state and the received bytes.
+	 */
+	void delete() {
+		IO.delete(jsonFile);
+		int ranges = (dto != null) ? dto.ranges : 1;
+		for (int range = 0; range < ranges || part(range).exists(); range++) {
+			IO.delete(part(range));
+		}
+	}
+
+	/**
+	 * The validator of a response for an {@code If-Range} header: a strong
+	 * entity tag or else the last modified date.
+	 *
+	 * @return the validator or {@code null} if the response can not be resumed
+	 */
+	static String validator(URLConnection con) {
+		String etag = con.getHeaderField("ETag");
+		if ((etag != null) && !etag.startsWith("W/")) {
+			return etag;
+		}
+		long modified = con.getLastModified();
+		if (modified > 0) {
+			return Dates.formatMillis(Dates.RFC_7231_DATE_TIME, modified);
+		}
+		return null;
+	}
+
+	/**
+	 * Check that the content of a partial response starts at the expected
+	 * position.
+	 */
+	static boolean hasContentRange(URLConnection con, long position) {
+		String contentRange = con.getHeaderField("Content-Range");
+		if (contentRange == null) {
+			return false;
+		}
+		Matcher m = CONTENT_RANGE_P.matcher(contentRange);
+		return m.matches() && (Long.parseLong(m.group("start")) == position);
+	}
+}
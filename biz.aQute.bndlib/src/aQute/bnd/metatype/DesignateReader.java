@@ -35,14 +35,11 @@ public class DesignateReader extends ClassDataCollector {
 		this.finder = finder;
 	}
 
-	static DesignateDef getDesignate(Clazz c, Analyzer analyzer, Map<TypeRef, OCDDef> classToOCDMap,
-		XMLAttributeFinder finder) throws Exception {
-		DesignateReader r = new DesignateReader(analyzer, c, classToOCDMap, finder);
-		return r.getDef();
-	}
-
-	private DesignateDef getDef() throws Exception {
-		clazz.parseClassFileWithCollector(this);
+	/*
+	 * Answer the designate after the class was parsed with this reader and the
+	 * OCDs of the classes are known
+	 */
+	DesignateDef getDef() throws Exception {
 		if (pid != null && designate != null) {
 			if (pids != null && pids.length > 1) {
 				analyzer.error(
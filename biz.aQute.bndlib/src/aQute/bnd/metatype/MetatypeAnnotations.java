@@ -1,8 +1,9 @@
 package aQute.bnd.metatype;
 
+import java.util.ArrayList;
 import java.util.EnumSet;
-import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -15,19 +16,20 @@ import aQute.bnd.header.Attrs;
 import aQute.bnd.header.OSGiHeader;
 import aQute.bnd.header.Parameters;
 import aQute.bnd.osgi.Analyzer;
+import aQute.bnd.osgi.ClassDataCollector;
+import aQute.bnd.osgi.ClassspaceReader;
 import aQute.bnd.osgi.Clazz;
 import aQute.bnd.osgi.Constants;
 import aQute.bnd.osgi.Descriptors.TypeRef;
 import aQute.bnd.osgi.Instruction;
 import aQute.bnd.osgi.Instructions;
-import aQute.bnd.service.AnalyzerPlugin;
+import aQute.bnd.service.classparser.ClassspaceReaderPlugin;
 import aQute.bnd.xmlattribute.XMLAttributeFinder;
-import aQute.libg.generics.Create;
 
 /**
  * Analyze the class space for any classes that have an OSGi annotation for DS.
  */
-public class MetatypeAnnotations implements AnalyzerPlugin {
+public class MetatypeAnnotations implements ClassspaceReaderPlugin<MetatypeAnnotations.MetatypeReader> {
 	static final Logger logger = LoggerFactory.getLogger(MetatypeAnnotations.class);
 
 	enum Options {
@@ -81,13 +83,81 @@ public class MetatypeAnnotations implements AnalyzerPlugin {
 		MetatypeVersion minVersion = MetatypeVersion.VERSION_1_2;
 	}
 
+	/*
+	 * The OCD and the designate read from a class
+	 */
+	record ClassDefs(OCDDef ocd, DesignateReader designate) {}
+
+	/*
+	 * Reads the OCDs and designates of the classes in classspace order
+	 */
+	static class MetatypeReader implements ClassspaceReader<ClassDefs> {
+		final Analyzer				analyzer;
+		final Instructions			instructions;
+		final Set<Options>			options;
+		final VersionSettings		settings;
+		final XMLAttributeFinder	finder;
+		final Map<TypeRef, OCDDef>	classToOCDMap	= new LinkedHashMap<>();
+		final List<DesignateReader>	designates		= new ArrayList<>();
+
+		MetatypeReader(Analyzer analyzer, Instructions instructions, Set<Options> options, VersionSettings settings) {
+			this.analyzer = analyzer;
+			this.instructions = instructions;
+			this.options = options;
+			this.settings = settings;
+			this.finder = new XMLAttributeFinder(analyzer);
+		}
+
+		@Override
+		public ClassReader<ClassDefs> reader(Clazz c) {
+			for (Instruction instruction : instructions.keySet()) {
+				if (instruction.matches(c.getFQN())) {
+					if (instruction.isNegated()) {
+						return null;
+					}
+					// A class without annotations is neither an OCD nor
+					// designated, so skip visiting its class file
+					if (c.annotations()
+						.isEmpty()) {
+						return null;
+					}
+					OCDReader ocdReader = new OCDReader(analyzer, c, options, finder, settings.minVersion);
+					DesignateReader designateReader = new DesignateReader(analyzer, c, classToOCDMap, finder);
+					List<ClassDataCollector> collectors = List.of(ocdReader.collector(), designateReader);
+					return new ClassReader<>() {
+						@Override
+						public List<? extends ClassDataCollector> collectors() {
+							return collectors;
+						}
+
+						@Override
+						public ClassDefs result() throws Exception {
+							return new ClassDefs(ocdReader.getDef(), designateReader);
+						}
+					};
+				}
+			}
+			return null;
+		}
+
+		@Override
+		public void read(Clazz c, ClassDefs defs) {
+			OCDDef definition = defs.ocd();
+			if (definition != null) {
+				logger.debug("Found OCD class {} with id {}", c, definition.id);
+				classToOCDMap.put(c.getClassName(), definition);
+			}
+			designates.add(defs.designate());
+		}
+	}
+
 	@Override
-	public boolean analyzeJar(Analyzer analyzer) throws Exception {
+	public MetatypeReader getClassspaceReader(Analyzer analyzer) throws Exception {
 		VersionSettings settings = new VersionSettings();
 		Parameters header = OSGiHeader.parseHeader(analyzer.getProperty(Constants.METATYPE_ANNOTATIONS, "*"));
 		logger.debug("Analyzing for Metatype annotations: " + Constants.METATYPE_ANNOTATIONS + ": {}", header);
 		if (header.isEmpty())
-			return false;
+			return null;
 
 		Parameters optionsHeader = OSGiHeader.parseHeader(analyzer.getProperty(Constants.METATYPE_ANNOTATIONS_OPTIONS));
 		Set<Options> options = EnumSet.noneOf(Options.class);
@@ -101,40 +171,26 @@ public class MetatypeAnnotations implements AnalyzerPlugin {
 			}
 		}
 
-		Map<TypeRef, OCDDef> classToOCDMap = new HashMap<>();
-
-		Set<String> ocdIds = new HashSet<>();
-		Set<String> pids = new HashSet<>();
-		Set<String> factoryPids = new HashSet<>();
-
-		Instructions instructions = new Instructions(header);
-
-		XMLAttributeFinder finder = new XMLAttributeFinder(analyzer);
+		return new MetatypeReader(analyzer, new Instructions(header), options, settings);
+	}
 
-		List<Clazz> list = Create.list();
-		for (Clazz c : analyzer.getClassspace()
-			.values()) {
-			for (Instruction instruction : instructions.keySet()) {
-				if (instruction.matches(c.getFQN())) {
-					if (instruction.isNegated()) {
-						break;
-					}
-					list.add(c);
-					OCDDef definition = OCDReader.getOCDDef(c, analyzer, options, finder, settings.minVersion);
-					if (definition != null) {
-						logger.debug("Found OCD class {} with id {}", c, definition.id);
-						classToOCDMap.put(c.getClassName(), definition);
-					}
-					break;
-				}
-			}
-		}
+	@Override
+	public boolean analyzeJar(Analyzer analyzer) throws Exception {
+		MetatypeReader reader = analyzer.readClassspace(this);
+		if (reader == null)
+			return false;
 
 		// process Designate annotations after OCD annotations
-		for (Clazz c : list) {
-			DesignateReader.getDesignate(c, analyzer, classToOCDMap, finder);
+		for (DesignateReader designate : reader.designates) {
+			designate.getDef();
 		}
 
+		Map<TypeRef, OCDDef> classToOCDMap = reader.classToOCDMap;
+
+		Set<String> ocdIds = new HashSet<>();
+		Set<String> pids = new HashSet<>();
+		Set<String> factoryPids = new HashSet<>();
+
 		for (Map.Entry<TypeRef, OCDDef> entry : classToOCDMap.entrySet()) {
 			TypeRef c = entry.getKey();
 			OCDDef definition = entry.getValue();
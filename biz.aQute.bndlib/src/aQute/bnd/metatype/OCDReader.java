@@ -37,7 +37,7 @@ class OCDReader {
 	private final OCDDef		ocd;
 	final XMLAttributeFinder	finder;
 
-	private OCDReader(Analyzer analyzer, Clazz clazz, Set<Options> options, XMLAttributeFinder finder,
+	OCDReader(Analyzer analyzer, Clazz clazz, Set<Options> options, XMLAttributeFinder finder,
 		MetatypeVersion minVersion) {
 		this.analyzer = analyzer;
 		this.clazz = clazz;
@@ -46,14 +46,17 @@ class OCDReader {
 		this.ocd = new OCDDef(finder, minVersion);
 	}
 
-	static OCDDef getOCDDef(Clazz c, Analyzer analyzer, Set<Options> options, XMLAttributeFinder finder,
-		MetatypeVersion minVersion) throws Exception {
-		OCDReader r = new OCDReader(analyzer, c, options, finder, minVersion);
-		return r.getDef();
+	/*
+	 * Answer the collector that parses the class for this reader
+	 */
+	ClassDataCollector collector() {
+		return new OCDDataCollector(ocd);
 	}
 
-	private OCDDef getDef() throws Exception {
-		clazz.parseClassFileWithCollector(new OCDDataCollector(ocd));
+	/*
+	 * Answer the OCD after the class was parsed with the collector
+	 */
+	OCDDef getDef() throws Exception {
 		if (ocd.id == null) {
 			return null;
 		}
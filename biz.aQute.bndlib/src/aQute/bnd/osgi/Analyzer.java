@@ -27,6 +27,7 @@ import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -40,6 +41,10 @@ import java.util.Set;
 import java.util.SortedSet;
 import java.util.StringJoiner;
 import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
 import java.util.function.Predicate;
 import java.util.jar.Attributes;
 import java.util.jar.Attributes.Name;
@@ -63,6 +68,7 @@ import aQute.bnd.header.Attrs;
 import aQute.bnd.header.OSGiHeader;
 import aQute.bnd.header.Parameters;
 import aQute.bnd.http.HttpClient;
+import aQute.bnd.osgi.ClassspaceReader.ClassReader;
 import aQute.bnd.osgi.Clazz.JAVA;
 import aQute.bnd.osgi.Clazz.QUERY;
 import aQute.bnd.osgi.Descriptors.Descriptor;
@@ -72,6 +78,7 @@ import aQute.bnd.service.AnalyzerPlugin;
 import aQute.bnd.service.ManifestPlugin;
 import aQute.bnd.service.OrderedPlugin;
 import aQute.bnd.service.classparser.ClassParser;
+import aQute.bnd.service.classparser.ClassspaceReaderPlugin;
 import aQute.bnd.signatures.ClassSignature;
 import aQute.bnd.signatures.FieldSignature;
 import aQute.bnd.signatures.MethodSignature;
@@ -117,6 +124,7 @@ import aQute.libg.tuple.Pair;
 public class Analyzer extends Processor {
 	private final static Logger						logger					= LoggerFactory.getLogger(Analyzer.class);
 	private final static Version					frameworkR7				= new Version("1.9");
+	private final static int						PARALLEL_CLASSES_PER_WORKER	= 64;
 	private final SortedSet<Clazz.JAVA>				ees						= new TreeSet<>();
 
 	// Bundle parameters
@@ -138,13 +146,17 @@ public class Analyzer extends Processor {
 	private final List<Jar>							classpath				= list();
 	private final Map<TypeRef, Clazz>				classspace				= map();
 	private final Map<TypeRef, Clazz>				lookAsideClasses		= map();
-	private final Map<TypeRef, Clazz>				importedClassesCache	= map();
+	private volatile ImportedClassesCache			importedClassesCache;
+	private ClazzCache								clazzCache;
+	private IncrementalAnalysis						incrementalAnalysis;
 	private boolean									analyzed				= false;
 	private boolean									diagnostics				= false;
 	private boolean									inited					= false;
 	final protected AnalyzerMessages				msgs					= ReporterMessages.base(this,
 		AnalyzerMessages.class);
 	private AnnotationHeaders						annotationHeaders;
+	private List<ClassspaceReaderPlugin<?>>			pendingReaders			= Collections.emptyList();
+	private Map<Object, ClassspaceReader<?>>		classspaceReaders;
 	private final Set<PackageRef>					packagesVisited			= new HashSet<>();
 	private Set<PackageRef>							nonClassReferences		= new HashSet<>();
 	private Set<Check>								checks;
@@ -244,10 +256,19 @@ public class Analyzer extends Processor {
 				// built ins
 				//
 
-				cds.add(annotationHeaders);
+				// The annotated classes that were not read with the analyzer
+				// plugins, like the classes of conditional packages, are read
+				// in parallel before the headers are added in classspace order
+				if (is(PARALLELANALYSIS)) {
+					readClassspace(Collections.singletonList(annotationHeaders));
+				}
 
 				for (Clazz c : classspace.values()) {
-					cds.parse(c);
+					if (annotationHeaders.addHeaders(c)) {
+						cds.parse(c);
+					} else {
+						cds.with(c, annotationHeaders);
+					}
 				}
 			}
 
@@ -445,6 +466,7 @@ public class Analyzer extends Processor {
 		packagesVisited.clear();
 		nonClassReferences.clear();
 		bcpTypes.clear();
+		classspaceReaders = null;
 	}
 
 	private void analyzeContent() throws Exception {
@@ -986,13 +1008,19 @@ public class Analyzer extends Processor {
 	/*
 	 * Call AnalyzerPlugins to analyze the content.
 	 */
+	@SuppressWarnings({
+		"unchecked", "rawtypes"
+	})
 	private void doPlugins() {
+		// The plugins that read the classspace and did not run yet
+		pendingReaders = new ArrayList<>((List) getPlugins(ClassspaceReaderPlugin.class));
 		doPlugins(AnalyzerPlugin.class, (plugin) -> {
 			boolean reanalyze;
 			Processor previous = beginHandleErrors(plugin.toString());
 			try {
 				reanalyze = plugin.analyzeJar(this);
 			} finally {
+				pendingReaders.remove(plugin);
 				endHandleErrors(previous);
 			}
 			if (reanalyze) {
@@ -1013,6 +1041,8 @@ public class Analyzer extends Processor {
 				});
 			}
 		});
+		pendingReaders = Collections.emptyList();
+		classspaceReaders = null;
 	}
 
 	/*
@@ -1602,6 +1632,34 @@ public class Analyzer extends Processor {
 		return dot;
 	}
 
+	/**
+	 * Set the cache used to restore the analysis results of class files
+	 * instead of parsing them.
+	 *
+	 * @param clazzCache the cache or {@code null} to always parse class files
+	 */
+	public void setClazzCache(ClazzCache clazzCache) {
+		this.clazzCache = clazzCache;
+	}
+
+	public ClazzCache getClazzCache() {
+		return clazzCache;
+	}
+
+	/**
+	 * Set the state of the previous analysis of the jar so only the classes
+	 * that were added or changed since then are parsed.
+	 *
+	 * @param incrementalAnalysis the state or {@code null} to parse all classes
+	 */
+	public void setIncrementalAnalysis(IncrementalAnalysis incrementalAnalysis) {
+		this.incrementalAnalysis = incrementalAnalysis;
+	}
+
+	public IncrementalAnalysis getIncrementalAnalysis() {
+		return incrementalAnalysis;
+	}
+
 	public Packages getReferred() {
 		return referred;
 	}
@@ -2579,6 +2637,8 @@ public class Analyzer extends Processor {
 			}
 		}
 
+		// the state belongs to the caller, like the project
+		incrementalAnalysis = null;
 		super.close();
 	}
 
@@ -2767,6 +2827,11 @@ public class Analyzer extends Processor {
 				}
 			}
 		}
+
+		if (incrementalAnalysis != null) {
+			incrementalAnalysis.retain(dot.getResources()
+				.keySet());
+		}
 	}
 
 	/**
@@ -2783,6 +2848,8 @@ public class Analyzer extends Processor {
 			.map(Domain::getImportPackage)
 			.orElseGet(() -> new Parameters());
 
+		Map<String, Object> parsed = is(PARALLELANALYSIS) ? parseClassFiles(jar, prefix) : Collections.emptyMap();
+
 		next: for (String path : jar.getResources()
 			.keySet()) {
 			if (path.startsWith(prefix)) {
@@ -2807,8 +2874,14 @@ public class Analyzer extends Processor {
 					Clazz clazz;
 
 					try {
-						clazz = new Clazz(this, path, resource);
-						clazz.parseClassFile();
+						Object result = parsed.get(path);
+						if (result instanceof Clazz parsedClazz) {
+							clazz = parsedClazz;
+						} else if (result instanceof Exception parseException) {
+							throw parseException;
+						} else {
+							clazz = parseClass(jar, path, resource);
+						}
 					} catch (Exception e) {
 						exception(e, "Invalid class file %s (%s)", relativePath, e);
 						continue next;
@@ -2859,6 +2932,236 @@ public class Analyzer extends Processor {
 		return true;
 	}
 
+	/**
+	 * Parse a class file or restore it from the {@link ClazzCache} when set.
+	 */
+	private Clazz parseClass(String path, Resource resource) throws Exception {
+		return parseClass(null, path, resource);
+	}
+
+	/**
+	 * Parse a class file of the jar. The previous analysis is reused for the
+	 * unchanged classes of the analyzed jar when incremental analysis is set.
+	 */
+	private Clazz parseClass(Jar jar, String path, Resource resource) throws Exception {
+		Clazz clazz = new Clazz(this, path, resource);
+		if ((incrementalAnalysis != null) && (jar != null) && (jar == dot)) {
+			incrementalAnalysis.parse(clazz, this, clazzCache);
+		} else if (clazzCache != null) {
+			clazzCache.parse(clazz, this);
+		} else {
+			clazz.parseClassFile();
+		}
+		return clazz;
+	}
+
+	/**
+	 * Parse the class files in the jar below the prefix on the bnd executor.
+	 * The returned map holds, for each class path, the parsed {@link Clazz} or
+	 * the {@link Exception} thrown when parsing it. A class path without an
+	 * entry must be parsed by the caller. Merging the results into the
+	 * analyzer state is left to the caller, which processes them in the jar's
+	 * resource order, so the analysis does not depend on thread scheduling.
+	 */
+	private Map<String, Object> parseClassFiles(Jar jar, String prefix) throws InterruptedException {
+		List<String> paths = jar.getResources()
+			.keySet()
+			.stream()
+			.filter(path -> path.startsWith(prefix) && path.endsWith(".class")
+				&& !path.startsWith("META-INF/", prefix.length()))
+			.collect(toList());
+		int size = paths.size();
+		Object[] results = new Object[size];
+		boolean parallel = parallel(size, i -> {
+			String path = paths.get(i);
+			try {
+				Clazz clazz = parseClass(jar, path, jar.getResource(path));
+				// Proxy creators depend on the classes analyzed before
+				// them, so they are parsed again in order by the caller
+				if (!clazz.isProxyCreator()) {
+					results[i] = clazz;
+				}
+			} catch (Exception e) {
+				results[i] = e;
+			}
+		});
+		if (!parallel) {
+			return Collections.emptyMap();
+		}
+
+		Map<String, Object> parsed = new HashMap<>(size * 2);
+		for (int i = 0; i < size; i++) {
+			if (results[i] != null) {
+				parsed.put(paths.get(i), results[i]);
+			}
+		}
+		return parsed;
+	}
+
+	/**
+	 * Read the classspace for an analyzer plugin. The first time a plugin
+	 * reads the classspace, the classes are read with the readers of all the
+	 * plugins that did not run yet, and for the annotation headers, so the
+	 * class file of each class is visited once for all of them.
+	 *
+	 * @param plugin the plugin
+	 * @return the reader of the plugin after it read the classspace, or
+	 *         {@code null} if the plugin does not read any classes
+	 * @see ClassspaceReader
+	 */
+	@SuppressWarnings("unchecked")
+	public <R extends ClassspaceReader<?>> R readClassspace(ClassspaceReaderPlugin<R> plugin) throws Exception {
+		Map<Object, ClassspaceReader<?>> readers = classspaceReaders;
+		if ((readers == null) || !readers.containsKey(plugin)) {
+			readers = new LinkedHashMap<>();
+			readers.put(plugin, plugin.getClassspaceReader(this));
+			// Only while the analyzer plugins run, the classes are also read
+			// for the plugins that did not run yet and the annotation headers
+			boolean running = pendingReaders.contains(plugin);
+			if (running) {
+				for (ClassspaceReaderPlugin<?> pending : pendingReaders) {
+					if (!readers.containsKey(pending)) {
+						try {
+							readers.put(pending, pending.getClassspaceReader(this));
+						} catch (Exception e) {
+							// reported when the plugin runs
+							logger.debug("Unable to get the classspace reader of {}", pending, e);
+						}
+					}
+				}
+			}
+			List<ClassspaceReader<?>> read = readers.values()
+				.stream()
+				.filter(Objects::nonNull)
+				.collect(toCollection(ArrayList::new));
+			if (running) {
+				read.add(annotationHeaders);
+			}
+			readClassspace(read);
+			classspaceReaders = readers;
+		}
+		return (R) readers.remove(plugin);
+	}
+
+	/**
+	 * Read the classes of the classspace with the readers. The class file of
+	 * each class is visited once for all the readers. With
+	 * {@code -parallelanalysis}, the classes are read on the bnd executor. The
+	 * results are passed to the readers in classspace order on the current
+	 * thread.
+	 */
+	@SuppressWarnings("unchecked")
+	private void readClassspace(List<ClassspaceReader<?>> readers) throws Exception {
+		List<Clazz> classes = new ArrayList<>(classspace.values());
+		int size = classes.size();
+		Object[][] results = new Object[size][];
+		IntConsumer task = i -> results[i] = readClass(classes.get(i), readers);
+		if (!is(PARALLELANALYSIS) || !parallel(size, task)) {
+			for (int i = 0; i < size; i++) {
+				task.accept(i);
+			}
+		}
+
+		for (int i = 0; i < size; i++) {
+			if (results[i] == null) {
+				continue;
+			}
+			for (int r = 0; r < readers.size(); r++) {
+				Object result = results[i][r];
+				if (result != null) {
+					ClassspaceReader<Object> reader = (ClassspaceReader<Object>) readers.get(r);
+					try {
+						reader.read(classes.get(i), result);
+					} catch (Exception e) {
+						exception(e, "Failed to read class %s for %s: %s", classes.get(i), reader, e);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Read a class with the readers.
+	 *
+	 * @return the results of the readers or {@code null} if no reader read
+	 *         the class
+	 */
+	private Object[] readClass(Clazz clazz, List<ClassspaceReader<?>> readers) {
+		ClassReader<?>[] classReaders = new ClassReader<?>[readers.size()];
+		ClassDataCollectors cds = new ClassDataCollectors(this);
+		for (int r = 0; r < readers.size(); r++) {
+			try {
+				ClassReader<?> classReader = readers.get(r)
+					.reader(clazz);
+				if (classReader != null) {
+					classReader.collectors()
+						.forEach(cds::add);
+					classReaders[r] = classReader;
+				}
+			} catch (Exception e) {
+				exception(e, "Failed to read class %s for %s: %s", clazz, readers.get(r), e);
+			}
+		}
+		if (cds.delegates.isEmpty()) {
+			return null;
+		}
+
+		try {
+			cds.parse(clazz);
+		} catch (Exception e) {
+			exception(e, "Failed to read class %s: %s", clazz, e);
+			return null;
+		}
+		Object[] results = new Object[readers.size()];
+		for (int r = 0; r < readers.size(); r++) {
+			if (classReaders[r] != null) {
+				try {
+					results[r] = classReaders[r].result();
+				} catch (Exception e) {
+					exception(e, "Failed to read class %s for %s: %s", clazz, readers.get(r), e);
+				}
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Run the task for each index from 0 to size - 1 on the bnd executor. The
+	 * current thread is one of the workers.
+	 *
+	 * @return {@code false} if there are too few indexes to be worth running
+	 *         in parallel, the task was not run
+	 */
+	private static boolean parallel(int size, IntConsumer task) throws InterruptedException {
+		int workers = Math.min(Runtime.getRuntime()
+			.availableProcessors(), size / PARALLEL_CLASSES_PER_WORKER);
+		if (workers < 2) {
+			return false;
+		}
+
+		AtomicInteger next = new AtomicInteger();
+		Runnable worker = () -> {
+			for (int i; (i = next.getAndIncrement()) < size;) {
+				task.accept(i);
+			}
+		};
+
+		CountDownLatch done = new CountDownLatch(workers - 1);
+		Executor executor = getExecutor();
+		for (int w = 1; w < workers; w++) {
+			executor.execute(() -> {
+				try {
+					worker.run();
+				} finally {
+					done.countDown();
+				}
+			});
+		}
+		worker.run();
+		done.await();
+		return true;
+	}
+
 	/**
 	 * Clean up version parameters. Other builders use more fuzzy definitions of
 	 * the version syntax. This method cleans up such a version to match an OSGi
@@ -3191,7 +3494,8 @@ public class Analyzer extends Processor {
 		if (c != null)
 			return c;
 
-		c = importedClassesCache.get(typeRef);
+		ImportedClassesCache cache = importedClassesCache();
+		c = cache.get(typeRef);
 		if (c != null)
 			return c;
 
@@ -3207,13 +3511,39 @@ public class Analyzer extends Processor {
 				r = Resource.fromURL(url, getPlugin(HttpClient.class));
 		}
 		if (r != null) {
-			c = new Clazz(this, typeRef.getPath(), r);
-			c.parseClassFile();
-			importedClassesCache.put(typeRef, c);
+			c = parseClass(typeRef.getPath(), r);
+			cache.put(typeRef, c);
 		}
 		return c;
 	}
 
+	/*
+	 * The cache is reached concurrently from the class parsing of
+	 * -parallelanalysis, so it is created at most once.
+	 */
+	ImportedClassesCache importedClassesCache() {
+		ImportedClassesCache cache = importedClassesCache;
+		if (cache == null) {
+			synchronized (this) {
+				cache = importedClassesCache;
+				if (cache == null) {
+					int maximum = ImportedClassesCache.DEFAULT_MAXIMUM;
+					String value = getProperty(IMPORTEDCLASSESCACHE);
+					if (value != null) {
+						try {
+							maximum = Integer.parseInt(value.trim());
+						} catch (NumberFormatException e) {
+							error("Invalid %s value %s, expected the maximum number of classes",
+								IMPORTEDCLASSESCACHE, value).header(IMPORTEDCLASSESCACHE);
+						}
+					}
+					importedClassesCache = cache = new ImportedClassesCache(maximum);
+				}
+			}
+		}
+		return cache;
+	}
+
 	/**
 	 * Answer the bundle version.
 	 */
@@ -3752,6 +4082,9 @@ public class Analyzer extends Processor {
 		table.put("Referred", getReferred().entrySet());
 		table.put("Bundle Symbolic Name", getBsn());
 		table.put("Execution Environments", ees);
+		if (importedClassesCache != null) {
+			table.put("Imported Classes Cache", importedClassesCache);
+		}
 	}
 
 	/**
@@ -9,9 +9,12 @@ import java.lang.annotation.Target;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
@@ -84,7 +87,7 @@ import aQute.lib.strings.Strings;
  *
  * {@link About} provides some more information.
  */
-class AnnotationHeaders extends ClassDataCollector implements Closeable {
+class AnnotationHeaders extends ClassDataCollector implements ClassspaceReader<List<Annotation>>, Closeable {
 
 	private static final Logger		logger	= LoggerFactory.getLogger(AnnotationHeaders.class);
 
@@ -173,6 +176,8 @@ class AnnotationHeaders extends ClassDataCollector implements Closeable {
 
 	boolean								finalizing;
 
+	final Map<Clazz, List<Annotation>>	classAnnotations			= new HashMap<>();
+
 	static String convert(Object value) {
 		try {
 			return CONVERTER.convert(String.class, value);
@@ -193,12 +198,73 @@ class AnnotationHeaders extends ClassDataCollector implements Closeable {
 		this.instructions = instructions;
 	}
 
+	/*
+	 * Only collect the annotations of the class, they are processed by
+	 * addHeaders in classspace order after the analyzer plugins ran
+	 */
+	@Override
+	public ClassReader<List<Annotation>> reader(Clazz c) {
+		if (classAnnotations.containsKey(c) || !isAnnotated(c)) {
+			return null;
+		}
+		List<Annotation> annotations = new ArrayList<>();
+		ClassDataCollector collector = new ClassDataCollector() {
+			@Override
+			public void annotation(Annotation annotation) {
+				annotations.add(annotation);
+			}
+		};
+		return new ClassReader<>() {
+			@Override
+			public List<? extends ClassDataCollector> collectors() {
+				return Collections.singletonList(collector);
+			}
+
+			@Override
+			public List<Annotation> result() {
+				return annotations;
+			}
+		};
+	}
+
+	@Override
+	public void read(Clazz c, List<Annotation> annotations) {
+		classAnnotations.put(c, annotations);
+	}
+
+	/**
+	 * Add the headers of the annotations of a class that was read as a
+	 * {@link ClassspaceReader}.
+	 *
+	 * @param c the class
+	 * @return {@code false} if the class was not read
+	 */
+	boolean addHeaders(Clazz c) throws Exception {
+		List<Annotation> annotations = classAnnotations.get(c);
+		if (annotations == null) {
+			return false;
+		}
+		current = c;
+		try {
+			for (Annotation annotation : annotations) {
+				annotation(annotation);
+			}
+		} finally {
+			classEnd();
+		}
+		return true;
+	}
+
 	@Override
 	public boolean classStart(Clazz c) {
+		current = c;
+		return isAnnotated(c);
+	}
+
+	private boolean isAnnotated(Clazz c) {
 		//
 		// Parse any annotated classes except annotations
 		//
-		current = c;
 		if (!c.isAnnotation() && !c.annotations()
 			.isEmpty()) {
 
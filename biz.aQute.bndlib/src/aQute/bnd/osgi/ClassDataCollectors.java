@@ -30,7 +30,12 @@ class ClassDataCollectors implements Closeable {
 	}
 
 	void parse(Clazz clazz) throws Exception {
-		clazz.parseClassFileWithCollector(new Collectors(clazz));
+		Collectors collectors = new Collectors(clazz);
+		// Only parse the class file, which may have been restored from a
+		// previous analysis, when a collector wants to visit the class
+		if (collectors.classStart(clazz)) {
+			clazz.parseClassFileWithCollector(collectors);
+		}
 	}
 
 	void with(Clazz clazz, ClassDataCollector cd) throws Exception {
@@ -58,6 +63,7 @@ class ClassDataCollectors implements Closeable {
 	private class Collectors extends ClassDataCollector {
 		private final Clazz						clazz;
 		private final List<ClassDataCollector>	shortlist;
+		private boolean							started;
 
 		Collectors(Clazz clazz) {
 			this.clazz = clazz;
@@ -95,6 +101,9 @@ class ClassDataCollectors implements Closeable {
 
 		@Override
 		public boolean classStart(Clazz clazz) {
+			if (started) {
+				return true;
+			}
 			boolean start = false;
 			for (Iterator<ClassDataCollector> iter = shortlist.iterator(); iter.hasNext();) {
 				ClassDataCollector cd = iter.next();
@@ -108,7 +117,7 @@ class ClassDataCollectors implements Closeable {
 					reporter.exception(e, "Failure for %s on call classStart[%s]", clazz, cd);
 				}
 			}
-			return start;
+			return started = start;
 		}
 
 		@Override
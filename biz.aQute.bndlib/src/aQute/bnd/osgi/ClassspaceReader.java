@@ -0,0 +1,56 @@
+package aQute.bnd.osgi;
+
+import java.util.List;
+
+/**
+ * Reads the classes of the classspace of an {@link Analyzer}. The analyzer
+ * visits the class file of each class once for all its readers, see
+ * {@link Analyzer#readClassspace(aQute.bnd.service.classparser.ClassspaceReaderPlugin)}.
+ * With {@link Constants#PARALLELANALYSIS} the classes are read concurrently, so
+ * {@link #reader(Clazz)} and the methods of the class readers can be called
+ * concurrently for different classes. The results are then passed to
+ * {@link #read(Clazz, Object)} one at a time, in the order of the classspace.
+ *
+ * @param <T> the type of the result of reading a class
+ */
+public interface ClassspaceReader<T> {
+
+	/**
+	 * Reads a single class.
+	 *
+	 * @param <T> the type of the result of reading the class
+	 */
+	interface ClassReader<T> {
+		/**
+		 * Answer the collectors that visit the class file of the class.
+		 */
+		List<? extends ClassDataCollector> collectors();
+
+		/**
+		 * Answer the result of reading the class. Called on the thread that
+		 * visited the class file, after the collectors visited it.
+		 *
+		 * @return the result or {@code null} if the class has no result
+		 * @throws Exception
+		 */
+		T result() throws Exception;
+	}
+
+	/**
+	 * Answer the reader of a class.
+	 *
+	 * @param clazz the class
+	 * @return the reader or {@code null} if the class is not read
+	 * @throws Exception
+	 */
+	ClassReader<T> reader(Clazz clazz) throws Exception;
+
+	/**
+	 * Receive the result of reading a class.
+	 *
+	 * @param clazz the class
+	 * @param result the result of its reader, not {@code null}
+	 * @throws Exception
+	 */
+	void read(Clazz clazz, T result) throws Exception;
+}
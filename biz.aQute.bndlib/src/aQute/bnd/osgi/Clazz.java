@@ -19,6 +19,7 @@ import static java.util.stream.Collectors.toSet;
 
 import java.io.DataInput;
 import java.io.DataInputStream;
+import java.io.DataOutput;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.annotation.RetentionPolicy;
@@ -44,6 +45,7 @@ import java.util.Spliterators.AbstractSpliterator;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -489,6 +491,11 @@ public class Clazz {
 			type = analyzer.getTypeRef(classFile.this_class);
 		}
 
+		ClassDef(int access, TypeRef type) {
+			super(access, new Attribute[0]);
+			this.type = type;
+		}
+
 		String getSourceFile() {
 			return attribute(SourceFileAttribute.class).map(a -> a.sourcefile)
 				.orElse(null);
@@ -773,7 +780,10 @@ public class Clazz {
 	}
 
 	public static final Comparator<Clazz>	NAME_COMPARATOR					= (Clazz a,
-		Clazz b) -> a.classFile.this_class.compareTo(b.classFile.this_class);
+		Clazz b) -> a.getClassName()
+			.getBinary()
+			.compareTo(b.getClassName()
+				.getBinary());
 
 	private boolean							hasRuntimeAnnotations;
 	private boolean							hasClassAnnotations;
@@ -789,6 +799,15 @@ public class Clazz {
 
 	private ClassFile						classFile						= null;
 	private ConstantPool					constantPool					= null;
+	private int								majorVersion;
+	private int								minorVersion;
+	/**
+	 * Set when the analysis results were restored from a {@link ClazzCache}.
+	 * The class file is then only parsed when information is needed that is
+	 * not part of the cached results.
+	 */
+	private boolean							restored;
+	private boolean							innerClass;
 	TypeRef									superClass;
 	private TypeRef[]						interfaces;
 	ClassDef								classDef;
@@ -846,6 +865,8 @@ public class Clazz {
 		classFile = ClassFile.parseClassFile(in);
 		classDef = new ClassDef(classFile);
 		constantPool = classFile.constant_pool;
+		majorVersion = classFile.major_version;
+		minorVersion = classFile.minor_version;
 		referred = new HashMap<>(constantPool.size());
 
 		if (classDef.isPublic()) {
@@ -994,15 +1015,156 @@ public class Clazz {
 	}
 
 	public Stream<FieldDef> fields() {
-		return Arrays.stream(classFile.fields)
+		return Arrays.stream(parsedClassFile().fields)
 			.map(FieldDef::new);
 	}
 
 	public Stream<MethodDef> methods() {
-		return Arrays.stream(classFile.methods)
+		return Arrays.stream(parsedClassFile().methods)
 			.map(MethodDef::new);
 	}
 
+	/**
+	 * Answer whether the class file was parsed. Only the cached analysis
+	 * results are available for a class restored from a previous analysis.
+	 */
+	boolean hasClassFile() {
+		return classFile != null;
+	}
+
+	/**
+	 * Answer the class file, parsing it if only the cached analysis results
+	 * were restored.
+	 */
+	private ClassFile parsedClassFile() {
+		if (classFile == null) {
+			try {
+				parseClassFile();
+			} catch (Exception e) {
+				throw Exceptions.duck(e);
+			}
+		}
+		return classFile;
+	}
+
+	private ClassDef parsedClassDef() {
+		parsedClassFile();
+		return classDef;
+	}
+
+	/**
+	 * Write the analysis results of this parsed class so they can be restored
+	 * with {@link #restore(DataInput)} without parsing the class file.
+	 */
+	void store(DataOutput out) throws IOException {
+		out.writeInt(classDef.getAccess());
+		out.writeUTF(classDef.getType()
+			.getBinary());
+		out.writeShort(majorVersion);
+		out.writeShort(minorVersion);
+		out.writeBoolean(classDef.isInnerClass());
+		out.writeBoolean(hasRuntimeAnnotations);
+		out.writeBoolean(hasClassAnnotations);
+		out.writeBoolean(hasDefaultConstructor);
+		writeTypeRef(out, superClass);
+		writeTypeRefs(out, (interfaces != null) ? Arrays.asList(interfaces) : null);
+		writeTypeRefs(out, xref);
+		writeTypeRefs(out, annotations);
+		writePackageRefs(out, imports);
+		writePackageRefs(out, api);
+	}
+
+	/**
+	 * Restore the analysis results written by {@link #store(DataOutput)}. This
+	 * object is not modified if the input cannot be read.
+	 */
+	synchronized void restore(DataInput in) throws IOException {
+		int access = in.readInt();
+		TypeRef type = analyzer.getTypeRef(in.readUTF());
+		int major = in.readUnsignedShort();
+		int minor = in.readUnsignedShort();
+		boolean inner = in.readBoolean();
+		boolean runtimeAnnotations = in.readBoolean();
+		boolean classAnnotations = in.readBoolean();
+		boolean defaultConstructor = in.readBoolean();
+		TypeRef superType = readTypeRef(in);
+		List<TypeRef> interfaceList = readTypeRefs(in, ArrayList::new);
+		Set<TypeRef> xrefs = readTypeRefs(in, HashSet::new);
+		Set<TypeRef> annotationTypes = readTypeRefs(in, HashSet::new);
+		Set<PackageRef> importRefs = readPackageRefs(in, Create::set);
+		Set<PackageRef> apiRefs = readPackageRefs(in, HashSet::new);
+
+		classDef = new ClassDef(access, type);
+		majorVersion = major;
+		minorVersion = minor;
+		innerClass = inner;
+		hasRuntimeAnnotations = runtimeAnnotations;
+		hasClassAnnotations = classAnnotations;
+		hasDefaultConstructor = defaultConstructor;
+		superClass = superType;
+		interfaces = (interfaceList != null) ? interfaceList.toArray(new TypeRef[0]) : null;
+		xref = xrefs;
+		annotations = annotationTypes;
+		imports = importRefs;
+		api = apiRefs;
+		restored = true;
+	}
+
+	private static void writeTypeRef(DataOutput out, TypeRef typeRef) throws IOException {
+		out.writeUTF((typeRef != null) ? typeRef.getBinary() : "");
+	}
+
+	private TypeRef readTypeRef(DataInput in) throws IOException {
+		String binary = in.readUTF();
+		return binary.isEmpty() ? null : analyzer.getTypeRef(binary);
+	}
+
+	private static void writeTypeRefs(DataOutput out, Collection<TypeRef> typeRefs) throws IOException {
+		if (typeRefs == null) {
+			out.writeInt(-1);
+			return;
+		}
+		out.writeInt(typeRefs.size());
+		for (TypeRef typeRef : typeRefs) {
+			out.writeUTF(typeRef.getBinary());
+		}
+	}
+
+	private <C extends Collection<TypeRef>> C readTypeRefs(DataInput in, Supplier<C> factory) throws IOException {
+		int size = in.readInt();
+		if (size < 0) {
+			return null;
+		}
+		C typeRefs = factory.get();
+		for (int i = 0; i < size; i++) {
+			typeRefs.add(analyzer.getTypeRef(in.readUTF()));
+		}
+		return typeRefs;
+	}
+
+	private static void writePackageRefs(DataOutput out, Set<PackageRef> packageRefs) throws IOException {
+		if (packageRefs == null) {
+			out.writeInt(-1);
+			return;
+		}
+		out.writeInt(packageRefs.size());
+		for (PackageRef packageRef : packageRefs) {
+			out.writeUTF(packageRef.getBinary());
+		}
+	}
+
+	private Set<PackageRef> readPackageRefs(DataInput in, Supplier<Set<PackageRef>> factory) throws IOException {
+		int size = in.readInt();
+		if (size < 0) {
+			return null;
+		}
+		Set<PackageRef> packageRefs = factory.get();
+		for (int i = 0; i < size; i++) {
+			packageRefs.add(analyzer.getPackageRef(in.readUTF()));
+		}
+		return packageRefs;
+	}
+
 	/**
 	 * Find a method reference in the pool that points to the given class,
 	 * methodname and descriptor.
@@ -1912,7 +2074,7 @@ public class Clazz {
 			}
 			case VERSION -> {
 				requireNonNull(instr);
-				String v = classFile.major_version + "." + classFile.minor_version;
+				String v = majorVersion + "." + minorVersion;
 				yield instr.matches(v) ^ instr.isNegated();
 			}
 			case IMPLEMENTS -> {
@@ -2024,7 +2186,7 @@ public class Clazz {
 	}
 
 	public JAVA getFormat() {
-		return JAVA.format(classFile.major_version);
+		return JAVA.format(majorVersion);
 
 	}
 
@@ -2098,16 +2260,25 @@ public class Clazz {
 		return hasDefaultConstructor;
 	}
 
+	/**
+	 * Answer if this class calls {@code Proxy.newProxyInstance}. The parse of
+	 * such a class looks up the proxy interfaces through the analyzer, so its
+	 * result depends on the classes the analyzer already knows.
+	 */
+	boolean isProxyCreator() {
+		return newProxyInstance > 0;
+	}
+
 	public int getAccess() {
 		return classDef.getAccess();
 	}
 
 	public Stream<Annotation> annotations(String binaryNameFilter) {
-		return classDef.annotations(binaryNameFilter);
+		return parsedClassDef().annotations(binaryNameFilter);
 	}
 
 	public Stream<TypeAnnotation> typeAnnotations(String binaryNameFilter) {
-		return classDef.typeAnnotations(binaryNameFilter);
+		return parsedClassDef().typeAnnotations(binaryNameFilter);
 	}
 
 	public TypeRef getClassName() {
@@ -2115,7 +2286,7 @@ public class Clazz {
 	}
 
 	public boolean isInnerClass() {
-		return classDef.isInnerClass();
+		return restored ? innerClass : classDef.isInnerClass();
 	}
 
 	public TypeRef getSuper() {
@@ -2143,7 +2314,7 @@ public class Clazz {
 	}
 
 	public boolean isDeprecated() {
-		return classDef.isDeprecated();
+		return parsedClassDef().isDeprecated();
 	}
 
 	public boolean isAnnotation() {
@@ -2213,11 +2384,11 @@ public class Clazz {
 	}
 
 	public String getClassSignature() {
-		return classDef.getSignature();
+		return parsedClassDef().getSignature();
 	}
 
 	public String getSourceFile() {
-		return classDef.getSourceFile();
+		return parsedClassDef().getSourceFile();
 	}
 
 	public Map<String, Object> getDefaults() throws Exception {
@@ -0,0 +1,146 @@
+package aQute.bnd.osgi;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import aQute.lib.io.IO;
+import aQute.libg.cryptography.SHA256;
+
+/**
+ * A persistent cache of class file analysis results.
+ * <p>
+ * Entries are keyed by the SHA-256 of the class file bytes so the cache can be
+ * shared between builds and projects. An entry holds the results of
+ * {@link Clazz#parseClassFile()} that the {@link Analyzer} needs to calculate
+ * the manifest. Anything else, like annotations or members, is parsed from the
+ * class file on demand.
+ * <p>
+ * Entries are written to a temporary file and then renamed, so concurrent
+ * builds never see partially written entries. Entries that cannot be read are
+ * ignored and the class file is parsed.
+ */
+public class ClazzCache {
+	private final static Logger	logger	= LoggerFactory.getLogger(ClazzCache.class);
+	/**
+	 * Change when the stored format of {@link Clazz#store(java.io.DataOutput)}
+	 * changes.
+	 */
+	private final static int	FORMAT	= 1;
+	private final File			dir;
+	private final LongAdder		hits	= new LongAdder();
+	private final LongAdder		misses	= new LongAdder();
+
+	public ClazzCache(File dir) {
+		this.dir = dir;
+	}
+
+	public File getDirectory() {
+		return dir;
+	}
+
+	public long getHits() {
+		return hits.sum();
+	}
+
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * Parse the class or restore it from the cache.
+	 */
+	void parse(Clazz clazz, Analyzer analyzer) throws Exception {
+		parse(clazz, analyzer, digest(clazz.getResource()));
+	}
+
+	/**
+	 * Parse the class or restore it from the cache.
+	 *
+	 * @param digest the SHA-256 digest of the class file
+	 */
+	void parse(Clazz clazz, Analyzer analyzer, byte[] digest) throws Exception {
+		File entry = entry(digest, analyzer);
+		if (entry.isFile() && restore(clazz, entry)) {
+			hits.increment();
+			return;
+		}
+		misses.increment();
+		clazz.parseClassFile();
+		if (!clazz.isProxyCreator()) {
+			store(clazz, entry);
+		}
+	}
+
+	private File entry(byte[] digest, Analyzer analyzer) {
+		String hex = new SHA256(digest).asHex();
+		return new File(dir, hex.substring(0, 2) + "/" + hex + "." + flags(analyzer));
+	}
+
+	/**
+	 * Answer the SHA-256 digest of the content of a resource.
+	 */
+	static byte[] digest(Resource resource) throws Exception {
+		ByteBuffer bb = resource.buffer();
+		if (bb != null) {
+			MessageDigest md = MessageDigest.getInstance(SHA256.ALGORITHM);
+			md.update(bb.duplicate());
+			return md.digest();
+		}
+		try (InputStream in = resource.openInputStream()) {
+			return SHA256.digest(in)
+				.digest();
+		}
+	}
+
+	/**
+	 * Answer the instructions of the analyzer that the analysis results depend
+	 * on.
+	 */
+	static int flags(Analyzer analyzer) {
+		return (analyzer.is(Constants.NOCLASSFORNAME) ? 1 : 0) | (analyzer.is(Constants.NOPROXYINTERFACES) ? 2 : 0);
+	}
+
+	private boolean restore(Clazz clazz, File entry) {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(IO.stream(entry)))) {
+			if (in.readInt() != FORMAT) {
+				return false;
+			}
+			clazz.restore(in);
+			return true;
+		} catch (Exception e) {
+			logger.debug("Unable to restore {} from {}", clazz, entry, e);
+			return false;
+		}
+	}
+
+	private void store(Clazz clazz, File entry) {
+		File tmp = null;
+		try {
+			File parent = IO.mkdirs(entry.getParentFile());
+			tmp = IO.createTempFile(parent, entry.getName(), ".tmp");
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(IO.outputStream(tmp)))) {
+				out.writeInt(FORMAT);
+				clazz.store(out);
+			}
+			IO.rename(tmp, entry);
+			tmp = null;
+		} catch (IOException e) {
+			logger.debug("Unable to store {} in {}", clazz, entry, e);
+		} finally {
+			if (tmp != null) {
+				IO.delete(tmp);
+			}
+		}
+	}
+}
@@ -120,6 +120,8 @@ public interface Constants {
 	String		CONDITIONALPACKAGE							= "-conditionalpackage";
 	String		CONNECTION_SETTINGS							= "-connection-settings";
 	String		CONNECTION_LOG								= "-connection-log";
+	String		CONNECTION_HTTP2							= "-connection-http2";
+	String		CONNECTION_PARALLEL_RANGES					= "-connection-parallel-ranges";
 
 	String		COMPRESSION									= "-compression";
 	String		DIFFIGNORE									= "-diffignore";
@@ -203,6 +205,11 @@ public interface Constants {
 	String		NOSUBSTITUTION								= "-nosubstitution";
 	String		NOBUNDLES									= "-nobundles";
 	String		NOPARALLEL									= "-noparallel";
+	String		PARALLELANALYSIS							= "-parallelanalysis";
+	String		CLASSCACHE									= "-classcache";
+	String		PARALLELDEFLATE								= "-paralleldeflate";
+	String		INCREMENTALANALYSIS							= "-incrementalanalysis";
+	String		IMPORTEDCLASSESCACHE						= "-importedclassescache";
 	String		OUTPUTMASK									= "-outputmask";																																						// default
 																																																									// ${@bsn}.jar
 
@@ -348,11 +355,11 @@ public interface Constants {
 		RUNREQUIRES, EXPORT, GESTALT, BNDDRIVER, CHECK, DISTRO, METATYPE_ANNOTATIONS, METATYPE_ANNOTATIONS_OPTIONS,
 		PACKAGEINFOTYPE, JAVAC_SOURCE, JAVAC_TARGET, JAVAC_PROFILE, JAVAC, JAVA, JAVA_DEBUG, EXPORTTYPE, RUNREMOTE,
 		TESTER, AUGMENT, REQUIRE_BND, GROUPID, STANDALONE, IGNORE_STANDALONE, RUNREPOS, INIT, MAVEN_RELEASE, BUILDREPO,
-		CONNECTION_SETTINGS, RUNPROVIDEDCAPABILITIES, WORKINGSET, RUNSTORAGE, REPRODUCIBLE, INCLUDEPACKAGE,
+		CONNECTION_SETTINGS, CONNECTION_HTTP2, CONNECTION_PARALLEL_RANGES, RUNPROVIDEDCAPABILITIES, WORKINGSET, RUNSTORAGE, REPRODUCIBLE, INCLUDEPACKAGE,
 		CDIANNOTATIONS, REMOTEWORKSPACE, MAVEN_DEPENDENCIES, BUILDERIGNORE, STALECHECK, MAVEN_SCOPE, RUNSTARTLEVEL,
 		RUNOPTIONS, NOCLASSFORNAME, NOPROXYINTERFACES, EXPORT_APIGUARDIAN, RESOLVE, DEFINE_CONTRACT, GENERATE,
-		RUNFRAMEWORKRESTART,
-		NOIMPORTJAVA, NOSUBSTITUTION, VERSIONDEFAULTS, LIBRARY, METAINF_SERVICES);
+		RUNFRAMEWORKRESTART, PARALLELANALYSIS, CLASSCACHE, PARALLELDEFLATE, INCREMENTALANALYSIS,
+		IMPORTEDCLASSESCACHE, NOIMPORTJAVA, NOSUBSTITUTION, VERSIONDEFAULTS, LIBRARY, METAINF_SERVICES);
 
 	// Ignore bundle specific headers. These headers do not make a lot of sense
 	// to inherit
@@ -3,10 +3,10 @@ package aQute.bnd.osgi;
 import static java.util.Objects.requireNonNull;
 
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.osgi.annotation.versioning.ProviderType;
 
@@ -14,42 +14,51 @@ import aQute.bnd.result.Result;
 import aQute.bnd.signatures.ClassSignature;
 import aQute.bnd.signatures.FieldSignature;
 import aQute.bnd.signatures.MethodSignature;
+import aQute.lib.collections.WeakInterner;
 import aQute.libg.generics.Create;
 
+/**
+ * The caches are concurrent since class files can be parsed in parallel, see
+ * {@link Constants#PARALLELANALYSIS}.
+ * <p>
+ * {@link TypeRef}s and {@link PackageRef}s are immutable and compared by
+ * identity, so they are interned in tables shared by all instances. The refs
+ * are weakly held by the tables, a ref is dropped when no analyzer uses it
+ * anymore.
+ */
 public class Descriptors {
-	private final Map<String, TypeRef>			typeRefCache			= new HashMap<>();
-	private final Map<String, Descriptor>		descriptorCache			= new HashMap<>();
-	private final Map<String, PackageRef>		packageRefCache			= new HashMap<>();
-	private final Map<String, ClassSignature>	classSignatureCache		= new HashMap<>();
-	private final Map<String, MethodSignature>	methodSignatureCache	= new HashMap<>();
-	private final Map<String, FieldSignature>	fieldSignatureCache		= new HashMap<>();
+	private final static WeakInterner<String, TypeRef>		typeRefs				= new WeakInterner<>();
+	private final static WeakInterner<String, PackageRef>	packageRefs				= new WeakInterner<>();
+
+	private final Map<String, Descriptor>					descriptorCache			= new ConcurrentHashMap<>();
+	private final Map<String, ClassSignature>				classSignatureCache		= new ConcurrentHashMap<>();
+	private final Map<String, MethodSignature>				methodSignatureCache	= new ConcurrentHashMap<>();
+	private final Map<String, FieldSignature>				fieldSignatureCache		= new ConcurrentHashMap<>();
 
 	// MUST BE BEFORE PRIMITIVES, THEY USE THE DEFAULT PACKAGE!!
-	final static PackageRef						DEFAULT_PACKAGE			= new PackageRef();
-	final static PackageRef						PRIMITIVE_PACKAGE		= new PackageRef();
+	final static PackageRef									DEFAULT_PACKAGE			= new PackageRef();
+	final static PackageRef									PRIMITIVE_PACKAGE		= new PackageRef();
 
-	final static TypeRef						VOID					= new ConcreteRef("V", "void",
+	final static TypeRef									VOID					= new ConcreteRef("V", "void",
 		PRIMITIVE_PACKAGE);
-	final static TypeRef						BOOLEAN					= new ConcreteRef("Z", "boolean",
+	final static TypeRef									BOOLEAN					= new ConcreteRef("Z", "boolean",
 		PRIMITIVE_PACKAGE);
-	final static TypeRef						BYTE					= new ConcreteRef("B", "byte",
+	final static TypeRef									BYTE					= new ConcreteRef("B", "byte",
 		PRIMITIVE_PACKAGE);
-	final static TypeRef						CHAR					= new ConcreteRef("C", "char",
+	final static TypeRef									CHAR					= new ConcreteRef("C", "char",
 		PRIMITIVE_PACKAGE);
-	final static TypeRef						SHORT					= new ConcreteRef("S", "short",
+	final static TypeRef									SHORT					= new ConcreteRef("S", "short",
 		PRIMITIVE_PACKAGE);
-	final static TypeRef						INTEGER					= new ConcreteRef("I", "int",
+	final static TypeRef									INTEGER					= new ConcreteRef("I", "int",
 		PRIMITIVE_PACKAGE);
-	final static TypeRef						LONG					= new ConcreteRef("J", "long",
+	final static TypeRef									LONG					= new ConcreteRef("J", "long",
 		PRIMITIVE_PACKAGE);
-	final static TypeRef						DOUBLE					= new ConcreteRef("D", "double",
+	final static TypeRef									DOUBLE					= new ConcreteRef("D", "double",
 		PRIMITIVE_PACKAGE);
-	final static TypeRef						FLOAT					= new ConcreteRef("F", "float",
+	final static TypeRef									FLOAT					= new ConcreteRef("F", "float",
 		PRIMITIVE_PACKAGE);
 
-	public Descriptors() {
-		packageRefCache.put(DEFAULT_PACKAGE.getBinary(), DEFAULT_PACKAGE);
-	}
+	public Descriptors() {}
 
 	@ProviderType
 	public interface TypeRef extends Comparable<TypeRef> {
@@ -468,47 +477,52 @@ public class Descriptors {
 
 		binaryClassName = binaryClassName.replace('.', '$');
 
-		if ((last >= 0) && (binaryClassName.charAt(0) == '[')) {
-			// We handle arrays here since computeIfAbsent does not like
-			// recursive calls starting in Java 9
-			TypeRef ref = typeRefCache.get(binaryClassName);
-			if (ref == null) {
-				ref = new ArrayRef(getTypeRef(binaryClassName.substring(1)));
-				typeRefCache.put(binaryClassName, ref);
+		if (last == 0) {
+			// Primitives are constants and need no lookup
+			TypeRef primitive = primitive(binaryClassName.charAt(0));
+			if (primitive != null) {
+				return primitive;
 			}
-			return ref;
+			// falls through for other 1 letter class names
 		}
 
-		return typeRefCache.computeIfAbsent(binaryClassName, this::createTypeRef);
+		TypeRef ref = typeRefs.get(binaryClassName);
+		if (ref != null) {
+			return ref;
+		}
+		if ((last >= 0) && (binaryClassName.charAt(0) == '[')) {
+			ref = new ArrayRef(getTypeRef(binaryClassName.substring(1)));
+		} else {
+			int n = binaryClassName.lastIndexOf('/');
+			PackageRef pref = (n < 0) ? DEFAULT_PACKAGE : getPackageRef(binaryClassName.substring(0, n));
+			ref = new ConcreteRef(pref, binaryClassName);
+		}
+		return typeRefs.intern(binaryClassName, ref);
 	}
 
-	private TypeRef createTypeRef(String binaryClassName) {
-		if (binaryClassName.length() == 1) {
-			switch (binaryClassName.charAt(0)) {
-				case 'V' :
-					return VOID;
-				case 'B' :
-					return BYTE;
-				case 'C' :
-					return CHAR;
-				case 'I' :
-					return INTEGER;
-				case 'S' :
-					return SHORT;
-				case 'D' :
-					return DOUBLE;
-				case 'F' :
-					return FLOAT;
-				case 'J' :
-					return LONG;
-				case 'Z' :
-					return BOOLEAN;
-			}
-			// falls through for other 1 letter class names
+	private static TypeRef primitive(char c) {
+		switch (c) {
+			case 'V' :
+				return VOID;
+			case 'B' :
+				return BYTE;
+			case 'C' :
+				return CHAR;
+			case 'I' :
+				return INTEGER;
+			case 'S' :
+				return SHORT;
+			case 'D' :
+				return DOUBLE;
+			case 'F' :
+				return FLOAT;
+			case 'J' :
+				return LONG;
+			case 'Z' :
+				return BOOLEAN;
+			default :
+				return null;
 		}
-		int n = binaryClassName.lastIndexOf('/');
-		PackageRef pref = (n < 0) ? DEFAULT_PACKAGE : getPackageRef(binaryClassName.substring(0, n));
-		return new ConcreteRef(pref, binaryClassName);
 	}
 
 	public TypeRef getPackageInfo(PackageRef packageRef) {
@@ -525,7 +539,14 @@ public class Descriptors {
 		// not com.example.Foo.
 		//
 
-		return packageRefCache.computeIfAbsent(binaryPackName, PackageRef::new);
+		if (binaryPackName.isEmpty()) {
+			return DEFAULT_PACKAGE;
+		}
+		PackageRef ref = packageRefs.get(binaryPackName);
+		if (ref != null) {
+			return ref;
+		}
+		return packageRefs.intern(binaryPackName, new PackageRef(binaryPackName));
 	}
 
 	public Descriptor getDescriptor(String descriptor) {
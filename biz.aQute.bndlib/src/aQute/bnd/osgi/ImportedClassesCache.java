@@ -0,0 +1,83 @@
+package aQute.bnd.osgi;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import aQute.bnd.osgi.Descriptors.TypeRef;
+
+/**
+ * A cache of the classes the {@link Analyzer} found on its classpath.
+ * <p>
+ * The cache holds at most a maximum number of classes. When it is full, the
+ * least recently used class is evicted. An evicted class is parsed again when
+ * it is looked up again. The counters are reported by
+ * {@link Analyzer#report(Map)} to help sizing the cache.
+ */
+class ImportedClassesCache {
+	final static int				DEFAULT_MAXIMUM	= 10_000;
+	private final int				maximum;
+	private final Map<TypeRef, Clazz>	classes;
+	private long					hits;
+	private long					misses;
+	private long					evictions;
+
+	/**
+	 * @param maximum the maximum number of classes, if not positive the cache
+	 *            is unbounded
+	 */
+	ImportedClassesCache(int maximum) {
+		this.maximum = maximum;
+		this.classes = new LinkedHashMap<>(64, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<TypeRef, Clazz> eldest) {
+				if ((ImportedClassesCache.this.maximum > 0) && (size() > ImportedClassesCache.this.maximum)) {
+					evictions++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	synchronized Clazz get(TypeRef typeRef) {
+		Clazz clazz = classes.get(typeRef);
+		if (clazz != null) {
+			hits++;
+		} else {
+			misses++;
+		}
+		return clazz;
+	}
+
+	synchronized void put(TypeRef typeRef, Clazz clazz) {
+		classes.put(typeRef, clazz);
+	}
+
+	synchronized int size() {
+		return classes.size();
+	}
+
+	int getMaximum() {
+		return maximum;
+	}
+
+	synchronized long getHits() {
+		return hits;
+	}
+
+	synchronized long getMisses() {
+		return misses;
+	}
+
+	synchronized long getEvictions() {
+		return evictions;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return String.format("size=%s maximum=%s hits=%s misses=%s evictions=%s", classes.size(),
+			(maximum > 0) ? maximum : "unbounded", hits, misses, evictions);
+	}
+}
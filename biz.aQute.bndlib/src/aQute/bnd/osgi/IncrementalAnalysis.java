@@ -0,0 +1,107 @@
+package aQute.bnd.osgi;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import aQute.lib.io.ByteBufferDataInput;
+import aQute.lib.io.ByteBufferOutputStream;
+
+/**
+ * The state of the previous analysis of the classes of a jar, so the next
+ * analysis of the jar only parses the classes that were added or changed.
+ * <p>
+ * A class is unchanged when its class file has the same SHA-256 digest as in
+ * the previous analysis, like for the {@link ClazzCache}. The last modified
+ * time and size of a class file do not reliably change when a class is
+ * recompiled. The analysis results of an unchanged class are restored with
+ * {@link Clazz#restore(java.io.DataInput)}, classes that were removed from the
+ * jar are dropped from the state.
+ * <p>
+ * The state must only be used for the analysis of one jar at a time, like the
+ * output of a project builder in an IDE.
+ */
+public class IncrementalAnalysis {
+	private final Map<String, State>	states	= new ConcurrentHashMap<>();
+	private final LongAdder				reused	= new LongAdder();
+	private final LongAdder				parsed	= new LongAdder();
+
+	private record State(byte[] digest, int flags, byte[] data) {}
+
+	/**
+	 * Answer the number of classes whose previous analysis was reused.
+	 */
+	public long getReused() {
+		return reused.sum();
+	}
+
+	/**
+	 * Answer the number of classes that were parsed since they were added or
+	 * changed.
+	 */
+	public long getParsed() {
+		return parsed.sum();
+	}
+
+	/**
+	 * Answer the number of classes in the state.
+	 */
+	public int size() {
+		return states.size();
+	}
+
+	/**
+	 * Forget the previous analysis.
+	 */
+	public void clear() {
+		states.clear();
+	}
+
+	/**
+	 * Restore the class from its previous analysis or parse it when the class
+	 * is new or changed.
+	 */
+	void parse(Clazz clazz, Analyzer analyzer, ClazzCache clazzCache) throws Exception {
+		byte[] digest = ClazzCache.digest(clazz.getResource());
+		int flags = ClazzCache.flags(analyzer);
+		String path = clazz.getAbsolutePath();
+		State state = states.get(path);
+		if ((state != null) && (state.flags() == flags) && Arrays.equals(state.digest(), digest)) {
+			clazz.restore(ByteBufferDataInput.wrap(state.data()));
+			reused.increment();
+			return;
+		}
+		parsed.increment();
+		if (clazzCache != null) {
+			clazzCache.parse(clazz, analyzer, digest);
+		} else {
+			clazz.parseClassFile();
+		}
+		// Proxy creators depend on the classes analyzed before them
+		if (!clazz.isProxyCreator()) {
+			states.put(path, new State(digest, flags, store(clazz)));
+		} else {
+			states.remove(path);
+		}
+	}
+
+	/**
+	 * Drop the classes that are no longer in the jar.
+	 */
+	void retain(Set<String> paths) {
+		states.keySet()
+			.retainAll(paths);
+	}
+
+	private static byte[] store(Clazz clazz) throws IOException {
+		ByteBufferOutputStream bout = new ByteBufferOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bout)) {
+			clazz.store(out);
+		}
+		return bout.toByteArray();
+	}
+}
@@ -25,6 +25,7 @@ import java.text.Collator;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.EnumSet;
@@ -70,6 +71,7 @@ import aQute.lib.io.ByteBufferOutputStream;
 import aQute.lib.io.IO;
 import aQute.lib.io.IOConstants;
 import aQute.lib.manifest.ManifestUtil;
+import aQute.lib.zip.MappedZipFile;
 import aQute.lib.zip.ZipUtil;
 import aQute.libg.cryptography.Digester;
 import aQute.libg.cryptography.SHA256;
@@ -116,6 +118,7 @@ public class Jar implements Closeable {
 	private boolean												doNotTouchManifest;
 	private boolean												nomanifest;
 	private boolean												reproducible;
+	private boolean												parallelDeflate;
 	private Compression											compression				= Compression.DEFLATE;
 	private boolean												closed;
 	private String[]											algorithms;
@@ -159,6 +162,40 @@ public class Jar implements Closeable {
 		return new Jar(name).buildFromResource(resource);
 	}
 
+	/**
+	 * Create a Jar to inspect a file. A zip file is read through a
+	 * {@link MappedZipFile}, which does not keep the file open and only
+	 * inflates the entries that are read. A directory, or a zip file that is
+	 * not supported by {@link MappedZipFile}, is read like
+	 * {@link #Jar(File)}.
+	 * <p>
+	 * The file must not be modified while the Jar is in use.
+	 *
+	 * @param file the file or directory
+	 * @return a Jar for the file
+	 * @throws IOException if the file cannot be read
+	 */
+	public static Jar fromMappedFile(File file) throws IOException {
+		if (file.isFile()) {
+			MappedZipFile zip;
+			try {
+				zip = new MappedZipFile(file);
+			} catch (ZipException e) {
+				return new Jar(file);
+			}
+			Jar jar = new Jar(getName(file));
+			jar.source = file;
+			for (MappedZipFile.Entry entry : zip.entries()) {
+				if (entry.isDirectory()) {
+					continue;
+				}
+				jar.putResource(entry.getName(), new MappedZipResource(zip, entry), true);
+			}
+			return jar;
+		}
+		return new Jar(file);
+	}
+
 	public static Stream<Resource> getResources(Resource resource, Predicate<String> filter) throws Exception {
 		requireNonNull(resource);
 		requireNonNull(filter);
@@ -558,30 +595,19 @@ public class Jar implements Closeable {
 			out = digester = SHA256.getDigester(out);
 		}
 
-		ZipOutputStream jout = nomanifest || doNotTouchManifest ? new ZipOutputStream(out) : new JarOutputStream(out);
-
-		switch (compression) {
-			case STORE :
-				jout.setMethod(ZipOutputStream.STORED);
-				break;
-
-			default :
-				// default is DEFLATED
-		}
-
 		Set<String> done = new HashSet<>();
 
-		Set<String> directories = new HashSet<>();
+		List<Map.Entry<String, Resource>> entries = new ArrayList<>();
 
 		// Write manifest first
+		boolean generateManifest = !doNotTouchManifest && !nomanifest;
 		if (doNotTouchManifest) {
 			Resource r = getResource(manifestName);
 			if (r != null) {
-				writeResource(jout, directories, manifestName, r);
+				entries.add(new SimpleImmutableEntry<>(manifestName, r));
 				done.add(manifestName);
 			}
 		} else if (!nomanifest) {
-			doManifest(jout, directories, manifestName);
 			done.add(manifestName);
 		}
 
@@ -595,18 +621,52 @@ public class Jar implements Closeable {
 				.collect(toList());
 			for (String path : signing) {
 				if (done.add(path)) {
-					writeResource(jout, directories, path, metainf.get(path));
+					entries.add(new SimpleImmutableEntry<>(path, metainf.get(path)));
 				}
 			}
 		}
 
-		// Write all remaining entries
+		// Then all remaining entries
 		for (Map.Entry<String, Resource> entry : getResources().entrySet()) {
 			// Skip metainf contents
 			if (!done.contains(entry.getKey()))
-				writeResource(jout, directories, entry.getKey(), entry.getValue());
+				entries.add(entry);
+		}
+
+		ParallelDeflater deflater = null;
+		if (parallelDeflate && (compression != Compression.STORE)) {
+			deflater = new ParallelDeflater(Processor.getExecutor(), entries.stream()
+				.filter(entry -> (entry.getValue() != null) && !entry.getKey()
+					.endsWith(Constants.EMPTY_HEADER))
+				.collect(toList()));
+		}
+
+		try {
+			ZipOutputStream jout = zipOutputStream(out, !generateManifest, deflater);
+
+			switch (compression) {
+				case STORE :
+					jout.setMethod(ZipOutputStream.STORED);
+					break;
+
+				default :
+					// default is DEFLATED
+			}
+
+			Set<String> directories = new HashSet<>();
+
+			if (generateManifest) {
+				doManifest(jout, directories, manifestName);
+			}
+			for (Map.Entry<String, Resource> entry : entries) {
+				writeResource(jout, deflater, directories, entry.getKey(), entry.getValue());
+			}
+			jout.finish();
+		} finally {
+			if (deflater != null) {
+				deflater.end();
+			}
 		}
-		jout.finish();
 
 		if (digester != null) {
 			this.sha256 = digester.digest();
@@ -614,6 +674,31 @@ public class Jar implements Closeable {
 		}
 	}
 
+	/**
+	 * Create the zip stream to write to. When a {@link ParallelDeflater} is
+	 * given, it replaces the Deflater of the zip stream.
+	 */
+	private static ZipOutputStream zipOutputStream(OutputStream out, boolean zip, ParallelDeflater deflater)
+		throws IOException {
+		if (deflater == null) {
+			return zip ? new ZipOutputStream(out) : new JarOutputStream(out);
+		}
+		if (zip) {
+			return new ZipOutputStream(out) {
+				{
+					def.end();
+					def = deflater;
+				}
+			};
+		}
+		return new JarOutputStream(out) {
+			{
+				def.end();
+				def = deflater;
+			}
+		};
+	}
+
 	public void writeFolder(File dir) throws Exception {
 		IO.mkdirs(dir);
 
@@ -677,6 +762,7 @@ public class Jar implements Closeable {
 			write(f);
 			try (Jar tmp = new Jar(f)) {
 				tmp.setCompression(compression);
+				tmp.setParallelDeflate(parallelDeflate);
 				tmp.calcChecksums(algs);
 				tmp.write(out);
 			} finally {
@@ -721,6 +807,11 @@ public class Jar implements Closeable {
 	}
 
 	private void putEntry(ZipOutputStream jout, ZipEntry entry, Resource r) throws Exception {
+		putEntry(jout, null, entry, r);
+	}
+
+	private void putEntry(ZipOutputStream jout, ParallelDeflater deflater, ZipEntry entry, Resource r)
+		throws Exception {
 
 		if (compression == Compression.STORE) {
 			ByteBuffer buffer = r.buffer();
@@ -740,7 +831,12 @@ public class Jar implements Closeable {
 			IO.copy(buffer, jout);
 		} else {
 			jout.putNextEntry(entry);
-			r.write(jout);
+			ByteBuffer deflated = (deflater != null) ? deflater.next(entry.getName()) : null;
+			if (deflated != null) {
+				IO.copy(deflated, jout);
+			} else {
+				r.write(jout);
+			}
 		}
 		jout.closeEntry();
 	}
@@ -871,8 +967,8 @@ public class Jar implements Closeable {
 			return s;
 	}
 
-	private void writeResource(ZipOutputStream jout, Set<String> directories, String path, Resource resource)
-		throws Exception {
+	private void writeResource(ZipOutputStream jout, ParallelDeflater deflater, Set<String> directories, String path,
+		Resource resource) throws Exception {
 		if (resource == null)
 			return;
 		try {
@@ -894,7 +990,7 @@ public class Jar implements Closeable {
 			if (extra != null) {
 				ze.setExtra(Resource.decodeExtra(extra));
 			}
-			putEntry(jout, ze, resource);
+			putEntry(jout, deflater, ze, resource);
 		} catch (Exception e) {
 			throw new Exception("Problem writing resource " + path, e);
 		}
@@ -1210,6 +1306,20 @@ public class Jar implements Closeable {
 		this.compression = compression;
 	}
 
+	/**
+	 * Deflate the resources in parallel when writing the jar. The written jar
+	 * is identical to the jar written sequentially.
+	 *
+	 * @param parallelDeflate {@code true} to deflate in parallel
+	 */
+	public void setParallelDeflate(boolean parallelDeflate) {
+		this.parallelDeflate = parallelDeflate;
+	}
+
+	public boolean isParallelDeflate() {
+		return parallelDeflate;
+	}
+
 	public Compression hasCompression() {
 		return this.compression;
 	}
@@ -118,6 +118,9 @@ public class Macro {
 	}
 
 	String process(CharSequence line, Link link) {
+		if ((line != null) && isLiteral(line)) {
+			return line.toString();
+		}
 		StringBuilder sb = new StringBuilder();
 		process(line, 0, '\u0000', '\u0000', sb, link, false);
 		return sb.toString();
@@ -178,6 +181,27 @@ public class Macro {
 		return index;
 	}
 
+	/**
+	 * Answer if processing the line would return it unchanged because it has
+	 * no macros, escapes or ./ sequences.
+	 */
+	static boolean isLiteral(CharSequence line) {
+		for (int i = 0, len = line.length(); i < len; i++) {
+			switch (line.charAt(i)) {
+				case '$', '\\', '\u0000' :
+					return false;
+				case '.' :
+					if ((i + 1 < len) && (line.charAt(i + 1) == '/')) {
+						return false;
+					}
+					break;
+				default :
+					break;
+			}
+		}
+		return true;
+	}
+
 	public static char getTerminator(char c) {
 		return switch (c) {
 			case '(' -> ')';
@@ -197,8 +221,10 @@ public class Macro {
 	}
 
 	private String getMacro(String key, List<String> args2, Link link, char begin, char end) {
-		if (link != null && link.contains(key))
+		if (link != null && link.contains(key)) {
+			link.impure();
 			return "${infinite:" + link.toString() + "}";
+		}
 
 		if (key != null) {
 			key = key.trim();
@@ -276,6 +302,9 @@ public class Macro {
 				// or environment variable
 				//
 
+				if (link != null) {
+					link.impure();
+				}
 				if (args.length == 1) {
 					value = System.getProperty(args[0]);
 					if (value != null)
@@ -312,6 +341,9 @@ public class Macro {
 		} else {
 			reporter.warning("Found null macro key");
 		}
+		if (link != null) {
+			link.impure();
+		}
 
 		return null;
 	}
@@ -347,6 +379,9 @@ public class Macro {
 		if (value != LITERALVALUE) {
 			if (value != null)
 				return value;
+			if (link != null) {
+				link.impure();
+			}
 			if (!flattening && !key.startsWith("@"))
 				reporter.warning("No translation found for macro: %s", key);
 		}
@@ -380,6 +415,7 @@ public class Macro {
 				.trim();
 
 			if (source != null) {
+				source.impure();
 				Processor parent = source.start.getParent();
 				if (parent != null)
 					return parent.getProperty(varname);
@@ -391,7 +427,7 @@ public class Macro {
 		while (rover != null) {
 			String result = doCommand(rover, args[0], args);
 			if (result != null)
-				return result;
+				return impure(result, source);
 
 			rover = rover.getParent();
 		}
@@ -399,10 +435,41 @@ public class Macro {
 		for (int i = 0; targets != null && i < targets.length; i++) {
 			String result = doCommand(targets[i], args[0], args);
 			if (result != null)
-				return result;
+				return impure(result, source);
 		}
 
-		return doCommand(this, args[0], args);
+		String result = doCommand(this, args[0], args);
+		if ((result != null) && ((result == NULLVALUE) || !isPure(args))) {
+			impure(result, source);
+		}
+		return result;
+	}
+
+	/**
+	 * The macros that only depend on their arguments. Their results can be
+	 * memoized with the expanded property.
+	 */
+	private static final Set<String> PURE = Set.of("average", "basenameext", "compare", "endswith", "extension",
+		"filter", "filterout", "find", "findlast", "first", "get", "indexof", "is", "isempty", "isnumber", "join",
+		"last", "lastindexof", "length", "literal", "matches", "max", "min", "ncompare", "nmax", "nmin", "nsort",
+		"reject", "removeall", "replace", "replacelist", "replacestring", "retainall", "reverse", "select", "sjoin",
+		"sort", "split", "startswith", "stem", "sublist", "subst", "substring", "sum", "tolower", "toupper", "trim",
+		"unescape", "uniq", "vcompare", "vmax", "vmin");
+
+	private static boolean isPure(String[] args) {
+		if (args[0].equals("if")) {
+			// a filter condition looks up properties
+			return (args.length < 2) || !args[1].trim()
+				.startsWith("(");
+		}
+		return PURE.contains(args[0]);
+	}
+
+	private static String impure(String result, Link source) {
+		if (source != null) {
+			source.impure();
+		}
+		return result;
 	}
 
 	protected BiFunction<Object, String[], Object> getFunction(String method) {
@@ -1375,6 +1442,7 @@ public class Macro {
 		final Link		previous;
 		final String	key;
 		final Processor	start;
+		private boolean	impure;
 
 		public Link(Processor start, Link previous, String key) {
 			this.start = Objects.requireNonNull(start);
@@ -1382,6 +1450,27 @@ public class Macro {
 			this.key = key;
 		}
 
+		/**
+		 * Mark the expansion this link is part of as depending on more than
+		 * the properties, like the result of a command, a system property or
+		 * a reported warning.
+		 */
+		void impure() {
+			Link root = this;
+			while (root.previous != null) {
+				root = root.previous;
+			}
+			root.impure = true;
+		}
+
+		/**
+		 * Answer if the expansion started with this link only depends on the
+		 * properties.
+		 */
+		boolean isPure() {
+			return !impure;
+		}
+
 		public boolean contains(String key) {
 			if (this.key.equals(key))
 				return true;
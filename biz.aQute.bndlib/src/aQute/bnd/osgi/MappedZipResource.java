@@ -0,0 +1,92 @@
+package aQute.bnd.osgi;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import aQute.lib.io.IO;
+import aQute.lib.zip.MappedZipFile;
+import aQute.lib.zip.ZipUtil;
+
+/**
+ * A resource for an entry of a {@link MappedZipFile}. The content of a stored
+ * entry is a read only slice of the zip file buffer. A deflated entry is
+ * inflated when its content is first needed.
+ */
+public class MappedZipResource implements Resource {
+	private ByteBuffer					buffer;
+	private final MappedZipFile			zip;
+	private final MappedZipFile.Entry	entry;
+	private long						lastModified;
+	private String						extra;
+
+	MappedZipResource(MappedZipFile zip, MappedZipFile.Entry entry) {
+		this.zip = zip;
+		this.entry = entry;
+		this.lastModified = -11L;
+		byte[] extra = entry.getExtra();
+		if (extra != null) {
+			this.extra = Resource.encodeExtra(extra);
+		}
+	}
+
+	@Override
+	public ByteBuffer buffer() throws Exception {
+		return getBuffer().duplicate();
+	}
+
+	private ByteBuffer getBuffer() throws IOException {
+		if (buffer != null) {
+			return buffer;
+		}
+		return buffer = zip.buffer(entry);
+	}
+
+	@Override
+	public InputStream openInputStream() throws Exception {
+		return IO.stream(buffer());
+	}
+
+	@Override
+	public String toString() {
+		return ":" + zip.getName() + "(" + entry.getName() + "):";
+	}
+
+	@Override
+	public void write(OutputStream out) throws Exception {
+		IO.copy(buffer(), out);
+	}
+
+	@Override
+	public long lastModified() {
+		if (lastModified != -11L) {
+			return lastModified;
+		}
+		return lastModified = ZipUtil.getModifiedTime(entry);
+	}
+
+	@Override
+	public String getExtra() {
+		return extra;
+	}
+
+	@Override
+	public void setExtra(String extra) {
+		this.extra = extra;
+	}
+
+	@Override
+	public long size() throws Exception {
+		return entry.getSize();
+	}
+
+	/**
+	 * Release the content of a deflated entry. The buffer of the zip file is
+	 * shared by all its entries.
+	 */
+	@Override
+	public void close() throws IOException {
+		buffer = null;
+	}
+}
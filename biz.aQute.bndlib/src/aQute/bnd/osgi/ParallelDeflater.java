@@ -0,0 +1,187 @@
+package aQute.bnd.osgi;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.zip.Deflater;
+
+import aQute.lib.io.ByteBufferOutputStream;
+
+/**
+ * A Deflater for the {@link java.util.zip.ZipOutputStream} of a {@link Jar}
+ * that deflates the content of the entries ahead of time on an executor.
+ * <p>
+ * The zip stream still writes the headers, the data descriptors and the
+ * central directory, and the content is still written to it to calculate the
+ * CRC. Only the compressed data comes from this Deflater, which was deflated
+ * with the same settings as the zip stream's own Deflater, so the written jar
+ * is identical. Entries that were not submitted, like the manifest, are
+ * deflated normally.
+ */
+class ParallelDeflater extends Deflater {
+	private final Executor										executor;
+	private final List<Map.Entry<String, Resource>>				entries;
+	private final int											window;
+	private final Map<String, CompletableFuture<Deflated>>		pending	= new HashMap<>();
+	private int													submitted;
+
+	private byte[]												compressed;
+	private int													position;
+	private long												bytesRead;
+	private boolean												finish;
+
+	private record Deflated(ByteBuffer content, byte[] compressed) {}
+
+	/**
+	 * @param executor the executor to deflate on
+	 * @param entries the entries in the order they will be written
+	 */
+	ParallelDeflater(Executor executor, List<Map.Entry<String, Resource>> entries) {
+		super(DEFAULT_COMPRESSION, true);
+		this.executor = executor;
+		this.entries = entries;
+		// Bound the memory held by deflated entries waiting to be written
+		this.window = 4 * Runtime.getRuntime()
+			.availableProcessors();
+		submit();
+	}
+
+	/**
+	 * Prepare to write the entry for the path. Must be called after the entry
+	 * was put in the zip stream.
+	 *
+	 * @return the content to write to the zip stream or {@code null} if the
+	 *         entry was not submitted and must be written normally
+	 */
+	ByteBuffer next(String path) throws Exception {
+		CompletableFuture<Deflated> future = pending.remove(path);
+		if (future == null) {
+			return null;
+		}
+		submit();
+		Deflated deflated;
+		try {
+			deflated = future.join();
+		} catch (CompletionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof Exception exception) {
+				throw exception;
+			}
+			throw e;
+		}
+		compressed = deflated.compressed();
+		position = 0;
+		bytesRead = 0L;
+		finish = false;
+		return deflated.content();
+	}
+
+	private void submit() {
+		while ((submitted < entries.size()) && (pending.size() < window)) {
+			Map.Entry<String, Resource> entry = entries.get(submitted++);
+			Resource resource = entry.getValue();
+			pending.put(entry.getKey(), CompletableFuture.supplyAsync(() -> {
+				try {
+					return deflate(resource);
+				} catch (Exception e) {
+					throw new CompletionException(e);
+				}
+			}, executor));
+		}
+	}
+
+	private static Deflated deflate(Resource resource) throws Exception {
+		ByteBuffer content = resource.buffer();
+		if (content == null) {
+			ByteBufferOutputStream bbos = new ByteBufferOutputStream();
+			resource.write(bbos);
+			content = bbos.toByteBuffer();
+		}
+		Deflater deflater = new Deflater(DEFAULT_COMPRESSION, true);
+		try {
+			deflater.setInput(content.duplicate());
+			deflater.finish();
+			ByteBufferOutputStream out = new ByteBufferOutputStream(content.remaining() / 2 + 64);
+			byte[] buffer = new byte[8192];
+			while (!deflater.finished()) {
+				int size = deflater.deflate(buffer);
+				out.write(buffer, 0, size);
+			}
+			return new Deflated(content, out.toByteArray());
+		} finally {
+			deflater.end();
+		}
+	}
+
+	@Override
+	public void setInput(byte[] input, int off, int len) {
+		if (compressed == null) {
+			super.setInput(input, off, len);
+		} else {
+			bytesRead += len;
+		}
+	}
+
+	@Override
+	public boolean needsInput() {
+		return (compressed == null) ? super.needsInput() : true;
+	}
+
+	@Override
+	public void finish() {
+		if (compressed == null) {
+			super.finish();
+		} else {
+			finish = true;
+		}
+	}
+
+	@Override
+	public boolean finished() {
+		return (compressed == null) ? super.finished() : finish && (position == compressed.length);
+	}
+
+	@Override
+	public int deflate(byte[] output, int off, int len) {
+		return deflate(output, off, len, NO_FLUSH);
+	}
+
+	@Override
+	public int deflate(byte[] output, int off, int len, int flush) {
+		if (compressed == null) {
+			return super.deflate(output, off, len, flush);
+		}
+		int size = Math.min(len, compressed.length - position);
+		System.arraycopy(compressed, position, output, off, size);
+		position += size;
+		return size;
+	}
+
+	@Override
+	public long getBytesRead() {
+		return (compressed == null) ? super.getBytesRead() : bytesRead;
+	}
+
+	@Override
+	public long getBytesWritten() {
+		return (compressed == null) ? super.getBytesWritten() : position;
+	}
+
+	@Override
+	public void reset() {
+		compressed = null;
+		super.reset();
+	}
+
+	@Override
+	public void end() {
+		pending.values()
+			.forEach(future -> future.cancel(false));
+		pending.clear();
+		super.end();
+	}
+}
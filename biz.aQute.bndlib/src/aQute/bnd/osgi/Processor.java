@@ -48,6 +48,7 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
@@ -135,6 +136,9 @@ public class Processor extends Domain implements Reporter, Registry, Constants,
 	private boolean								fixup				= true;
 	private Processor							parent;
 	private final CopyOnWriteArrayList<File>	included			= new CopyOnWriteArrayList<>();
+	private volatile long						changed				= changes.incrementAndGet();
+	private volatile Expansions					expansions;
+	private volatile PropertyIndex				propertyIndex;
 
 	Collection<String>							filter;
 	Boolean										strict;
@@ -142,6 +146,37 @@ public class Processor extends Domain implements Reporter, Registry, Constants,
 	boolean										pedantic;
 	boolean										exceptions;
 
+	private static final AtomicLong				changes				= new AtomicLong();
+	private static final ClassValue<Boolean>	memoizable			= new ClassValue<>() {
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			try {
+				return type.getMethod("getUnexpandedProperty", String.class)
+					.getDeclaringClass() == Processor.class;
+			} catch (NoSuchMethodException e) {
+				return Boolean.FALSE;
+			}
+		}
+	};
+
+	/**
+	 * Matches the wildcard keys that only match keys starting with a literal
+	 * prefix, like {@code -buildpath.*}.
+	 */
+	private static final Pattern				PREFIX_WILDCARD		= Pattern.compile("(?<prefix>[-\\w.]+?)\\.?\\*");
+
+	/**
+	 * The memoized expansions of the properties that were valid at the stamps.
+	 */
+	private record Expansions(long[] stamps, Map<String, String> values) {}
+
+	/**
+	 * The sorted property keys of the inheritance chain that were valid at the
+	 * stamps. The visible keys are the keys of {@link #stream(boolean)} and
+	 * the property keys are the keys of {@link #getPropertyKeys(Predicate)}.
+	 */
+	private record PropertyIndex(long[] stamps, String[] visible, PropertyKey[] keys) {}
+
 	public static class FileLine {
 		public static final FileLine	DUMMY	= new FileLine(null, 0, 0);
 		public File						file;
@@ -501,6 +536,7 @@ public class Processor extends Domain implements Reporter, Registry, Constants,
 			this.base = base.getAbsoluteFile();
 			baseURI = base.toURI();
 		}
+		changed = changes.incrementAndGet();
 	}
 
 	public void clear() {
@@ -986,6 +1022,7 @@ public class Processor extends Domain implements Reporter, Registry, Constants,
 	}
 
 	public void propertiesChanged() {
+		changed = changes.incrementAndGet();
 		Processor p = getParent();
 		if (p != null) {
 			updateModified(p.lastModified(), "propertiesChanged");
@@ -1112,7 +1149,7 @@ public class Processor extends Domain implements Reporter, Registry, Constants,
 			return getLiteralProperty(ins.getLiteral(), deflt, this, inherit);
 		}
 
-		return getWildcardProperty(deflt, separator, inherit, ins);
+		return getWildcardProperty(key, deflt, separator, inherit, ins);
 	}
 
 	/**
@@ -1204,8 +1241,22 @@ public class Processor extends Domain implements Reporter, Registry, Constants,
 	 * @param predicate the predicate to filter the key
 	 * @return new modifiable sorted list of PropertyKey
 	 */
-	@SuppressWarnings("resource")
 	public List<PropertyKey> getPropertyKeys(Predicate<String> predicate) {
+		PropertyIndex index = propertyIndex();
+		if (index == null) {
+			return collectPropertyKeys(predicate);
+		}
+		List<PropertyKey> keys = new ArrayList<>();
+		for (PropertyKey key : index.keys()) {
+			if (predicate.test(key.key())) {
+				keys.add(key);
+			}
+		}
+		return keys;
+	}
+
+	@SuppressWarnings("resource")
+	private List<PropertyKey> collectPropertyKeys(Predicate<String> predicate) {
 		List<PropertyKey> keys = new ArrayList<>();
 		Processor rover = this;
 		int level = 0;
@@ -1229,21 +1280,98 @@ public class Processor extends Domain implements Reporter, Registry, Constants,
 	 */
 	public List<PropertyKey> getMergePropertyKeys(String stem) {
 		String prefix = stem + ".";
-		return getPropertyKeys(k -> k.equals(stem) || k.startsWith(prefix));
+		PropertyIndex index = propertyIndex();
+		if (index == null) {
+			return getPropertyKeys(k -> k.equals(stem) || k.startsWith(prefix));
+		}
+		// The stem sorts before the keys starting with the prefix
+		PropertyKey[] keys = index.keys();
+		List<PropertyKey> result = new ArrayList<>();
+		for (int i = lowerBound(keys, stem); (i < keys.length) && keys[i].key()
+			.equals(stem); i++) {
+			result.add(keys[i]);
+		}
+		for (int i = lowerBound(keys, prefix); (i < keys.length) && keys[i].key()
+			.startsWith(prefix); i++) {
+			result.add(keys[i]);
+		}
+		return result;
 	}
 
-	private String getWildcardProperty(String deflt, String separator, boolean inherit, Instruction ins) {
+	/**
+	 * Answer the index of the first property key that is not less than the
+	 * key.
+	 */
+	private static int lowerBound(PropertyKey[] keys, String key) {
+		int low = 0;
+		int high = keys.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (keys[mid].key()
+				.compareTo(key) < 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	private String getWildcardProperty(String key, String deflt, String separator, boolean inherit,
+		Instruction ins) {
 		// Handle a wildcard key, make sure they're sorted
 		// for consistency
-		String result = stream(inherit).filter(ins::matches)
-			.sorted()
+		String result = wildcardCandidates(key, inherit).filter(ins::matches)
 			.map(k -> getLiteralProperty(k, null, this, inherit))
 			.filter(v -> (v != null) && !v.isEmpty())
 			.collect(Strings.joining(separator, "", "", deflt));
 		return result;
 	}
 
+	/**
+	 * Answer the sorted keys that can match the wildcard key. When the wildcard
+	 * key only matches keys starting with a literal prefix, only the keys
+	 * starting with the prefix are looked up in the property index.
+	 */
+	private Stream<String> wildcardCandidates(String key, boolean inherit) {
+		Matcher m = PREFIX_WILDCARD.matcher(key);
+		PropertyIndex index;
+		if (!m.matches() || ((index = propertyIndex()) == null)) {
+			return stream(inherit).sorted();
+		}
+		String prefix = m.group("prefix");
+		if (inherit) {
+			String[] visible = index.visible();
+			int from = Arrays.binarySearch(visible, prefix);
+			if (from < 0) {
+				from = -from - 1;
+			}
+			int to = from;
+			while ((to < visible.length) && visible[to].startsWith(prefix)) {
+				to++;
+			}
+			return Arrays.stream(visible, from, to);
+		}
+		PropertyKey[] keys = index.keys();
+		List<String> local = new ArrayList<>();
+		for (int i = lowerBound(keys, prefix); (i < keys.length) && keys[i].key()
+			.startsWith(prefix); i++) {
+			if (keys[i].floor() == 0) {
+				local.add(keys[i].key());
+			}
+		}
+		return local.stream();
+	}
+
 	private String getLiteralProperty(String key, String deflt, Processor source, boolean inherit) {
+		Map<String, String> memo = inherit ? expansions() : null;
+		if (memo != null) {
+			String expanded = memo.get(key);
+			if (expanded != null) {
+				return expanded;
+			}
+		}
+
 		String value = null;
 		// Use the key as is first, if found ok
 
@@ -1274,16 +1402,96 @@ public class Processor extends Domain implements Reporter, Registry, Constants,
 		// replacer, which takes profiles into account
 		if (value == null) {
 			value = getReplacer().getMacro(key, null);
+			memo = null;
 		}
 
-		if (value != null)
-			return getReplacer().process(value, source);
-		else if (deflt != null)
+		if (value != null) {
+			Macro.Link link = new Macro.Link(source, null, value);
+			String expanded = getReplacer().process(value, link);
+			if ((memo != null) && link.isPure()) {
+				memo.put(key, expanded);
+			}
+			return expanded;
+		} else if (deflt != null)
 			return getReplacer().process(deflt, this);
 		else
 			return null;
 	}
 
+	/**
+	 * Answer the memoized expansions of the properties of this processor. The
+	 * memoized expansions are dropped when the properties of this processor or
+	 * one of its parents change.
+	 *
+	 * @return the expansions or {@code null} if the changes of the properties
+	 *         cannot be tracked
+	 */
+	private Map<String, String> expansions() {
+		if (!memoizable.get(getClass())) {
+			return null;
+		}
+		long[] stamps = stamps();
+		if (stamps == null) {
+			return null;
+		}
+		Expansions current = expansions;
+		if ((current == null) || !Arrays.equals(current.stamps(), stamps)) {
+			expansions = current = new Expansions(stamps, new ConcurrentHashMap<>());
+		}
+		return current.values();
+	}
+
+	/**
+	 * Answer the index of the property keys of this processor and its parents.
+	 * The index is immutable and is replaced by a new index when the
+	 * properties of this processor or one of its parents change.
+	 *
+	 * @return the index or {@code null} if the changes of the properties
+	 *         cannot be tracked
+	 */
+	private PropertyIndex propertyIndex() {
+		long[] stamps = stamps();
+		if (stamps == null) {
+			return null;
+		}
+		PropertyIndex current = propertyIndex;
+		if ((current == null) || !Arrays.equals(current.stamps(), stamps)) {
+			String[] visible = stream(true).sorted()
+				.toArray(String[]::new);
+			PropertyKey[] keys = collectPropertyKeys(k -> true).toArray(new PropertyKey[0]);
+			propertyIndex = current = new PropertyIndex(stamps, visible, keys);
+		}
+		return current;
+	}
+
+	/**
+	 * Answer the stamps of the properties of this processor and its parents.
+	 * The stamps change when the properties of one of the processors change.
+	 *
+	 * @return the stamps or {@code null} if the changes of the properties
+	 *         cannot be tracked
+	 */
+	private long[] stamps() {
+		int depth = 0;
+		for (Processor p = this; p != null; p = p.getParent()) {
+			depth++;
+		}
+		long[] stamps = new long[2 * depth];
+		int i = 0;
+		for (Processor p = this; (p != null) && (i < stamps.length); p = p.getParent()) {
+			if (!(p.getRawProperties() instanceof UTF8Properties properties)) {
+				return null;
+			}
+			long propertiesStamp = properties.stamp();
+			if (propertiesStamp < 0L) {
+				return null;
+			}
+			stamps[i++] = propertiesStamp;
+			stamps[i++] = p.changed;
+		}
+		return stamps;
+	}
+
 	/**
 	 * Helper to load a properties file from disk.
 	 *
@@ -1754,6 +1962,7 @@ public class Processor extends Domain implements Reporter, Registry, Constants,
 
 	public void setForceLocal(Collection<String> local) {
 		filter = local;
+		changed = changes.incrementAndGet();
 	}
 
 	/**
@@ -0,0 +1,221 @@
+package aQute.bnd.osgi.repository;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.osgi.resource.Resource;
+import org.osgi.service.repository.ContentNamespace;
+
+import aQute.bnd.header.Attrs;
+import aQute.bnd.osgi.resource.CapReqBuilder;
+import aQute.bnd.osgi.resource.ResourceBuilder;
+
+/**
+ * Reads the binary form of a repository index as written by
+ * {@link XMLResourceGenerator#saveBinary(File)}.
+ * <p>
+ * The binary form holds the same resources as the XML form but avoids parsing
+ * text. All strings are stored once in a string table, the namespaces of the
+ * capabilities and requirements are stored once in a namespace table and the
+ * attributes are stored as references to their name, type and value in the
+ * string table. The file is memory mapped and the strings are only decoded when
+ * they are used. Attribute values with the same type and value share the same
+ * converted object.
+ * <p>
+ * Referrals are not part of the binary form.
+ */
+public class BinaryResourceParser {
+	/**
+	 * The magic number of the binary form, {@code BNDX}.
+	 */
+	final static int			MAGIC	= 0x424E4458;
+	/**
+	 * Change when the binary form changes.
+	 */
+	final static int			FORMAT	= 1;
+
+	private final ByteBuffer	buffer;
+	private final URI			url;
+	private int[]				offsets;
+	private String[]			strings;
+	private String[]			namespaces;
+	private final Map<Long, Object>	values	= new HashMap<>();
+	private String				name;
+	private long				increment;
+
+	/**
+	 * Read the resources of a binary index file.
+	 *
+	 * @param file the binary index file
+	 * @param url the URI against which relative content URLs are resolved
+	 * @return the resources
+	 * @throws IOException if the file cannot be read or is not a valid binary
+	 *             index file
+	 */
+	public static List<Resource> getResources(File file, URI url) throws IOException {
+		return new BinaryResourceParser(file, url).parse();
+	}
+
+	public BinaryResourceParser(File file, URI url) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		this.url = url;
+	}
+
+	public BinaryResourceParser(ByteBuffer buffer, URI url) {
+		this.buffer = buffer.duplicate();
+		this.url = url;
+	}
+
+	public String name() {
+		return name;
+	}
+
+	public long increment() {
+		return increment;
+	}
+
+	public List<Resource> parse() throws IOException {
+		try {
+			if ((buffer.getInt() != MAGIC) || (buffer.getInt() != FORMAT)) {
+				throw new IOException("Not a binary index of format " + FORMAT);
+			}
+			increment = buffer.getLong();
+
+			int stringCount = readCount();
+			offsets = new int[stringCount];
+			strings = new String[stringCount];
+			for (int i = 0; i < stringCount; i++) {
+				offsets[i] = buffer.position();
+				int length = readCount();
+				buffer.position(buffer.position() + length);
+			}
+			name = readNullableString();
+
+			int namespaceCount = readCount();
+			namespaces = new String[namespaceCount];
+			for (int i = 0; i < namespaceCount; i++) {
+				namespaces[i] = readString();
+			}
+
+			int resourceCount = readCount();
+			List<Resource> resources = new ArrayList<>(resourceCount);
+			for (int i = 0; i < resourceCount; i++) {
+				resources.add(parseResource());
+			}
+			return resources;
+		} catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+			throw new IOException("Invalid binary index", e);
+		}
+	}
+
+	private Resource parseResource() {
+		ResourceBuilder resourceBuilder = new ResourceBuilder();
+		for (int i = readCount(); i > 0; i--) {
+			resourceBuilder.addCapability(parseCapReq());
+		}
+		for (int i = readCount(); i > 0; i--) {
+			resourceBuilder.addRequirement(parseCapReq());
+		}
+		return resourceBuilder.build();
+	}
+
+	private CapReqBuilder parseCapReq() {
+		String namespace = namespaces[readCount()];
+		CapReqBuilder capReqBuilder = new CapReqBuilder(namespace);
+		for (int i = readCount(); i > 0; i--) {
+			capReqBuilder.addDirective(readString(), readString());
+		}
+		boolean isContent = ContentNamespace.CONTENT_NAMESPACE.equals(namespace);
+		for (int i = readCount(); i > 0; i--) {
+			String attributeName = readString();
+			int type = readCount() - 1;
+			int value = readCount();
+			Object attributeValue;
+			if (isContent && ContentNamespace.CAPABILITY_URL_ATTRIBUTE.equals(attributeName)) {
+				attributeValue = url.resolve(string(value))
+					.toString();
+			} else {
+				attributeValue = value(type, value);
+			}
+			capReqBuilder.addAttribute(attributeName, attributeValue);
+		}
+		return capReqBuilder;
+	}
+
+	/**
+	 * Convert a typed value like the XML parser does. Lists are mutable so only
+	 * scalar values are shared.
+	 */
+	private Object value(int type, int value) {
+		if (type < 0) {
+			return string(value);
+		}
+		String typeName = string(type);
+		if (typeName.startsWith("List")) {
+			return Attrs.convert(typeName, string(value));
+		}
+		Long key = ((long) type << 32) | value;
+		Object converted = values.get(key);
+		if (converted == null) {
+			converted = Attrs.convert(typeName, string(value));
+			values.put(key, converted);
+		}
+		return converted;
+	}
+
+	private String readString() {
+		return string(readCount());
+	}
+
+	private String readNullableString() {
+		int index = readCount() - 1;
+		return (index < 0) ? null : string(index);
+	}
+
+	private String string(int index) {
+		String s = strings[index];
+		if (s == null) {
+			ByteBuffer bb = buffer.duplicate();
+			bb.position(offsets[index]);
+			int length = readCount(bb);
+			byte[] bytes = new byte[length];
+			bb.get(bytes);
+			strings[index] = s = new String(bytes, StandardCharsets.UTF_8);
+		}
+		return s;
+	}
+
+	private int readCount() {
+		return readCount(buffer);
+	}
+
+	/**
+	 * Read an unsigned variable length int.
+	 */
+	static int readCount(ByteBuffer bb) {
+		int result = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			int b = bb.get();
+			result |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				if (result < 0) {
+					throw new IllegalArgumentException("Invalid count " + result);
+				}
+				return result;
+			}
+		}
+		throw new IllegalArgumentException("Invalid count");
+	}
+}
@@ -10,6 +10,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -50,8 +51,15 @@ public class BridgeRepository {
 		allBndInfo = rb.buildSyntheticRequirement();
 	}
 
+	final static int										MAX_LISTED	= 256;
+	final static Pattern									GLOB_P		= Pattern.compile("[*?+\\\\\\[\\]{}(),|]");
+
 	private final Repository								repository;
-	private final Map<String, Map<Version, ResourceInfo>>	index	= new HashMap<>();
+	private final Map<String, Map<Version, ResourceInfo>>	index		= new HashMap<>();
+	/*
+	 * The index does not change, so the bsns matching a pattern are kept
+	 */
+	private final Map<String, List<String>>					listed		= new ConcurrentHashMap<>();
 
 	@ProviderType
 	public interface InfoCapability extends Capability {
@@ -275,23 +283,37 @@ public class BridgeRepository {
 	}
 
 	public List<String> list(String pattern) throws Exception {
-		List<String> bsns = new ArrayList<>();
 		if (pattern == null || pattern.equals("*") || pattern.equals("")) {
-			bsns.addAll(index.keySet());
-		} else {
-			String[] split = pattern.split("\\s+");
-			Glob globs[] = new Glob[split.length];
-			for (int i = 0; i < split.length; i++) {
+			return new ArrayList<>(index.keySet());
+		}
+		if (listed.size() >= MAX_LISTED) {
+			listed.clear();
+		}
+		return new ArrayList<>(listed.computeIfAbsent(pattern, this::select));
+	}
+
+	private List<String> select(String pattern) {
+		List<String> bsns = new ArrayList<>();
+		String[] split = pattern.split("\\s+");
+		Glob globs[] = new Glob[split.length];
+		String literals[] = new String[split.length];
+		for (int i = 0; i < split.length; i++) {
+			if (GLOB_P.matcher(split[i])
+				.find()) {
 				globs[i] = new Glob(split[i]);
+			} else {
+				// a glob without wildcards matches when it is contained
+				literals[i] = split[i];
 			}
+		}
 
-			outer: for (String bsn : index.keySet()) {
-				for (Glob g : globs) {
-					if (g.matcher(bsn)
+		outer: for (String bsn : index.keySet()) {
+			for (int i = 0; i < split.length; i++) {
+				if ((literals[i] != null) ? bsn.contains(literals[i])
+					: globs[i].matcher(bsn)
 						.find()) {
-						bsns.add(bsn);
-						continue outer;
-					}
+					bsns.add(bsn);
+					continue outer;
 				}
 			}
 		}
@@ -2,6 +2,8 @@ package aQute.bnd.osgi.repository;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -9,8 +11,11 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 import java.util.stream.Collector;
+import java.util.stream.Stream;
 
+import org.osgi.namespace.service.ServiceNamespace;
 import org.osgi.resource.Capability;
+import org.osgi.resource.Namespace;
 import org.osgi.resource.Requirement;
 import org.osgi.resource.Resource;
 
@@ -24,6 +29,8 @@ import aQute.bnd.service.resource.SupportingResource;
 public class ResourcesRepository extends BaseRepository {
 	private final Set<Resource>									resources;
 	private final Map<String, Predicate<Map<String, Object>>>	cache;
+	private final Map<String, Map<String, String>>				requiredValues;
+	private volatile Map<String, Providers>						providers;
 
 	/**
 	 * Creates a new resources repository with an empty set of resources.
@@ -31,6 +38,7 @@ public class ResourcesRepository extends BaseRepository {
 	public ResourcesRepository() {
 		resources = new LinkedHashSet<>();
 		cache = new ConcurrentHashMap<>();
+		requiredValues = new ConcurrentHashMap<>();
 	}
 
 	/**
@@ -71,13 +79,50 @@ public class ResourcesRepository extends BaseRepository {
 	 * @return A list of capabilities that satisfy the requirement.
 	 */
 	public List<Capability> findProvider(Requirement requirement) {
-		String namespace = requirement.getNamespace();
-		return resources.stream()
-			.flatMap(resource -> ResourceUtils.capabilityStream(resource, namespace))
+		Providers namespaceProviders = providers().get(requirement.getNamespace());
+		if (namespaceProviders == null) {
+			return new ArrayList<>();
+		}
+		String filterString = requirement.getDirectives()
+			.get(Namespace.REQUIREMENT_FILTER_DIRECTIVE);
+		String value = (filterString == null) ? null
+			: requiredValues.computeIfAbsent(filterString, ResourceUtils::filterRequiredValues)
+				.get(namespaceProviders.attribute);
+		return namespaceProviders.candidates(value)
 			.filter(ResourceUtils.matcher(requirement, this::filterPredicate))
 			.collect(ResourceUtils.toCapabilities());
 	}
 
+	/**
+	 * Gets the index of the capabilities of the resources by namespace. The
+	 * index is created when it is first needed and then kept up to date when
+	 * resources are added.
+	 */
+	private Map<String, Providers> providers() {
+		Map<String, Providers> current = providers;
+		if (current != null) {
+			return current;
+		}
+		synchronized (resources) {
+			current = providers;
+			if (current == null) {
+				current = new ConcurrentHashMap<>();
+				for (Resource resource : resources) {
+					index(current, resource);
+				}
+				providers = current;
+			}
+			return current;
+		}
+	}
+
+	private static void index(Map<String, Providers> providers, Resource resource) {
+		for (Capability capability : resource.getCapabilities(null)) {
+			providers.computeIfAbsent(capability.getNamespace(), Providers::new)
+				.add(capability);
+		}
+	}
+
 	/**
 	 * Gets the predicate that filters capabilities based on the specified
 	 * filter string.
@@ -100,9 +145,21 @@ public class ResourcesRepository extends BaseRepository {
 	 */
 	public void add(Resource resource) {
 		if (resource != null) {
-			resources.add(resource);
+			add0(resource);
 			if (resource instanceof SupportingResource cr)
-				resources.addAll(cr.getSupportingResources());
+				cr.getSupportingResources()
+					.forEach(this::add0);
+		}
+	}
+
+	private void add0(Resource resource) {
+		synchronized (resources) {
+			if (resources.add(resource)) {
+				Map<String, Providers> current = providers;
+				if (current != null) {
+					index(current, resource);
+				}
+			}
 		}
 	}
 
@@ -122,7 +179,10 @@ public class ResourcesRepository extends BaseRepository {
 	 * @param resources The resources to set.
 	 */
 	protected void set(Collection<? extends Resource> resources) {
-		this.resources.clear();
+		synchronized (this.resources) {
+			this.resources.clear();
+			providers = null;
+		}
 		addAll(resources);
 	}
 
@@ -182,4 +242,69 @@ public class ResourcesRepository extends BaseRepository {
 	public String toString() {
 		return resources.toString();
 	}
+
+	/**
+	 * The capabilities of a namespace in the order of the resources. The
+	 * capabilities are also indexed by the string values of the primary
+	 * attribute of the namespace, so a requirement whose filter requires a
+	 * value of that attribute only has to match the capabilities with that
+	 * value.
+	 */
+	private static final class Providers {
+		private final String						attribute;
+		private final List<Capability>				capabilities	= new ArrayList<>();
+		private final Map<String, List<Integer>>	byValue			= new HashMap<>();
+		private final List<Integer>					unindexed		= new ArrayList<>();
+
+		Providers(String namespace) {
+			attribute = ServiceNamespace.SERVICE_NAMESPACE.equals(namespace)
+				? ServiceNamespace.CAPABILITY_OBJECTCLASS_ATTRIBUTE
+				: namespace;
+		}
+
+		synchronized void add(Capability capability) {
+			Integer position = capabilities.size();
+			capabilities.add(capability);
+			Object value = capability.getAttributes()
+				.get(attribute);
+			if (value instanceof String string) {
+				byValue.computeIfAbsent(string, k -> new ArrayList<>())
+					.add(position);
+			} else if ((value instanceof Collection<?> collection) && collection.stream()
+				.allMatch(String.class::isInstance)) {
+				for (Object element : new LinkedHashSet<>(collection)) {
+					byValue.computeIfAbsent((String) element, k -> new ArrayList<>())
+						.add(position);
+				}
+			} else if (value != null) {
+				// other types are converted when matched
+				unindexed.add(position);
+			}
+		}
+
+		/**
+		 * Answer the capabilities that can match a requirement.
+		 *
+		 * @param value the value of the attribute required by the filter of
+		 *            the requirement or {@code null}
+		 */
+		synchronized Stream<Capability> candidates(String value) {
+			if (value == null) {
+				return new ArrayList<>(capabilities).stream();
+			}
+			List<Integer> indexed = byValue.getOrDefault(value, Collections.emptyList());
+			List<Capability> candidates = new ArrayList<>(indexed.size() + unindexed.size());
+			// merge to keep the order of the resources
+			int i = 0, j = 0;
+			while ((i < indexed.size()) || (j < unindexed.size())) {
+				if ((j == unindexed.size())
+					|| ((i < indexed.size()) && (indexed.get(i) < unindexed.get(j)))) {
+					candidates.add(capabilities.get(indexed.get(i++)));
+				} else {
+					candidates.add(capabilities.get(unindexed.get(j++)));
+				}
+			}
+			return candidates.stream();
+		}
+	}
 }
@@ -7,12 +7,19 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
 
 import org.osgi.annotation.versioning.ConsumerType;
@@ -20,8 +27,13 @@ import org.osgi.resource.Resource;
 
 import aQute.bnd.exceptions.Exceptions;
 import aQute.bnd.osgi.Domain;
+import aQute.bnd.osgi.Processor;
 import aQute.bnd.osgi.resource.ResourceBuilder;
+import aQute.bnd.osgi.resource.ResourceUtils;
+import aQute.bnd.osgi.resource.ResourceUtils.ContentCapability;
+import aQute.bnd.service.resource.SupportingResource;
 import aQute.lib.io.IO;
+import aQute.libg.cryptography.SHA256;
 import aQute.libg.reporter.slf4j.Slf4jReporter;
 import aQute.service.reporter.Reporter;
 
@@ -29,6 +41,8 @@ import aQute.service.reporter.Reporter;
  * Simple program to generate an index from a set of bundles.
  */
 public class SimpleIndexer {
+	private static final URI	EMPTY			= URI.create("");
+	private static final String	CACHE_EXTENSION	= ".bndx";
 
 	/**
 	 * A functional interface providing an entry point for performing additional
@@ -40,7 +54,9 @@ public class SimpleIndexer {
 
 		/**
 		 * <p>
-		 * This method is invoked for each file being indexed. Implementations
+		 * This method is invoked for each file being indexed. The files are
+		 * indexed in parallel but this method is invoked for one file at a
+		 * time. Implementations
 		 * may inspect the requirements and capabilities already assembled from
 		 * the file. They may add zero or more capabilities and/or requirements
 		 * to the supplied resource builder possibly extracted as additional
@@ -73,6 +89,7 @@ public class SimpleIndexer {
 	private String			name;
 	private long			increment	= -1L;
 	private FileAnalyzer	analyzer;
+	private File			cache;
 	private Reporter		reporter	= new Slf4jReporter(SimpleIndexer.class);
 
 	public SimpleIndexer() {}
@@ -123,6 +140,22 @@ public class SimpleIndexer {
 		return this;
 	}
 
+	/**
+	 * The resources of the indexed files are cached in the directory. A file
+	 * is only analyzed again when its path, size, last modified time or
+	 * SHA-256 hash changes, so indexing a large set of files again only
+	 * analyzes the new or changed files. The directory must only be used by
+	 * this index, the entries of files which are no longer indexed are
+	 * removed.
+	 *
+	 * @param cache the directory to cache the resources in, or {@code null} to
+	 *            not cache the resources
+	 */
+	public SimpleIndexer cache(File cache) {
+		this.cache = cache;
+		return this;
+	}
+
 	/**
 	 * @param increment the timestamp of the index
 	 */
@@ -152,17 +185,59 @@ public class SimpleIndexer {
 	}
 
 	/**
-	 * Return the resources so far.
+	 * Return the resources so far. The files are indexed in parallel, the
+	 * resources are in the order of the files.
 	 *
 	 * @return the set of resources handled so far.
 	 */
 	public List<Resource> getResources() {
-		List<Resource> resources = files.stream()
+		List<File> indexed = files.stream()
 			.filter(f -> f.isFile() && !f.isHidden() && f.canRead())
-			.map(this::indexFile)
+			.toList();
+		Set<String> used = ConcurrentHashMap.newKeySet();
+		Resource[] resources = new Resource[indexed.size()];
+		parallel(indexed.size(), i -> resources[i] = indexFile(indexed.get(i), used));
+		if (cache != null) {
+			evict(used);
+		}
+		return Arrays.stream(resources)
 			.filter(Objects::nonNull)
 			.collect(Collectors.toList());
-		return resources;
+	}
+
+	/**
+	 * Run the task for each index from 0 to size - 1 on the bnd executor. The
+	 * current thread is one of the workers.
+	 */
+	private static void parallel(int size, IntConsumer task) {
+		int workers = Math.min(Runtime.getRuntime()
+			.availableProcessors(), size);
+		AtomicInteger next = new AtomicInteger();
+		Runnable worker = () -> {
+			for (int i; (i = next.getAndIncrement()) < size;) {
+				task.accept(i);
+			}
+		};
+
+		CountDownLatch done = new CountDownLatch(Math.max(workers - 1, 0));
+		Executor executor = Processor.getExecutor();
+		for (int w = 1; w < workers; w++) {
+			executor.execute(() -> {
+				try {
+					worker.run();
+				} finally {
+					done.countDown();
+				}
+			});
+		}
+		worker.run();
+		try {
+			done.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread()
+				.interrupt();
+			throw Exceptions.duck(e);
+		}
 	}
 
 	public SimpleIndexer reporter(Reporter reporter) {
@@ -187,21 +262,107 @@ public class SimpleIndexer {
 		return repository;
 	}
 
-	private Resource indexFile(File file) {
+	private Resource indexFile(File file, Set<String> used) {
 		try {
 			ResourceBuilder resourceBuilder = new ResourceBuilder();
-			if (resourceBuilder.addFile(file, relativize(file))) {
+			URI uri = relativize(file);
+			boolean hasIdentity;
+			if (cache != null) {
+				Resource resource = cached(file, uri, used);
+				resourceBuilder.addResource(resource);
+				hasIdentity = ResourceUtils.getIdentityCapability(resource) != null;
+			} else {
+				hasIdentity = resourceBuilder.addFile(file, uri);
+			}
+			if (hasIdentity) {
 				if (analyzer != null) {
-					analyzer.analyzeFile(file, resourceBuilder.safeResourceBuilder());
+					synchronized (analyzer) {
+						analyzer.analyzeFile(file, resourceBuilder.safeResourceBuilder());
+					}
 				}
 				return resourceBuilder.build();
 			}
 		} catch (Exception e) {
-			reporter.exception(e, "Could not index file %s", file);
+			synchronized (reporter) {
+				reporter.exception(e, "Could not index file %s", file);
+			}
 		}
 		return null;
 	}
 
+	/**
+	 * Get the resource of the file from the cache or analyze the file and
+	 * cache its resource. The cache entry is kept in the binary index form and
+	 * is keyed by the path of the file. The entry is valid while the file has
+	 * the same size and last modified time. When only the last modified time
+	 * changed, like for a file copied again, the entry is still valid if the
+	 * file has the same SHA-256 hash. Resources with supporting resources,
+	 * like multi-release jars, are not cached.
+	 */
+	private Resource cached(File file, URI uri, Set<String> used) throws Exception {
+		String key = file.getAbsolutePath()
+			.concat("\n")
+			.concat(uri.toString());
+		String name = SHA256.digest(key.getBytes(StandardCharsets.UTF_8))
+			.asHex()
+			.concat(CACHE_EXTENSION);
+		used.add(name);
+		File entry = IO.getFile(cache, name);
+		long lastModified = file.lastModified();
+		if (entry.isFile()) {
+			try {
+				List<Resource> resources = BinaryResourceParser.getResources(entry, EMPTY);
+				if (resources.size() == 1) {
+					Resource resource = resources.get(0);
+					ContentCapability content = ResourceUtils.getContentCapability(resource);
+					if ((content != null) && uri.equals(content.url()) && (content.size() == file.length())) {
+						if (entry.lastModified() == lastModified) {
+							return resource;
+						}
+						if (SHA256.digest(file)
+							.asHex()
+							.equalsIgnoreCase(content.osgi_content())) {
+							entry.setLastModified(lastModified);
+							return resource;
+						}
+					}
+				}
+			} catch (IOException e) {
+				synchronized (reporter) {
+					reporter.trace("Unable to read the cached resource %s of %s: %s", entry, file, e);
+				}
+			}
+		}
+		SupportingResource resource = ResourceBuilder.parse(file, uri);
+		if (resource.hasIdentity() && resource.getSupportingResources()
+			.isEmpty()) {
+			try {
+				new XMLResourceGenerator().resource(resource)
+					.saveBinary(entry);
+				entry.setLastModified(lastModified);
+			} catch (IOException e) {
+				synchronized (reporter) {
+					reporter.trace("Unable to cache the resource of %s in %s: %s", file, entry, e);
+				}
+			}
+		}
+		return resource;
+	}
+
+	/**
+	 * Remove the cache entries of the files which are no longer indexed, so
+	 * the cache holds at most one entry per indexed file.
+	 */
+	private void evict(Set<String> used) {
+		File[] entries = cache.listFiles((dir, name) -> name.endsWith(CACHE_EXTENSION) && !used.contains(name));
+		if (entries == null) {
+			return;
+		}
+		for (File entry : entries) {
+			IO.delete(entry);
+		}
+	}
+
 	private URI relativize(File file) {
 		if (base == null) {
 			return file.toURI();
@@ -218,8 +379,10 @@ public class SimpleIndexer {
 		} catch (URISyntaxException e) {
 			throw Exceptions.duck(e);
 		}
-		reporter.trace("Resolving %s relative to %s; Relative Path: %s, URI: %s", filePath, base, relativePath,
-			relativeURI);
+		synchronized (reporter) {
+			reporter.trace("Resolving %s relative to %s; Relative Path: %s, URI: %s", filePath, base, relativePath,
+				relativeURI);
+		}
 		return relativeURI;
 	}
 
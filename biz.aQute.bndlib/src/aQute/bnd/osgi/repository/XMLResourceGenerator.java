@@ -17,6 +17,9 @@ import static aQute.bnd.osgi.repository.XMLResourceConstants.TAG_REPOSITORY;
 import static aQute.bnd.osgi.repository.XMLResourceConstants.TAG_REQUIREMENT;
 import static aQute.bnd.osgi.repository.XMLResourceConstants.TAG_RESOURCE;
 
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
@@ -26,9 +29,11 @@ import java.io.Writer;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -57,6 +62,7 @@ public class XMLResourceGenerator {
 
 	private Tag				repository	= new Tag(TAG_REPOSITORY);
 	private Set<Resource>	visited		= new HashSet<>();
+	private List<Resource>	resources	= new ArrayList<>();
 	private int				indent		= 0;
 	private boolean			compress	= false;
 	private URI				base;
@@ -111,6 +117,121 @@ public class XMLResourceGenerator {
 		}
 	}
 
+	/**
+	 * Saves the resources of this generator in the binary form to the
+	 * specified file. See {@link BinaryResourceParser}.
+	 *
+	 * @param location The file to save the resources to.
+	 * @throws IOException If an I/O error occurs.
+	 */
+	public void saveBinary(File location) throws IOException {
+		IO.mkdirs(location.getParentFile());
+		File tmp = IO.createTempFile(location.getParentFile(), "index", ".bndx");
+
+		try (OutputStream out = IO.outputStream(tmp)) {
+			saveBinary(out);
+		}
+		IO.rename(tmp, location);
+	}
+
+	/**
+	 * Saves the resources of this generator in the binary form to the
+	 * specified output stream. Referrals are not saved. See
+	 * {@link BinaryResourceParser}.
+	 *
+	 * @param out The output stream to save the resources to.
+	 * @throws IOException If an I/O error occurs.
+	 */
+	public void saveBinary(OutputStream out) throws IOException {
+		Map<String, Integer> strings = new LinkedHashMap<>();
+		Map<String, Integer> namespaces = new LinkedHashMap<>();
+		ByteArrayOutputStream bout = new ByteArrayOutputStream(resources.size() * 1024);
+		try (DataOutputStream body = new DataOutputStream(bout)) {
+			writeCount(body, resources.size());
+			for (Resource resource : resources) {
+				List<Capability> caps = resource.getCapabilities(null);
+				writeCount(body, caps.size());
+				for (Capability cap : caps) {
+					binary(body, strings, namespaces, cap.getNamespace(), cap.getDirectives(), cap.getAttributes());
+				}
+				List<Requirement> reqs = resource.getRequirements(null);
+				writeCount(body, reqs.size());
+				for (Requirement req : reqs) {
+					binary(body, strings, namespaces, req.getNamespace(), req.getDirectives(), req.getAttributes());
+				}
+			}
+		}
+		String name = repository.getAttribute(ATTR_REPOSITORY_NAME);
+		int nameIndex = (name != null) ? index(strings, name) + 1 : 0;
+		String increment = repository.getAttribute(ATTR_REPOSITORY_INCREMENT);
+
+		try (DataOutputStream dout = new DataOutputStream(new BufferedOutputStream(out))) {
+			dout.writeInt(BinaryResourceParser.MAGIC);
+			dout.writeInt(BinaryResourceParser.FORMAT);
+			dout.writeLong((increment != null) ? Long.parseLong(increment) : 0L);
+			writeCount(dout, strings.size());
+			for (String s : strings.keySet()) {
+				byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+				writeCount(dout, bytes.length);
+				dout.write(bytes);
+			}
+			writeCount(dout, nameIndex);
+			writeCount(dout, namespaces.size());
+			for (String namespace : namespaces.keySet()) {
+				writeCount(dout, strings.get(namespace));
+			}
+			bout.writeTo(dout);
+		}
+	}
+
+	private void binary(DataOutputStream body, Map<String, Integer> strings, Map<String, Integer> namespaces,
+		String namespace, Map<String, String> directives, Map<String, Object> attributes) throws IOException {
+		index(strings, namespace);
+		writeCount(body, index(namespaces, namespace));
+		writeCount(body, directives.size());
+		for (Map.Entry<String, String> e : directives.entrySet()) {
+			writeCount(body, index(strings, e.getKey()));
+			writeCount(body, index(strings, e.getValue()));
+		}
+		boolean isContent = ContentNamespace.CONTENT_NAMESPACE.equals(namespace);
+		List<Map.Entry<String, TypedAttribute>> typed = MapStream.of(attributes)
+			.filterValue(Objects::nonNull)
+			.mapValue(TypedAttribute::getTypedAttribute)
+			.filterValue(Objects::nonNull)
+			.entries()
+			.toList();
+		writeCount(body, typed.size());
+		for (Map.Entry<String, TypedAttribute> e : typed) {
+			String key = e.getKey();
+			TypedAttribute ta = e.getValue();
+			String value = (isContent && ContentNamespace.CAPABILITY_URL_ATTRIBUTE.equals(key)) ? relativize(ta.value)
+				: ta.value;
+			writeCount(body, index(strings, key));
+			writeCount(body, (ta.type != null) ? index(strings, ta.type) + 1 : 0);
+			writeCount(body, index(strings, value));
+		}
+	}
+
+	private static int index(Map<String, Integer> strings, String s) {
+		Integer index = strings.get(s);
+		if (index == null) {
+			index = strings.size();
+			strings.put(s, index);
+		}
+		return index;
+	}
+
+	/**
+	 * Write an unsigned variable length int.
+	 */
+	private static void writeCount(DataOutputStream out, int count) throws IOException {
+		while ((count & ~0x7F) != 0) {
+			out.writeByte((count & 0x7F) | 0x80);
+			count >>>= 7;
+		}
+		out.writeByte(count);
+	}
+
 	/**
 	 * Note that calling {@link #name(String)} sets increment to
 	 * {@link System#currentTimeMillis()}. In order to retain backward
@@ -206,6 +327,7 @@ public class XMLResourceGenerator {
 	}
 
 	void resource0(Resource resource) {
+		resources.add(resource);
 		Tag r = new Tag(repository, TAG_RESOURCE);
 		List<Capability> caps = resource.getCapabilities(null);
 		caps.forEach(cap -> {
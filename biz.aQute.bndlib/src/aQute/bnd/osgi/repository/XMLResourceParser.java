@@ -25,6 +25,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamConstants;
@@ -137,6 +138,13 @@ public class XMLResourceParser extends Processor {
 		return increment;
 	}
 
+	/**
+	 * Answer if the parsed index referred to other indexes.
+	 */
+	public boolean hasReferrals() {
+		return !traversed.isEmpty();
+	}
+
 	List<Resource> getResources() {
 		if (!isOk())
 			return null;
@@ -145,18 +153,34 @@ public class XMLResourceParser extends Processor {
 	}
 
 	public List<Resource> parse() throws Exception {
-		if (!check(reader.hasNext(), "No content found"))
+		if (!parse(resources::add))
 			return null;
+		return getResources();
+	}
+
+	/**
+	 * Parse the index and pass each resource to the consumer as soon as it is
+	 * read. This allows the processing of the resources to overlap with the
+	 * parsing and the resources do not have to be held by the parser. The
+	 * resources of referred indexes are passed to the consumer as well.
+	 *
+	 * @param consumer receives the resources in the order of the index
+	 * @return {@code true} if the index was parsed without errors
+	 * @throws Exception if the index cannot be read
+	 */
+	public boolean parse(Consumer<? super Resource> consumer) throws Exception {
+		if (!check(reader.hasNext(), "No content found"))
+			return false;
 
 		next();
 
 		if (!check(reader.isStartElement(), "Expected a start element at the root, is %s", reader.getEventType()))
-			return null;
+			return false;
 
 		String localName = reader.getLocalName();
 		if (!check(TAG_REPOSITORY.equals(localName), "Invalid tag name of top element, expected %s, got %s",
 			TAG_REPOSITORY, localName))
-			return null;
+			return false;
 
 		String nsUri = reader.getNamespaceURI();
 		if (nsUri != null) {
@@ -174,9 +198,9 @@ public class XMLResourceParser extends Processor {
 		while (reader.isStartElement()) {
 			localName = reader.getLocalName();
 			if (localName.equals(TAG_REFERRAL))
-				parseReferral();
+				parseReferral(consumer);
 			else if (localName.equals(TAG_RESOURCE))
-				parseResource(resources);
+				parseResource(consumer);
 			else {
 				check(false, "Unexpected element %s", localName);
 				next();
@@ -185,7 +209,7 @@ public class XMLResourceParser extends Processor {
 
 		check(reader.isEndElement() && reader.getLocalName()
 			.equals(TAG_REPOSITORY), "Expected to be at the end but are on %s", reader.getLocalName());
-		return getResources();
+		return isOk();
 	}
 
 	public void next() throws XMLStreamException {
@@ -206,7 +230,7 @@ public class XMLResourceParser extends Processor {
 		}
 	}
 
-	private void parseReferral() throws Exception {
+	private void parseReferral(Consumer<? super Resource> consumer) throws Exception {
 		if (--depth < 0)
 			error("Too deep, traversed %s", traversed);
 		else {
@@ -225,8 +249,7 @@ public class XMLResourceParser extends Processor {
 				InputStream in = url.toURL()
 					.openStream();
 				try (XMLResourceParser referralParser = new XMLResourceParser(in, urlString, depth, traversed, url)) {
-					referralParser.parse();
-					resources.addAll(referralParser.resources);
+					referralParser.parse(consumer);
 				}
 
 			}
@@ -243,7 +266,7 @@ public class XMLResourceParser extends Processor {
 		next();
 	}
 
-	private void parseResource(List<Resource> resources) throws Exception {
+	private void parseResource(Consumer<? super Resource> consumer) throws Exception {
 		ResourceBuilder resourceBuilder = new ResourceBuilder();
 
 		next();
@@ -251,7 +274,7 @@ public class XMLResourceParser extends Processor {
 			parseCapabilityOrRequirement(resourceBuilder);
 		}
 		Resource resource = resourceBuilder.build();
-		resources.add(resource);
+		consumer.accept(resource);
 		tagEnd(TAG_RESOURCE);
 	}
 
@@ -5,24 +5,81 @@ import static java.util.Objects.requireNonNull;
 import java.util.Map;
 import java.util.Objects;
 
+import org.osgi.framework.Version;
 import org.osgi.resource.Capability;
 import org.osgi.resource.Requirement;
 import org.osgi.resource.Resource;
 
 import aQute.bnd.unmodifiable.Maps;
+import aQute.lib.collections.WeakInterner;
 
+/**
+ * The directives and attributes of capabilities and requirements are interned.
+ * Most of them repeat across the resources of a repository, like the
+ * directives of the {@code osgi.ee} requirements or the versions of packages,
+ * so the memory used by the capabilities and requirements grows with the
+ * distinct metadata rather than with the number of resources.
+ */
 abstract class CapReq {
-	private final String				namespace;
-	private final Resource				resource;
-	private final Map<String, String>	directives;
-	private final Map<String, Object>	attributes;
-	private transient int				hashCode	= 0;
+	private final static WeakInterner<Map<String, ?>, Map<String, ?>>	maps		= new WeakInterner<>();
+	private final static WeakInterner<Object, Object>					values		= new WeakInterner<>();
+	private final String												namespace;
+	private final Resource												resource;
+	private final Map<String, String>									directives;
+	private final Map<String, Object>									attributes;
+	private transient int												hashCode	= 0;
 
 	CapReq(String namespace, Resource resource, Map<String, String> directives, Map<String, Object> attributes) {
-		this.namespace = requireNonNull(namespace);
+		this.namespace = requireNonNull(namespace).intern();
 		this.resource = resource;
-		this.directives = Maps.copyOf(directives);
-		this.attributes = new DeferredValueMap<>(Maps.copyOf(attributes));
+		this.directives = intern(directives);
+		this.attributes = new DeferredValueMap<>(intern(attributes));
+	}
+
+	/**
+	 * Intern the map and its keys and values. Maps holding values that are not
+	 * known to be immutable, like lists or deferred values, are copied and only
+	 * their keys and immutable values are interned.
+	 */
+	@SuppressWarnings({
+		"unchecked", "rawtypes"
+	})
+	private static <V> Map<String, V> intern(Map<String, V> map) {
+		if (map.isEmpty()) {
+			return Maps.of();
+		}
+		boolean immutable = true;
+		Map.Entry<String, V>[] entries = new Map.Entry[map.size()];
+		int i = 0;
+		for (Map.Entry<String, V> entry : map.entrySet()) {
+			V value = entry.getValue();
+			if (value instanceof String string) {
+				value = (V) string.intern();
+			} else if ((value instanceof Version) || (value instanceof Long) || (value instanceof Double)) {
+				value = (V) values.intern(value, value);
+			} else {
+				immutable = false;
+			}
+			entries[i++] = Maps.entry(entry.getKey()
+				.intern(), value);
+		}
+		Map<String, V> copy = Maps.ofEntries(entries);
+		if (!immutable) {
+			return copy;
+		}
+		Map<String, V> interned = (Map<String, V>) maps.intern(copy, copy);
+		// equal maps can differ in the order of their keys
+		return sameOrder(interned, entries) ? interned : copy;
+	}
+
+	private static boolean sameOrder(Map<String, ?> map, Map.Entry<String, ?>[] entries) {
+		int i = 0;
+		for (String key : map.keySet()) {
+			if (key != entries[i++].getKey()) {
+				return false;
+			}
+		}
+		return true;
 	}
 
 	public String getNamespace() {
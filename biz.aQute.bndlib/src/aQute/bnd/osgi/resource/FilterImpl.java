@@ -246,6 +246,16 @@ abstract class FilterImpl implements Filter {
 
 	abstract boolean matches0(Map<String, ?> map);
 
+	/**
+	 * Collect the values that attributes must be equal to for this filter to
+	 * match.
+	 *
+	 * @param values the required values by attribute name
+	 */
+	void requiredValues(Map<String, String> values) {
+		// no required values
+	}
+
 	/**
 	 * Returns this {@code Filter}'s filter string.
 	 * <p>
@@ -329,6 +339,13 @@ abstract class FilterImpl implements Filter {
 			return true;
 		}
 
+		@Override
+		void requiredValues(Map<String, String> values) {
+			for (FilterImpl operand : operands) {
+				operand.requiredValues(values);
+			}
+		}
+
 		@Override
 		StringBuilder normalize(StringBuilder sb) {
 			sb.append('(')
@@ -393,7 +410,8 @@ abstract class FilterImpl implements Filter {
 		final String attr;
 
 		Item(String attr) {
-			this.attr = attr;
+			// most attribute keys are interned constants
+			this.attr = attr.intern();
 		}
 
 		@Override
@@ -688,22 +706,53 @@ abstract class FilterImpl implements Filter {
 	}
 
 	static class Equal extends Item {
-		final String	value;
-		private Object	cached;
+		final String		value;
+		private Converted	converted;
+
+		/**
+		 * The value converted to a type, {@code null} if the value cannot be
+		 * converted to the type.
+		 */
+		private record Converted(Class<?> type, Object value) {}
 
 		Equal(String attr, String value) {
 			super(attr);
 			this.value = value;
 		}
 
+		@Override
+		void requiredValues(Map<String, String> values) {
+			// subclasses compare differently
+			if (getClass() == Equal.class) {
+				values.putIfAbsent(attr, value);
+			}
+		}
+
+		/**
+		 * Convert the value to the type of the attribute values. The last
+		 * conversion is kept since a filter is mostly matched against values
+		 * of the same type. A failed conversion is also kept so it is not
+		 * tried again.
+		 *
+		 * @return the converted value or {@code null} if the value cannot be
+		 *         converted
+		 */
 		private <T> T convert(Class<T> type, Function<String, ? extends T> converter) {
-			@SuppressWarnings("unchecked")
-			T converted = (T) cached;
-			if ((converted != null) && type.isInstance(converted)) {
-				return converted;
+			Converted c = converted;
+			if ((c == null) || (c.type() != type)) {
+				Object convertedValue;
+				try {
+					convertedValue = converter.apply(value.trim());
+				} catch (RuntimeException e) {
+					convertedValue = null;
+				}
+				converted = c = new Converted(type, convertedValue);
 			}
-			cached = converted = converter.apply(value.trim());
-			return converted;
+			return type.cast(c.value());
+		}
+
+		private <T> T convert(Class<T> type) {
+			return convert(type, v -> type.cast(valueOf(type)));
 		}
 
 		boolean comparison(int compare) {
@@ -717,13 +766,11 @@ abstract class FilterImpl implements Filter {
 
 		@Override
 		boolean compare_Version(Version value1) {
-			try {
-				Version version2 = convert(Version.class, Version::valueOf);
-				return comparison(value1.compareTo(version2));
-			} catch (Exception e) {
-				// if the valueOf or compareTo method throws an exception
+			Version version2 = convert(Version.class, Version::valueOf);
+			if (version2 == null) {
 				return false;
 			}
+			return comparison(value1.compareTo(version2));
 		}
 
 		@Override
@@ -745,40 +792,34 @@ abstract class FilterImpl implements Filter {
 
 		@Override
 		boolean compare_Double(double doubleval) {
-			double doubleval2;
-			try {
-				doubleval2 = convert(Double.class, Double::valueOf).doubleValue();
-			} catch (IllegalArgumentException e) {
+			Double doubleval2 = convert(Double.class, Double::valueOf);
+			if (doubleval2 == null) {
 				return false;
 			}
-			return comparison(Double.compare(doubleval, doubleval2));
+			return comparison(Double.compare(doubleval, doubleval2.doubleValue()));
 		}
 
 		@Override
 		boolean compare_Float(float floatval) {
-			float floatval2;
-			try {
-				floatval2 = convert(Float.class, Float::valueOf).floatValue();
-			} catch (IllegalArgumentException e) {
+			Float floatval2 = convert(Float.class, Float::valueOf);
+			if (floatval2 == null) {
 				return false;
 			}
-			return comparison(Float.compare(floatval, floatval2));
+			return comparison(Float.compare(floatval, floatval2.floatValue()));
 		}
 
 		@Override
 		boolean compare_Long(long longval) {
-			long longval2;
-			try {
-				longval2 = convert(Long.class, Long::valueOf).longValue();
-			} catch (IllegalArgumentException e) {
+			Long longval2 = convert(Long.class, Long::valueOf);
+			if (longval2 == null) {
 				return false;
 			}
-			return comparison(Long.compare(longval, longval2));
+			return comparison(Long.compare(longval, longval2.longValue()));
 		}
 
 		@Override
 		boolean compare_Comparable(Comparable<Object> value1) {
-			Object value2 = valueOf(value1.getClass());
+			Object value2 = convert(value1.getClass());
 			if (value2 == null) {
 				return false;
 			}
@@ -792,7 +833,7 @@ abstract class FilterImpl implements Filter {
 
 		@Override
 		boolean compare_Unknown(Object value1) {
-			Object value2 = valueOf(value1.getClass());
+			Object value2 = convert(value1.getClass());
 			if (value2 == null) {
 				return false;
 			}
@@ -915,8 +956,27 @@ abstract class FilterImpl implements Filter {
 
 		@Override
 		boolean compare_String(String string) {
-			string = approxString(string);
-			return string.equalsIgnoreCase(approx);
+			// compare ignoring white spaces without mapping the string
+			int i = 0;
+			for (int j = 0, len = string.length(); j < len; j++) {
+				char c = string.charAt(j);
+				if (Character.isWhitespace(c)) {
+					continue;
+				}
+				if ((i == approx.length()) || !equalsIgnoreCase(c, approx.charAt(i++))) {
+					return false;
+				}
+			}
+			return i == approx.length();
+		}
+
+		private static boolean equalsIgnoreCase(char c1, char c2) {
+			if (c1 == c2) {
+				return true;
+			}
+			char u1 = Character.toUpperCase(c1);
+			char u2 = Character.toUpperCase(c2);
+			return (u1 == u2) || (Character.toLowerCase(u1) == Character.toLowerCase(u2));
 		}
 
 		@Override
@@ -1021,7 +1021,7 @@ public class ResourceBuilder {
 		if (uri == null)
 			uri = file.toURI();
 
-		try (Jar jar = new Jar(file)) {
+		try (Jar jar = Jar.fromMappedFile(file)) {
 			ResourceBuilder rb = new ResourceBuilder();
 
 			boolean hasIdentity = rb.addJar(jar);
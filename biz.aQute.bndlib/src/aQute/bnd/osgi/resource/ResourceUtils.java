@@ -10,7 +10,6 @@ import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toCollection;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
-import static java.util.stream.Collectors.toSet;
 
 import java.io.File;
 import java.lang.reflect.Method;
@@ -437,6 +436,31 @@ public abstract class ResourceUtils {
 		}
 	}
 
+	/**
+	 * Answer the values that attributes must be equal to for the filter to
+	 * match. For example, {@code (&(osgi.wiring.package=a)(version>=1.0))}
+	 * requires the {@code osgi.wiring.package} attribute to be {@code a}. A
+	 * capability with a string or list of strings attribute can only match the
+	 * filter when the attribute is or contains the required value.
+	 *
+	 * @param filterString the filter string
+	 * @return the required values by attribute name, empty if the filter does
+	 *         not require values or cannot be parsed
+	 */
+	public static Map<String, String> filterRequiredValues(String filterString) {
+		if (filterString == null) {
+			return Maps.of();
+		}
+		try {
+			Map<String, String> values = new LinkedHashMap<>();
+			FilterImpl.createFilter(filterString)
+				.requiredValues(values);
+			return values;
+		} catch (InvalidSyntaxException e) {
+			return Maps.of();
+		}
+	}
+
 	public static boolean matches(Requirement requirement, Resource resource) {
 		return capabilityStream(resource, requirement.getNamespace()).anyMatch(matcher(requirement));
 	}
@@ -468,6 +492,13 @@ public abstract class ResourceUtils {
 		String filterDirective = requirement.getDirectives()
 			.get(Namespace.REQUIREMENT_FILTER_DIRECTIVE);
 		Supplier<Predicate<Map<String, Object>>> predicate = Memoize.supplier(filter, filterDirective);
+		Supplier<Set<String>> filterAttributes = Memoize.supplier(() -> {
+			Set<String> attributes = new HashSet<>();
+			for (Matcher m = ATTR_NAME.matcher(filterDirective); m.find();) {
+				attributes.add(m.group(1));
+			}
+			return attributes;
+		});
 
 		Predicate<Capability> matcher = capability -> {
 			if ((filterDirective != null) && !predicate.get()
@@ -485,13 +516,9 @@ public abstract class ResourceUtils {
 				if (filterDirective == null) {
 					return false;
 				}
-				Set<String> mandatory = Strings.splitAsStream(mandatoryDirective)
-					.collect(toSet());
-				for (Matcher m = ATTR_NAME.matcher(filterDirective); m.find();) {
-					String attr = m.group(1);
-					mandatory.remove(attr);
-				}
-				return mandatory.isEmpty();
+				Set<String> attributes = filterAttributes.get();
+				return Strings.splitAsStream(mandatoryDirective)
+					.allMatch(attributes::contains);
 			}
 			return true;
 		};
@@ -0,0 +1,26 @@
+package aQute.bnd.service.classparser;
+
+import aQute.bnd.osgi.Analyzer;
+import aQute.bnd.osgi.ClassspaceReader;
+import aQute.bnd.service.AnalyzerPlugin;
+
+/**
+ * An analyzer plugin that reads the classes of the classspace. Before the first
+ * of these plugins reads the classspace, the analyzer reads the classes for all
+ * the plugins that have not run yet, so the class file of each class is visited
+ * once for all of them.
+ *
+ * @param <R> the type of the classspace reader
+ */
+public interface ClassspaceReaderPlugin<R extends ClassspaceReader<?>> extends AnalyzerPlugin {
+
+	/**
+	 * Answer a new reader of the classspace of an analyzer.
+	 *
+	 * @param analyzer the analyzer
+	 * @return the reader or {@code null} if the plugin does not read any
+	 *         classes
+	 * @throws Exception
+	 */
+	R getClassspaceReader(Analyzer analyzer) throws Exception;
+}
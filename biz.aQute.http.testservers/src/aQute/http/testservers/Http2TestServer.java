@@ -0,0 +1,270 @@
+package aQute.http.testservers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyStore;
+import java.security.cert.X509Certificate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLServerSocket;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.TrustManagerFactory;
+
+import aQute.http.testservers.HttpTestServer.Config;
+import aQute.lib.io.IO;
+
+/**
+ * A minimal HTTP/2 server over TLS. Only clients that negotiate {@code h2}
+ * with ALPN are served. Every request gets the same response, the
+ * {@link #content} is sent in two DATA frames that are {@link #delay} ms apart.
+ * The server counts the connections and the streams that are open
+ * concurrently, so tests can check how a client multiplexes its requests.
+ * <p>
+ * The request headers are not decoded and the content must be small enough
+ * for the initial flow control windows.
+ */
+public class Http2TestServer implements AutoCloseable, Closeable {
+	private static final byte[]		PREFACE				= "PRI * HTTP/2.0\r\n\r\nSM\r\n\r\n"
+		.getBytes(StandardCharsets.US_ASCII);
+	private static final int		DATA				= 0x0;
+	private static final int		HEADERS				= 0x1;
+	private static final int		RST_STREAM			= 0x3;
+	private static final int		SETTINGS			= 0x4;
+	private static final int		PING				= 0x6;
+	private static final int		GOAWAY				= 0x7;
+	private static final int		END_STREAM			= 0x1;
+	private static final int		ACK					= 0x1;
+	private static final int		END_HEADERS			= 0x4;
+
+	private final Config			config;
+	private final KeyStore			keystore;
+	private final SSLContext		context;
+	private final ExecutorService	executor			= Executors.newCachedThreadPool(Http2TestServer::newThread);
+	private final List<Socket>		sockets				= new CopyOnWriteArrayList<>();
+	private final CountDownLatch	closed				= new CountDownLatch(1);
+	private final AtomicInteger		connections			= new AtomicInteger();
+	private final AtomicInteger		streams				= new AtomicInteger();
+	private final AtomicInteger		open				= new AtomicInteger();
+	private final AtomicInteger		maxOpen				= new AtomicInteger();
+	private SSLServerSocket			server;
+
+	public volatile byte[]			content				= "OK!".getBytes(StandardCharsets.UTF_8);
+	public volatile long			delay;
+
+	public Http2TestServer(Config config) throws Exception {
+		this.config = (config == null) ? new Config() : config;
+		KeyPair pair = Server.createKey(this.config.keysize);
+		X509Certificate[] certificateChain = Server.createSelfSignedCertifcate(pair, "localhost");
+		keystore = Server.createKeystore(this.config.host, pair, certificateChain);
+		context = Server.createTLSContext(keystore);
+	}
+
+	public void start() throws IOException {
+		server = (SSLServerSocket) context.getServerSocketFactory()
+			.createServerSocket(config.port, config.backlog, InetAddress.getByName(config.host));
+		SSLParameters parameters = server.getSSLParameters();
+		parameters.setApplicationProtocols(new String[] {
+			"h2"
+		});
+		server.setSSLParameters(parameters);
+		executor.execute(this::accept);
+	}
+
+	public URI getBaseURI(String path) throws URISyntaxException {
+		while (path.startsWith("/"))
+			path = path.substring(1);
+
+		return new URI("https://" + config.host + ":" + server.getLocalPort() + "/" + path);
+	}
+
+	/**
+	 * Return a TLS context for clients that trusts the certificate of this
+	 * server.
+	 */
+	public SSLContext getClientContext() throws Exception {
+		TrustManagerFactory trustManagerFactory = TrustManagerFactory.getInstance("SunX509");
+		trustManagerFactory.init(keystore);
+		SSLContext ctx = SSLContext.getInstance("TLS");
+		ctx.init(null, trustManagerFactory.getTrustManagers(), Server.random);
+		return ctx;
+	}
+
+	/**
+	 * @return the number of connections that negotiated h2
+	 */
+	public int getConnections() {
+		return connections.get();
+	}
+
+	/**
+	 * @return the number of streams that were opened
+	 */
+	public int getStreams() {
+		return streams.get();
+	}
+
+	/**
+	 * @return the maximum number of streams that were open at the same time
+	 */
+	public int getMaxOpenStreams() {
+		return maxOpen.get();
+	}
+
+	@Override
+	public void close() throws IOException {
+		closed.countDown();
+		IO.close(server);
+		sockets.forEach(IO::close);
+		executor.shutdownNow();
+	}
+
+	private static Thread newThread(Runnable runnable) {
+		Thread thread = new Thread(runnable, "Http2TestServer");
+		thread.setDaemon(true);
+		return thread;
+	}
+
+	private void accept() {
+		while (!server.isClosed()) {
+			try {
+				SSLSocket socket = (SSLSocket) server.accept();
+				sockets.add(socket);
+				executor.execute(() -> serve(socket));
+			} catch (IOException e) {
+				// closed
+			}
+		}
+	}
+
+	private void serve(SSLSocket socket) {
+		try (socket) {
+			socket.startHandshake();
+			if (!"h2".equals(socket.getApplicationProtocol())) {
+				return;
+			}
+			DataInputStream in = new DataInputStream(socket.getInputStream());
+			DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+			byte[] preface = new byte[PREFACE.length];
+			in.readFully(preface);
+			if (!Arrays.equals(preface, PREFACE)) {
+				return;
+			}
+			connections.incrementAndGet();
+			write(out, SETTINGS, 0, 0, new byte[0]);
+			Set<Integer> reset = ConcurrentHashMap.newKeySet();
+			for (;;) {
+				int length = (in.readUnsignedShort() << 8) | in.readUnsignedByte();
+				int type = in.readUnsignedByte();
+				int flags = in.readUnsignedByte();
+				int stream = in.readInt() & 0x7FFF_FFFF;
+				byte[] payload = new byte[length];
+				in.readFully(payload);
+				switch (type) {
+					case HEADERS -> {
+						streams.incrementAndGet();
+						executor.execute(() -> respond(out, stream, reset));
+					}
+					case SETTINGS -> {
+						if ((flags & ACK) == 0) {
+							write(out, SETTINGS, ACK, 0, new byte[0]);
+						}
+					}
+					case PING -> {
+						if ((flags & ACK) == 0) {
+							write(out, PING, ACK, 0, payload);
+						}
+					}
+					case RST_STREAM -> reset.add(stream);
+					case GOAWAY -> {
+						return;
+					}
+					default -> {
+						// DATA, WINDOW_UPDATE, PRIORITY and CONTINUATION
+						// frames are ignored
+					}
+				}
+			}
+		} catch (IOException e) {
+			// the connection is closed
+		}
+	}
+
+	private void respond(DataOutputStream out, int stream, Set<Integer> reset) {
+		byte[] content = this.content;
+		int half = content.length / 2;
+		boolean stop;
+		maxOpen.accumulateAndGet(open.incrementAndGet(), Math::max);
+		try {
+			write(out, HEADERS, END_HEADERS, stream, headers(content.length));
+			write(out, DATA, 0, stream, Arrays.copyOfRange(content, 0, half));
+			stop = closed.await(delay, TimeUnit.MILLISECONDS) || reset.contains(stream);
+		} catch (IOException | InterruptedException e) {
+			stop = true;
+		} finally {
+			// the stream is counted until the client can see its end
+			open.decrementAndGet();
+		}
+		if (!stop) {
+			try {
+				write(out, DATA, END_STREAM, stream, Arrays.copyOfRange(content, half, content.length));
+			} catch (IOException e) {
+				// the connection is closed
+			}
+		}
+	}
+
+	/*
+	 * HPACK encoded response headers: the indexed ":status: 200" and a
+	 * content-length literal without indexing
+	 */
+	private static byte[] headers(int contentLength) {
+		byte[] length = Integer.toString(contentLength)
+			.getBytes(StandardCharsets.US_ASCII);
+		ByteArrayOutputStream block = new ByteArrayOutputStream();
+		block.write(0x88);
+		block.write(0x0F);
+		block.write(28 - 15);
+		block.write(length.length);
+		block.writeBytes(length);
+		return block.toByteArray();
+	}
+
+	private static void write(OutputStream out, int type, int flags, int stream, byte[] payload) throws IOException {
+		byte[] frame = new byte[9 + payload.length];
+		frame[0] = (byte) (payload.length >>> 16);
+		frame[1] = (byte) (payload.length >>> 8);
+		frame[2] = (byte) payload.length;
+		frame[3] = (byte) type;
+		frame[4] = (byte) flags;
+		frame[5] = (byte) (stream >>> 24);
+		frame[6] = (byte) (stream >>> 16);
+		frame[7] = (byte) (stream >>> 8);
+		frame[8] = (byte) stream;
+		System.arraycopy(payload, 0, frame, 9, payload.length);
+		synchronized (out) {
+			out.write(frame);
+			out.flush();
+		}
+	}
+}
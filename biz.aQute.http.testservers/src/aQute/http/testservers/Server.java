@@ -55,9 +55,9 @@ class Server extends NanoHTTPD {
 		this.config = config;
 		if (config.https) {
 
-			KeyPair pair = createKey();
+			KeyPair pair = createKey(config.keysize);
 			certificateChain = createSelfSignedCertifcate(pair, cn);
-			KeyStore keystore = createKeystore(pair);
+			KeyStore keystore = createKeystore(config.host, pair, certificateChain);
 			SSLContext ctx = createTLSContext(keystore);
 			makeSecure(ctx.getServerSocketFactory(), null);
 		}
@@ -162,15 +162,15 @@ class Server extends NanoHTTPD {
 		}
 	}
 
-	private KeyStore createKeystore(KeyPair pair)
+	static KeyStore createKeystore(String alias, KeyPair pair, X509Certificate[] certificateChain)
 		throws KeyStoreException, IOException, NoSuchAlgorithmException, CertificateException {
 		KeyStore keystore = KeyStore.getInstance("JKS");
 		keystore.load(null, null);
-		keystore.setKeyEntry(config.host, pair.getPrivate(), PASSWORD, certificateChain);
+		keystore.setKeyEntry(alias, pair.getPrivate(), PASSWORD, certificateChain);
 		return keystore;
 	}
 
-	private SSLContext createTLSContext(KeyStore keystore)
+	static SSLContext createTLSContext(KeyStore keystore)
 		throws NoSuchAlgorithmException, KeyStoreException, UnrecoverableKeyException, KeyManagementException {
 		SSLContext ctx = SSLContext.getInstance("TLS");
 
@@ -184,7 +184,7 @@ class Server extends NanoHTTPD {
 		return ctx;
 	}
 
-	private X509Certificate[] createSelfSignedCertifcate(KeyPair keyPair, String cn) throws Exception {
+	static X509Certificate[] createSelfSignedCertifcate(KeyPair keyPair, String cn) throws Exception {
 		X500NameBuilder nameBuilder = new X500NameBuilder(BCStyle.INSTANCE);
 		nameBuilder.addRDN(BCStyle.CN, cn);
 
@@ -204,9 +204,9 @@ class Server extends NanoHTTPD {
 		};
 	}
 
-	private KeyPair createKey() throws NoSuchAlgorithmException {
+	static KeyPair createKey(int keysize) throws NoSuchAlgorithmException {
 		KeyPairGenerator keyGen = KeyPairGenerator.getInstance("RSA");
-		keyGen.initialize(config.keysize, random);
+		keyGen.initialize(keysize, random);
 		KeyPair pair = keyGen.generateKeyPair();
 		return pair;
 	}
@@ -73,6 +73,13 @@ public interface Configuration {
 	// default: 5 seconds
 	int poll_time(int pollTimeInSecs);
 
+	/**
+	 * The maximum number of artifacts downloaded at the same time when the
+	 * index is loaded
+	 */
+	// default: 16
+	int max_downloads(int maxDownloads);
+
 	/**
 	 * Allow redeploy
 	 */
@@ -12,12 +12,14 @@ import java.lang.reflect.InvocationTargetException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Formatter;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -86,10 +88,13 @@ class IndexFile {
 	final Map<Archive, Resource>				archives	= new ConcurrentHashMap<>();
 	final Set<String>							multi;
 	final String								source;
+	final int									maxDownloads;
+	private final IndexSnapshot					snapshot;
 
 	private volatile long						lastModified;
 	private long								last		= 0L;
 	private volatile Memoize<BridgeRepository>	bridge;
+	private volatile Memoize<Lookup>			lookup;
 	private volatile Promise<Boolean>			updateSerializer;
 
 	private String								status;
@@ -98,8 +103,9 @@ class IndexFile {
 	 * Constructor
 	 */
 	IndexFile(Processor domain, Reporter reporter, File file, String source, IMavenRepo repo,
-		PromiseFactory promiseFactory, Set<String> multi) throws Exception {
+		PromiseFactory promiseFactory, Set<String> multi, int maxDownloads, IndexSnapshot snapshot) throws Exception {
 		this.source = source;
+		this.maxDownloads = maxDownloads;
 		this.domain = (domain != null) ? domain : new Processor();
 		this.replacer = this.domain.getReplacer();
 		this.reporter = reporter;
@@ -110,13 +116,20 @@ class IndexFile {
 		this.isPom = looksLikePomXml(indexFile);
 		this.updateSerializer = promiseFactory.resolved(Boolean.TRUE);
 		this.bridge = Memoize.supplier(BridgeRepository::new);
+		this.lookup = Memoize.supplier(() -> new Lookup(Collections.emptyMap()));
+		this.snapshot = snapshot;
 	}
 
 	/*
 	 * Open, will refresh this repository, which will load the file
 	 */
 	void open() throws Exception {
-		serialize(this::load);
+		serialize(() -> {
+			if (snapshot != null) {
+				snapshot.load();
+			}
+			return load();
+		});
 	}
 
 	/**
@@ -258,29 +271,36 @@ class IndexFile {
 	 * called via the serializer.
 	 */
 	private Promise<Boolean> update(Set<Archive> toAdd) {
-		List<Promise<Map<Archive, Resource>>> promises;
-		if (toAdd == null) {
-			promises = Collections.emptyList();
-		} else {
-			promises = toAdd.stream()
-				.map(archive -> {
-					if (!archive.isSnapshot()) {
-						File localFile = repo.toLocalFile(archive);
-						if (localFile.isFile() && localFile.length() > 0) {
-							return promiseFactory.submit(() -> parseSingleOrMultiFile(archive, localFile))
-								.recover(p -> failed(archive, p.getFailure()));
+		List<Promise<Map<Archive, Resource>>> promises = new ArrayList<>();
+		if (toAdd != null) {
+			List<Archive> downloads = new ArrayList<>();
+			for (Archive archive : toAdd) {
+				if (!archive.isSnapshot()) {
+					File localFile = repo.toLocalFile(archive);
+					if (localFile.isFile() && localFile.length() > 0) {
+						Map<Archive, Resource> indexed = (snapshot != null) ? snapshot.get(archive, localFile) : null;
+						if (indexed != null) {
+							promises.add(promiseFactory.resolved(indexed));
+						} else {
+							promises.add(promiseFactory.submit(() -> index(archive, localFile))
+								.recover(p -> failed(archive, p.getFailure())));
 						}
+						continue;
 					}
-					try {
-						return repo.get(archive)
-							.map(file -> (file == null) ? failed(archive, "Not found")
-								: parseSingleOrMultiFile(archive, file))
-							.recover(p -> failed(archive, p.getFailure()));
-					} catch (Exception e) {
-						return promiseFactory.resolved(failed(archive, e));
-					}
-				})
-				.collect(toList());
+				}
+				downloads.add(archive);
+			}
+			if (!downloads.isEmpty()) {
+				try {
+					// each archive is parsed as soon as its download completes
+					repo.get(downloads, maxDownloads)
+						.forEach((archive, promise) -> promises.add(promise
+							.map(file -> (file == null) ? failed(archive, "Not found") : index(archive, file))
+							.recover(p -> failed(archive, p.getFailure()))));
+				} catch (Exception e) {
+					downloads.forEach(archive -> promises.add(promiseFactory.resolved(failed(archive, e))));
+				}
+			}
 		}
 		return promiseFactory.all(promises)
 			.map(maps -> {
@@ -289,6 +309,10 @@ class IndexFile {
 				// snapshot archive resources
 				ResourcesRepository resourcesRepository = new ResourcesRepository(archives.values());
 				bridge = Memoize.supplier(() -> new BridgeRepository(resourcesRepository));
+				updateLookup();
+				if (snapshot != null) {
+					snapshot.save(archives.keySet());
+				}
 				return Boolean.TRUE;
 			});
 	}
@@ -312,19 +336,43 @@ class IndexFile {
 		return failure.getMessage();
 	}
 
+	/*
+	 * Parse an archive and remember the derived resources in the snapshot.
+	 * Snapshot archives are not remembered since they are updated in place.
+	 */
+	private Map<Archive, Resource> index(Archive archive, File file) {
+		if ((snapshot == null) || archive.isSnapshot()) {
+			return parseSingleOrMultiFile(archive, file);
+		}
+		long length = file.length();
+		long lastModified = file.lastModified();
+		try {
+			Map<Archive, Resource> resources = parse(archive, file);
+			snapshot.put(archive, length, lastModified, resources);
+			return resources;
+		} catch (Exception e) {
+			IO.delete(file);
+			return failed(archive, e);
+		}
+	}
+
 	private Map<Archive, Resource> parseSingleOrMultiFile(Archive archive, File file) {
 		try {
-			if (isMulti(file.getName())) {
-				return parseMulti(archive, file);
-			} else {
-				return parseSingle(archive, file);
-			}
+			return parse(archive, file);
 		} catch (Exception e) {
 			IO.delete(file);
 			return failed(archive, e);
 		}
 	}
 
+	private Map<Archive, Resource> parse(Archive archive, File file) throws Exception {
+		if (isMulti(file.getName())) {
+			return parseMulti(archive, file);
+		} else {
+			return parseSingle(archive, file);
+		}
+	}
+
 	private boolean isMulti(String name) {
 		if (multi.isEmpty())
 			return false;
@@ -403,15 +451,19 @@ class IndexFile {
 					return Boolean.FALSE;
 				}
 				try {
-					Map<Archive, Resource> result = parseSingleOrMultiFile(archive, file);
+					Map<Archive, Resource> result = index(archive, file);
 					archives.putAll(result);
+					if (snapshot != null) {
+						snapshot.save(archives.keySet());
+					}
 					return Boolean.TRUE;
 				} catch (Exception e) {
 					Map<Archive, Resource> failed = failed(archive, e);
 					archives.putAll(failed);
 					return Boolean.FALSE;
 				}
-			}));
+			})
+			.thenAccept(b -> updateLookup()));
 	}
 
 	private Set<Archive> read(File file) throws IOException {
@@ -568,6 +620,45 @@ class IndexFile {
 		return bridge.get();
 	}
 
+	private Lookup getLookup() {
+		sync(updateSerializer);
+		return lookup.get();
+	}
+
+	/*
+	 * Take a copy of the archives for the lookup tables, they are built when
+	 * first used
+	 */
+	private void updateLookup() {
+		Map<Archive, Resource> copy = new HashMap<>(archives);
+		lookup = Memoize.supplier(() -> new Lookup(copy));
+	}
+
+	/*
+	 * Lookup tables for the archives so finding an archive by its program or
+	 * by its resource does not scan all archives
+	 */
+	private static final class Lookup {
+		private final Map<Program, List<Archive>>	programs	= new HashMap<>();
+		private final Map<Resource, Archive>		resources	= new IdentityHashMap<>();
+
+		Lookup(Map<Archive, Resource> archives) {
+			archives.forEach((archive, resource) -> {
+				programs.computeIfAbsent(archive.revision.program, p -> new ArrayList<>())
+					.add(archive);
+				resources.putIfAbsent(resource, archive);
+			});
+		}
+
+		List<Archive> archives(Program program) {
+			return programs.getOrDefault(program, Collections.emptyList());
+		}
+
+		Archive archive(Resource resource) {
+			return resources.get(resource);
+		}
+	}
+
 	/*
 	 * Create a resource with error information
 	 */
@@ -615,9 +706,9 @@ class IndexFile {
 		if (tmp == null)
 			return null;
 
-		return getArchives().stream()
-			.filter(archive -> archive.revision.program.equals(tmp.revision.program)
-				&& archive.revision.version.getOSGiVersion()
+		return getLookup().archives(tmp.revision.program)
+			.stream()
+			.filter(archive -> archive.revision.version.getOSGiVersion()
 					.equals(version)
 				&& tmp.classifier.equals(archive.classifier))
 			.findFirst()
@@ -645,8 +736,9 @@ class IndexFile {
 
 				Program p = Program.valueOf(parts[0], parts[1]);
 				if (p != null) {
-					SortedSet<Version> collect = getArchives().stream()
-						.filter(archive -> archive.revision.program.equals(p) && archive.classifier.equals(classifier))
+					SortedSet<Version> collect = getLookup().archives(p)
+						.stream()
+						.filter(archive -> archive.classifier.equals(classifier))
 						.map(archive -> archive.revision.version.getOSGiVersion())
 						.collect(toCollection(TreeSet::new));
 					return collect;
@@ -680,12 +772,7 @@ class IndexFile {
 		if (resource == null)
 			return null;
 
-		Archive archive = MapStream.of(archives)
-			.filterValue(v -> v == resource)
-			.keys()
-			.findFirst()
-			.orElse(null);
-		return archive;
+		return getLookup().archive(resource);
 	}
 
 	private void sync(Promise<?> promise) {
@@ -0,0 +1,225 @@
+package aQute.bnd.repository.maven.provider;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.osgi.resource.Resource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import aQute.bnd.osgi.repository.BinaryResourceParser;
+import aQute.bnd.osgi.repository.XMLResourceGenerator;
+import aQute.bnd.service.resource.SupportingResource;
+import aQute.lib.io.IO;
+import aQute.maven.api.Archive;
+
+/**
+ * A persisted snapshot of the resources derived from the archives of an
+ * {@link IndexFile}. Parsing the archives of a large index takes a long time,
+ * the snapshot allows the resources of unchanged archives to be loaded with a
+ * single read.
+ * <p>
+ * An entry holds the resources derived from an archive, more than one for a
+ * multi archive, and the size and last modified time of the local file of the
+ * archive when it was parsed. The entry is only used while the local file is
+ * unchanged. The snapshot as a whole is only used if its key matches, the key
+ * holds everything besides the archive files that influences the derived
+ * resources.
+ * <p>
+ * The resources are stored in the binary index form read by
+ * {@link BinaryResourceParser}, preceded by a header with the entries.
+ */
+class IndexSnapshot {
+	private final static Logger				logger	= LoggerFactory.getLogger(IndexSnapshot.class);
+	/**
+	 * The magic number of the snapshot file, {@code BNDM}.
+	 */
+	final static int						MAGIC	= 0x424E444D;
+	/**
+	 * Change when the header changes.
+	 */
+	final static int						FORMAT	= 1;
+
+	private final File						file;
+	private final String					key;
+	private final Map<Archive, Indexed>		entries	= new ConcurrentHashMap<>();
+	private volatile boolean				dirty;
+
+	record Indexed(long length, long lastModified, Map<Archive, Resource> resources) {}
+
+	IndexSnapshot(File file, String key) {
+		this.file = file;
+		this.key = key;
+	}
+
+	/**
+	 * Load the entries of the snapshot file. An invalid snapshot file or a
+	 * snapshot file with a different key is ignored.
+	 */
+	void load() {
+		entries.clear();
+		dirty = false;
+		if (!file.isFile()) {
+			return;
+		}
+		try {
+			byte[] bytes = IO.read(file);
+			ByteArrayInputStream bin = new ByteArrayInputStream(bytes);
+			DataInputStream in = new DataInputStream(bin);
+			if ((in.readInt() != MAGIC) || (in.readInt() != FORMAT) || !key.equals(in.readUTF())) {
+				logger.debug("Ignoring outdated index snapshot {}", file);
+				return;
+			}
+			int count = in.readInt();
+			List<Archive> owners = new ArrayList<>(count);
+			List<long[]> stamps = new ArrayList<>(count);
+			List<List<Archive>> derived = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				owners.add(Archive.valueOf(in.readUTF()));
+				stamps.add(new long[] {
+					in.readLong(), in.readLong()
+				});
+				int size = in.readInt();
+				List<Archive> archives = new ArrayList<>(size);
+				for (int j = 0; j < size; j++) {
+					archives.add(Archive.valueOf(in.readUTF()));
+				}
+				derived.add(archives);
+			}
+			ByteBuffer body = ByteBuffer.wrap(bytes);
+			body.position(bytes.length - bin.available());
+			List<Resource> resources = new BinaryResourceParser(body, file.toURI()).parse();
+
+			int total = derived.stream()
+				.mapToInt(List::size)
+				.sum();
+			if (resources.size() != total) {
+				logger.debug("Ignoring inconsistent index snapshot {}", file);
+				return;
+			}
+			int r = 0;
+			for (int i = 0; i < count; i++) {
+				Map<Archive, Resource> map = new LinkedHashMap<>();
+				for (Archive archive : derived.get(i)) {
+					map.put(archive, resources.get(r++));
+				}
+				Archive owner = owners.get(i);
+				if ((owner != null) && !map.containsKey(null)) {
+					long[] stamp = stamps.get(i);
+					entries.put(owner, new Indexed(stamp[0], stamp[1], map));
+				}
+			}
+			logger.debug("Loaded {} archives from the index snapshot {}", entries.size(), file);
+		} catch (Exception e) {
+			logger.debug("Ignoring invalid index snapshot {}", file, e);
+			entries.clear();
+		}
+	}
+
+	/**
+	 * Get the resources derived from an archive if its local file has not
+	 * changed since they were derived.
+	 *
+	 * @return the resources or {@code null}
+	 */
+	Map<Archive, Resource> get(Archive archive, File localFile) {
+		Indexed indexed = entries.get(archive);
+		if ((indexed == null) || (indexed.length() != localFile.length())
+			|| (indexed.lastModified() != localFile.lastModified())) {
+			return null;
+		}
+		return indexed.resources();
+	}
+
+	/**
+	 * Remember the resources derived from an archive. Resources with
+	 * supporting resources, like the resources of multi-release jars, are not
+	 * remembered since the index form does not keep the link to their
+	 * supporting resources.
+	 */
+	void put(Archive archive, long length, long lastModified, Map<Archive, Resource> resources) {
+		boolean supported = resources.values()
+			.stream()
+			.anyMatch(IndexSnapshot::hasSupportingResources);
+		if (supported) {
+			if (entries.remove(archive) != null) {
+				dirty = true;
+			}
+			return;
+		}
+		entries.put(archive, new Indexed(length, lastModified, resources));
+		dirty = true;
+	}
+
+	private static boolean hasSupportingResources(Resource resource) {
+		return (resource instanceof SupportingResource supporting) && !supporting.getSupportingResources()
+			.isEmpty();
+	}
+
+	/**
+	 * Save the snapshot file if it changed. Entries of archives that are no
+	 * longer in the index are dropped.
+	 *
+	 * @param archives the archives in the index
+	 */
+	void save(Set<Archive> archives) {
+		if (entries.keySet()
+			.retainAll(archives)) {
+			dirty = true;
+		}
+		if (!dirty) {
+			return;
+		}
+		dirty = false;
+		try {
+			IO.mkdirs(file.getParentFile());
+			File tmp = IO.createTempFile(file.getParentFile(), "snapshot", ".bndm");
+			try (OutputStream out = IO.outputStream(tmp)) {
+				write(out);
+			}
+			IO.rename(tmp, file);
+		} catch (Exception e) {
+			logger.debug("Failed to save the index snapshot {}", file, e);
+			IO.delete(file);
+		}
+	}
+
+	private void write(OutputStream out) throws IOException {
+		List<Resource> resources = new ArrayList<>();
+		DataOutputStream dout = new DataOutputStream(out);
+		dout.writeInt(MAGIC);
+		dout.writeInt(FORMAT);
+		dout.writeUTF(key);
+		Map<Archive, Indexed> copy = new LinkedHashMap<>(entries);
+		dout.writeInt(copy.size());
+		for (Map.Entry<Archive, Indexed> entry : copy.entrySet()) {
+			Indexed indexed = entry.getValue();
+			dout.writeUTF(entry.getKey()
+				.toString());
+			dout.writeLong(indexed.length());
+			dout.writeLong(indexed.lastModified());
+			dout.writeInt(indexed.resources()
+				.size());
+			for (Map.Entry<Archive, Resource> e : indexed.resources()
+				.entrySet()) {
+				dout.writeUTF(e.getKey()
+					.toString());
+				resources.add(e.getValue());
+			}
+		}
+		dout.flush();
+		new XMLResourceGenerator().resources(resources)
+			.saveBinary(out);
+	}
+}
@@ -54,6 +54,7 @@ import aQute.bnd.header.Attrs;
 import aQute.bnd.header.Parameters;
 import aQute.bnd.http.HttpClient;
 import aQute.bnd.maven.PomResource;
+import aQute.bnd.osgi.About;
 import aQute.bnd.osgi.Constants;
 import aQute.bnd.osgi.FileResource;
 import aQute.bnd.osgi.Jar;
@@ -113,6 +114,7 @@ public class MavenBndRepository extends BaseRepository implements RepositoryPlug
 	private final static Logger					logger							= LoggerFactory
 		.getLogger(MavenBndRepository.class);
 	private static final int					DEFAULT_POLL_TIME				= 5;
+	private static final int					DEFAULT_MAX_DOWNLOADS			= 16;
 
 	private static final String					NONE							= "NONE";
 	private static final String					MAVEN_REPO_LOCAL				= System.getProperty("maven.repo.local",
@@ -748,7 +750,8 @@ public class MavenBndRepository extends BaseRepository implements RepositoryPlug
 			Set<String> multi = Strings.splitAsStream(configuration.multi())
 				.collect(Sets.toSet());
 			// Set the index only after it completes opening
-			IndexFile newIndex = new IndexFile(domain, reporter, indexFile, source, storage, client.promiseFactory(), multi);
+			IndexFile newIndex = new IndexFile(domain, reporter, indexFile, source, storage, client.promiseFactory(), multi,
+				configuration.max_downloads(DEFAULT_MAX_DOWNLOADS), getSnapshot(multi));
 			newIndex.open();
 			this.index = newIndex;
 
@@ -1147,6 +1150,17 @@ public class MavenBndRepository extends BaseRepository implements RepositoryPlug
 		return IO.getFile(base, configuration.index(name.toLowerCase(Locale.ROOT) + ".mvn"));
 	}
 
+	/*
+	 * The snapshot of the derived resources is kept in the workspace cache.
+	 * The derived resources depend on the bnd version, the repository name,
+	 * the local repository and the multi extensions.
+	 */
+	private IndexSnapshot getSnapshot(Set<String> multi) {
+		String key = About.CURRENT + ";" + name + ";" + localRepo.getAbsolutePath() + ";" + new TreeSet<>(multi);
+		return workspace.map(ws -> new IndexSnapshot(IO.getFile(ws.getCache(name), "index.bndm"), key))
+			.orElse(null);
+	}
+
 	public Set<Archive> getArchives() {
 		if (!init())
 			return Collections.emptySet();
@@ -8,6 +8,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -28,8 +29,10 @@ import org.slf4j.LoggerFactory;
 
 import aQute.bnd.http.HttpClient;
 import aQute.bnd.http.HttpRequest;
+import aQute.bnd.osgi.repository.BinaryResourceParser;
 import aQute.bnd.osgi.repository.BridgeRepository;
 import aQute.bnd.osgi.repository.ResourcesRepository;
+import aQute.bnd.osgi.repository.XMLResourceGenerator;
 import aQute.bnd.osgi.repository.XMLResourceParser;
 import aQute.bnd.osgi.resource.ResourceUtils;
 import aQute.bnd.osgi.resource.ResourceUtils.ContentCapability;
@@ -50,6 +53,8 @@ class OSGiIndex {
 	private final List<URI>					uris;
 	private volatile String					status;
 
+	private record ParsedIndex(List<Resource> resources, boolean referrals) {}
+
 	OSGiIndex(String name, HttpClient client, File cache, List<URI> uris, int staleTime, boolean refresh)
 		throws Exception {
 		this.name = name;
@@ -100,34 +105,71 @@ class OSGiIndex {
 					this.status = "Not Found " + uri;
 					return Collections.emptyList();
 				}
-				// file could be xml, gzipped xml, OR zip with index.xml or
-				// index.xml.gz entry
-				try (InputStream in = new BufferedInputStream(IO.stream(file))) {
-					in.mark(2);
-					int magic = readUnsignedShort(in);
-					in.reset();
-					if (magic == 0x504b) { // "PK" means a zip file
-						try (ZipInputStream zin = new ZipInputStream(in)) {
-							for (ZipEntry entry; (entry = zin.getNextEntry()) != null;) {
-								switch (entry.getName()) {
-									case "index.xml" :
-									case "index.xml.gz" :
-										try (XMLResourceParser xrp = new XMLResourceParser(zin, name, uri)) {
-											return xrp.parse();
-										}
-									default :
-										break;
+				return parse(file, uri);
+			});
+	}
+
+	/**
+	 * Parse the downloaded index file. The resources are cached in the binary
+	 * form in the cache directory. The cached resources are used as long as
+	 * the downloaded file has the same last modified time.
+	 */
+	private List<Resource> parse(File file, URI uri) throws Exception {
+		File binary = IO.getFile(cache, SHA256.digest(uri.toString()
+			.getBytes(StandardCharsets.UTF_8))
+			.asHex()
+			.concat(".bndx"));
+		long lastModified = file.lastModified();
+		if (binary.isFile() && (binary.lastModified() == lastModified)) {
+			try {
+				return BinaryResourceParser.getResources(binary, uri);
+			} catch (IOException e) {
+				logger.debug("{}: Unable to read the binary index {} of {}", name, binary, uri, e);
+			}
+		}
+		ParsedIndex parsed = parseXML(file, uri);
+		List<Resource> resources = parsed.resources();
+		// the cache cannot tell when the referred indexes change
+		if ((resources != null) && !parsed.referrals() && (lastModified != 0L)) {
+			try {
+				new XMLResourceGenerator().resources(resources)
+					.saveBinary(binary);
+				binary.setLastModified(lastModified);
+			} catch (IOException e) {
+				logger.debug("{}: Unable to write the binary index {} of {}", name, binary, uri, e);
+			}
+		}
+		return resources;
+	}
+
+	private ParsedIndex parseXML(File file, URI uri) throws Exception {
+		// file could be xml, gzipped xml, OR zip with index.xml or
+		// index.xml.gz entry
+		try (InputStream in = new BufferedInputStream(IO.stream(file))) {
+			in.mark(2);
+			int magic = readUnsignedShort(in);
+			in.reset();
+			if (magic == 0x504b) { // "PK" means a zip file
+				try (ZipInputStream zin = new ZipInputStream(in)) {
+					for (ZipEntry entry; (entry = zin.getNextEntry()) != null;) {
+						switch (entry.getName()) {
+							case "index.xml" :
+							case "index.xml.gz" :
+								try (XMLResourceParser xrp = new XMLResourceParser(zin, name, uri)) {
+									return new ParsedIndex(xrp.parse(), xrp.hasReferrals());
 								}
-							}
-							logger.debug("{}: No index.xml or index.xml.gz entry found in zip file {}", name, uri);
-							return Collections.emptyList();
+							default :
+								break;
 						}
 					}
-					try (XMLResourceParser xrp = new XMLResourceParser(in, name, uri)) {
-						return xrp.parse();
-					}
+					logger.debug("{}: No index.xml or index.xml.gz entry found in zip file {}", name, uri);
+					return new ParsedIndex(Collections.emptyList(), false);
 				}
-			});
+			}
+			try (XMLResourceParser xrp = new XMLResourceParser(in, name, uri)) {
+				return new ParsedIndex(xrp.parse(), xrp.hasReferrals());
+			}
+		}
 	}
 
 	private static final int readUnsignedShort(InputStream in) throws IOException {
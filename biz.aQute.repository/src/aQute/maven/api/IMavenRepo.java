@@ -4,7 +4,10 @@ import java.io.Closeable;
 import java.io.File;
 import java.io.InputStream;
 import java.net.URI;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.regex.Pattern;
 
@@ -109,6 +112,26 @@ public interface IMavenRepo extends Closeable {
 	 */
 	Promise<File> get(Archive archive, boolean force) throws Exception;
 
+	/**
+	 * Get the files of many archives. At most {@code concurrency} archives are
+	 * downloaded at the same time, the other archives wait for a download to
+	 * finish. Each promise resolves as soon as the file of its archive is
+	 * available, so the files can be processed while the other archives are
+	 * still downloading.
+	 *
+	 * @param archives The archives to fetch
+	 * @param concurrency the maximum number of concurrent downloads
+	 * @return the promises of the files in the order of the archives, a
+	 *         promise fails if its archive is not found
+	 */
+	default Map<Archive, Promise<File>> get(Collection<Archive> archives, int concurrency) throws Exception {
+		Map<Archive, Promise<File>> files = new LinkedHashMap<>();
+		for (Archive archive : archives) {
+			files.put(archive, get(archive));
+		}
+		return files;
+	}
+
 	/**
 	 * Get the last updated time for a snapshot revision.
 	 *
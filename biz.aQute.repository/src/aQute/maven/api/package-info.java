@@ -1,4 +1,4 @@
-@Version("1.9.0")
+@Version("1.10.0")
 package aQute.maven.api;
 
 import org.osgi.annotation.versioning.Version;
@@ -6,13 +6,20 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
@@ -52,6 +59,7 @@ public class MavenRepository implements IMavenRepo, Closeable {
 	private String								sonatypeReleaseUrl	= null;
 	private String								sonatypeSnapshotUrl	= null;
 	private TrustedChecksums					trustedChecksums;
+	private final Map<File, Promise<File>>		downloads		= new ConcurrentHashMap<>();
 
 	public MavenRepository(File base, String id, List<MavenBackingRepository> release,
 		List<MavenBackingRepository> snapshot, Executor executor, Reporter reporter) throws Exception {
@@ -158,9 +166,12 @@ public class MavenRepository implements IMavenRepo, Closeable {
 			return promiseFactory.resolved(file.isFile() ? file : null);
 		}
 
-		return promiseFactory.submit(() -> {
-			File f = getFile(archive, file, force);
-			if (thrw && f == null) {
+		Promise<File> download = download(archive, file, force);
+		if (!thrw) {
+			return download;
+		}
+		return download.map(f -> {
+			if (f == null) {
 				throw new FileNotFoundException(
 					"For Maven artifact " + archive + " from " + (archive.isSnapshot() ? snapshot : release));
 			}
@@ -168,6 +179,69 @@ public class MavenRepository implements IMavenRepo, Closeable {
 		});
 	}
 
+	/**
+	 * Download the file of an archive. Concurrent requests for the same file
+	 * share a single download.
+	 */
+	private Promise<File> download(Archive archive, File file, boolean force) {
+		Deferred<File> deferred = promiseFactory.deferred();
+		Promise<File> promise = deferred.getPromise();
+		Promise<File> existing = downloads.putIfAbsent(file, promise);
+		if (existing != null) {
+			return existing;
+		}
+		promise.onResolve(() -> downloads.remove(file, promise));
+		deferred.resolveWith(promiseFactory.submit(() -> getFile(archive, file, force)));
+		return promise;
+	}
+
+	/**
+	 * Get the files of many archives while at most {@code concurrency}
+	 * archives are downloaded at the same time. Archives that are available
+	 * locally are resolved immediately. Each download that finishes starts the
+	 * download of the next waiting archive so the downloads are pipelined.
+	 */
+	@Override
+	public Map<Archive, Promise<File>> get(Collection<Archive> archives, int concurrency) throws Exception {
+		Map<Archive, Promise<File>> files = new LinkedHashMap<>();
+		Deque<Entry<Archive, Deferred<File>>> queue = new ArrayDeque<>();
+		for (Archive archive : archives) {
+			if (files.containsKey(archive)) {
+				continue;
+			}
+			File file = toLocalFile(archive);
+			if ((file.isFile() && !archive.isSnapshot()) || localOnly || isFresh(file)) {
+				files.put(archive, get(archive, true, false));
+			} else {
+				Deferred<File> deferred = promiseFactory.deferred();
+				files.put(archive, deferred.getPromise());
+				queue.add(new SimpleEntry<>(archive, deferred));
+			}
+		}
+		for (int i = Math.min(Math.max(concurrency, 1), queue.size()); i > 0; i--) {
+			next(queue);
+		}
+		return files;
+	}
+
+	private void next(Deque<Entry<Archive, Deferred<File>>> queue) {
+		Entry<Archive, Deferred<File>> entry;
+		synchronized (queue) {
+			entry = queue.poll();
+		}
+		if (entry == null) {
+			return;
+		}
+		Deferred<File> deferred = entry.getValue();
+		try {
+			deferred.resolveWith(get(entry.getKey(), true, false));
+		} catch (Exception e) {
+			deferred.fail(e);
+		}
+		deferred.getPromise()
+			.onResolve(() -> next(queue));
+	}
+
 	private boolean isFresh(File file) {
 		if (!file.isFile())
 			return false;
@@ -39,6 +39,7 @@ import aQute.bnd.build.DownloadBlocker;
 import aQute.bnd.build.Project;
 import aQute.bnd.build.Workspace;
 import aQute.bnd.http.HttpClient;
+import aQute.bnd.osgi.About;
 import aQute.bnd.osgi.Constants;
 import aQute.bnd.osgi.Jar;
 import aQute.bnd.osgi.Processor;
@@ -51,6 +52,7 @@ import aQute.bnd.service.RepositoryPlugin.PutResult;
 import aQute.bnd.service.maven.PomOptions;
 import aQute.bnd.service.progress.ProgressPlugin;
 import aQute.bnd.service.progress.ProgressPlugin.Task;
+import aQute.bnd.service.resource.SupportingResource;
 import aQute.bnd.test.jupiter.InjectTemporaryDirectory;
 import aQute.bnd.version.Version;
 import aQute.http.testservers.HttpTestServer.Config;
@@ -547,7 +549,7 @@ public class MavenBndRepoTest {
 
 	@Test
 	public void testPutReleaseAndThenIndex() throws Exception {
-		Workspace ws = new Workspace(IO.getFile("testdata/releasews"));
+		Workspace ws = new Workspace(IO.copy(IO.getFile("testdata/releasews"), IO.getFile(tmp, "releasews")));
 		Project p1 = ws.getProject("p1");
 		Project indexProject = ws.getProject("index");
 
@@ -1175,6 +1177,102 @@ public class MavenBndRepoTest {
 		repo.setProperties(config);
 	}
 
+	@Test
+	public void testIndexSnapshot() throws Exception {
+		File wsdir = IO.getFile(tmp, "ws");
+		IO.mkdirs(IO.getFile(wsdir, "cnf"));
+		Workspace ws = new Workspace(wsdir);
+		config(ws, null);
+		List<String> expected = summary(repo.getResources());
+		File snapshotFile = IO.getFile(ws.getCache("Maven"), "index.bndm");
+		assertThat(snapshotFile).isFile();
+
+		// the resources are loaded from the snapshot
+		IO.close(repo);
+		config(ws, null);
+		assertThat(summary(repo.getResources())).isEqualTo(expected);
+
+		// a changed archive is parsed again and the snapshot is updated
+		Archive archive = Archive.valueOf("commons-cli:commons-cli:1.2");
+		File localFile = IO.getFile(local, archive.localPath);
+		IndexSnapshot snapshot = new IndexSnapshot(snapshotFile, snapshotKey());
+		snapshot.load();
+		assertThat(snapshot.get(archive, localFile)).isNotNull();
+		assertThat(localFile.setLastModified(localFile.lastModified() - 10_000L)).isTrue();
+		assertThat(snapshot.get(archive, localFile)).isNull();
+
+		IO.close(repo);
+		config(ws, null);
+		assertThat(summary(repo.getResources())).isEqualTo(expected);
+		snapshot.load();
+		assertThat(snapshot.get(archive, localFile)).isNotNull();
+		// snapshot archives are not kept in the snapshot
+		assertThat(snapshot.get(Archive.valueOf("commons-cli:commons-cli:1.4-SNAPSHOT"),
+			IO.getFile(local, "commons-cli/commons-cli/1.4-SNAPSHOT/commons-cli-1.4-SNAPSHOT.jar"))).isNull();
+
+		// a snapshot with another key is ignored
+		IndexSnapshot other = new IndexSnapshot(snapshotFile, "other");
+		other.load();
+		assertThat(other.get(archive, localFile)).isNull();
+	}
+
+	@Test
+	public void testIndexSnapshotMultiRelease() throws Exception {
+		File dir = IO.getFile(remote, "biz/aQute/bnd/multi-release/1.0.0");
+		IO.mkdirs(dir);
+		IO.copy(IO.getFile("testresources/multi-release-ok.jar"), IO.getFile(dir, "multi-release-1.0.0.jar"));
+		IO.store("biz.aQute.bnd:multi-release:1.0.0\ncommons-cli:commons-cli:1.2\norg.osgi:org.osgi.dto:1.0.0\n", index);
+		File wsdir = IO.getFile(tmp, "ws");
+		IO.mkdirs(IO.getFile(wsdir, "cnf"));
+		Workspace ws = new Workspace(wsdir);
+		config(ws, null);
+		List<String> expected = summary(repo.getResources());
+		assertThat(supportingResources(repo.getResources())).isPositive();
+		File snapshotFile = IO.getFile(ws.getCache("Maven"), "index.bndm");
+		assertThat(snapshotFile).isFile();
+
+		// the plain archives are loaded from the snapshot, the multi-release
+		// jar is parsed again with its supporting resources
+		IO.close(repo);
+		config(ws, null);
+		assertThat(summary(repo.getResources())).isEqualTo(expected);
+		assertThat(supportingResources(repo.getResources())).isPositive();
+
+		IndexSnapshot snapshot = new IndexSnapshot(snapshotFile, snapshotKey());
+		snapshot.load();
+		Archive multiRelease = Archive.valueOf("biz.aQute.bnd:multi-release:1.0.0");
+		assertThat(snapshot.get(multiRelease, IO.getFile(local, multiRelease.localPath))).isNull();
+		Archive plain = Archive.valueOf("commons-cli:commons-cli:1.2");
+		Map<Archive, Resource> resources = snapshot.get(plain, IO.getFile(local, plain.localPath));
+		assertThat(resources).containsOnlyKeys(plain);
+		assertThat(ResourceUtils.getIdentityCapability(resources.get(plain))
+			.osgi_identity()).isEqualTo("org.apache.commons.cli");
+	}
+
+	private static long supportingResources(Collection<Resource> resources) {
+		return resources.stream()
+			.filter(SupportingResource.class::isInstance)
+			.map(SupportingResource.class::cast)
+			.mapToLong(r -> r.getSupportingResources()
+				.size())
+			.sum();
+	}
+
+	private String snapshotKey() {
+		return About.CURRENT + ";Maven;" + local.getAbsolutePath() + ";[]";
+	}
+
+	private static List<String> summary(Collection<Resource> resources) {
+		return resources.stream()
+			.map(r -> ResourceUtils.getIdentityCapability(r) + " " + ResourceUtils.getContentCapability(r) + " "
+				+ r.getCapabilities(null)
+					.size()
+				+ " " + r.getRequirements(null)
+					.size())
+			.sorted()
+			.toList();
+	}
+
 	@Test
 	public void testPutPlainJarInRepo() throws Exception {
 
@@ -1247,7 +1345,7 @@ public class MavenBndRepoTest {
 
 	@Test
 	public void testPutReleaseWithStaging() throws Exception {
-		Workspace ws = new Workspace(IO.getFile("testdata/releasews"));
+		Workspace ws = new Workspace(IO.copy(IO.getFile("testdata/releasews"), IO.getFile(tmp, "releasews")));
 		Project p1 = ws.getProject("p1");
 		Project indexProject = ws.getProject("index");
 
@@ -1,5 +1,6 @@
 package aQute.bnd.repository.osgi;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
@@ -15,6 +16,8 @@ import org.junit.jupiter.api.Test;
 import org.osgi.util.promise.Promise;
 
 import aQute.bnd.http.HttpClient;
+import aQute.bnd.osgi.repository.XMLResourceGenerator;
+import aQute.bnd.osgi.repository.XMLResourceParser;
 import aQute.bnd.test.jupiter.InjectTemporaryDirectory;
 import aQute.bnd.version.Version;
 import aQute.lib.io.IO;
@@ -84,6 +87,38 @@ public class OSGiIndexTest {
 		assertEquals(1, versions.size());
 	}
 
+	@Test
+	public void testBinaryCache() throws Exception {
+		HttpClient client = new HttpClient();
+		client.setCache(tmp);
+		File index = IO.copy(IO.getFile("testdata/repo7/index-aries.xml"), IO.getFile(tmp, "index.xml"));
+		List<URI> uris = Collections.singletonList(index.toURI());
+
+		OSGiIndex oi = new OSGiIndex("name", client, cache, uris, 0, false);
+		List<String> aries = oi.getBridge()
+			.list(null);
+		File[] binaries = cache.listFiles((dir, name) -> name.endsWith(".bndx"));
+		assertThat(binaries).hasSize(1);
+		File binary = binaries[0];
+		assertThat(binary.lastModified()).isEqualTo(index.lastModified());
+
+		// the binary cache is used as long as the index is not modified
+		new XMLResourceGenerator().resources(XMLResourceParser.getResources(IO.getFile("testdata/repo7/index-gemini.xml")))
+			.saveBinary(binary);
+		binary.setLastModified(index.lastModified());
+		oi = new OSGiIndex("name", client, cache, uris, 0, false);
+		List<String> gemini = oi.getBridge()
+			.list(null);
+		assertThat(gemini).isNotEqualTo(aries);
+
+		// a modified index is parsed again
+		index.setLastModified(index.lastModified() + 10_000L);
+		oi = new OSGiIndex("name", client, cache, uris, 0, false);
+		assertThat(oi.getBridge()
+			.list(null)).isEqualTo(aries);
+		assertThat(binary.lastModified()).isEqualTo(index.lastModified());
+	}
+
 	public OSGiIndex getIndex(HttpClient client) throws Exception, URISyntaxException {
 		return new OSGiIndex("name", client, cache, Collections.singletonList(
 			new URI("https://raw.githubusercontent.com/osgi/osgi.enroute/v1.0.0/cnf/distro/index.xml")), 0, false);
@@ -8,12 +8,15 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.osgi.util.promise.Promise;
 
 import aQute.bnd.http.HttpClient;
 import aQute.bnd.test.jupiter.InjectTemporaryDirectory;
@@ -110,6 +113,39 @@ public class MavenRepoTest {
 		assertFalse(f.lastModified() != 0);
 	}
 
+	@Test
+	public void testBatchGet() throws Exception {
+		Revision r10 = Program.valueOf("commons-cli", "commons-cli")
+			.version("1.0");
+		Revision r12 = Program.valueOf("commons-cli", "commons-cli")
+			.version("1.2");
+		Archive missing = Program.valueOf("commons-cli", "commons-cli")
+			.version("1.1")
+			.archive("jar", null);
+		List<Archive> archives = List.of(r10.archive("jar", null), r10.getPomArchive(), r12.archive("jar", null),
+			r12.getPomArchive(), r12.archive("jar", "sources"), missing);
+
+		Map<Archive, Promise<File>> files = storage.get(archives, 2);
+		assertThat(files).containsOnlyKeys(archives);
+		for (Archive archive : archives) {
+			Promise<File> promise = files.get(archive);
+			if (archive == missing) {
+				assertThat(promise.getFailure()).isInstanceOf(FileNotFoundException.class);
+			} else {
+				File file = promise.getValue();
+				assertThat(file).isFile()
+					.hasSameBinaryContentAs(IO.getFile(remote, archive.remotePath));
+			}
+		}
+
+		// the local files are used without downloading
+		files = storage.get(archives.subList(0, 2), 1);
+		assertThat(files.get(archives.get(0))
+			.isDone()).isTrue();
+		assertThat(files.get(archives.get(1))
+			.getValue()).isEqualTo(storage.toLocalFile(archives.get(1)));
+	}
+
 	void assertRecent(File f) {
 		assertTrue(Math.abs(System.currentTimeMillis() - f.lastModified()) <= 20000);
 	}
@@ -104,6 +104,7 @@ public abstract class AbstractResolveContext extends ResolveContext {
 	private int										level									= 0;
 	private Resource								framework;
 	private final AtomicBoolean						reported								= new AtomicBoolean();
+	private ProviderCache							sharedProviderCache;
 
 	public AbstractResolveContext(LogService log) {
 		this.log = log;
@@ -284,8 +285,13 @@ public abstract class AbstractResolveContext extends ResolveContext {
 	 *         that are skipped.
 	 */
 	protected Collection<Capability> findProviders(Repository repo, Requirement requirement) {
-		Map<Requirement, Collection<Capability>> map = repo.findProviders(Collections.singleton(requirement));
-		Collection<Capability> caps = map.get(requirement);
+		Collection<Capability> caps;
+		if (sharedProviderCache != null) {
+			caps = sharedProviderCache.findProviders(repo, requirement);
+		} else {
+			Map<Requirement, Collection<Capability>> map = repo.findProviders(Collections.singleton(requirement));
+			caps = map.get(requirement);
+		}
 		caps.removeIf(capability -> isBlacklisted(capability));
 		return caps;
 	}
@@ -314,6 +320,17 @@ public abstract class AbstractResolveContext extends ResolveContext {
 		this.optionalRoots.addAll(roots);
 	}
 
+	/**
+	 * Set the cache of the providers found in the repositories that is shared
+	 * with other resolve contexts.
+	 *
+	 * @param providerCache the shared cache or {@code null} to ask the
+	 *            repositories for every resolve
+	 */
+	public void setProviderCache(ProviderCache providerCache) {
+		this.sharedProviderCache = providerCache;
+	}
+
 	public void addRepository(Repository repo) {
 		repositories.add(repo);
 	}
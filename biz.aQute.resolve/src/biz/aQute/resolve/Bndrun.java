@@ -2,11 +2,21 @@ package biz.aQute.resolve;
 
 import java.io.File;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.osgi.resource.Requirement;
 import org.osgi.service.resolver.ResolutionException;
@@ -23,6 +33,8 @@ import aQute.bnd.build.model.clauses.VersionedClause;
 import aQute.bnd.build.model.conversions.CollectionFormatter;
 import aQute.bnd.build.model.conversions.Converter;
 import aQute.bnd.build.model.conversions.HeaderClauseFormatter;
+import aQute.bnd.exceptions.BiConsumerWithException;
+import aQute.bnd.exceptions.ConsumerWithException;
 import aQute.bnd.exceptions.Exceptions;
 import aQute.bnd.header.Parameters;
 import aQute.bnd.help.Syntax;
@@ -164,6 +176,118 @@ public class Bndrun extends Run {
 		return resolution;
 	}
 
+	/**
+	 * Resolve several bndrun files concurrently.
+	 *
+	 * @see #resolve(Collection, int, ConsumerWithException,
+	 *      BiConsumerWithException, ResolutionCallback...)
+	 */
+	public static <B extends Bndrun> void resolve(Collection<B> bndruns, int parallel,
+		BiConsumerWithException<? super B, ? super RunResolution> consumer, ResolutionCallback... callbacks)
+		throws Exception {
+		resolve(bndruns, parallel, null, consumer, callbacks);
+	}
+
+	/**
+	 * Resolve several bndrun files concurrently.
+	 * <p>
+	 * The bndruns are resolved on the bnd executor, which is also used by the
+	 * resolver itself. Each bndrun is resolved while holding the read lock of
+	 * its workspace, so the bndruns of a workspace are resolved concurrently
+	 * while a refresh of the workspace, which takes the write lock, cannot
+	 * change the workspace or close its repositories. The bndruns of a
+	 * workspace share the providers found in its repositories while the batch
+	 * is resolved, see {@link ProviderCache}. To bound the memory used, at most
+	 * {@code parallel} resolutions are held at the same time, whether they are
+	 * still resolving or waiting to be consumed. The resolutions are passed to
+	 * the consumer on the calling thread in the order of the bndruns. A
+	 * failure to resolve a bndrun is reported in its resolution and does not
+	 * stop the resolution of the other bndruns. If the consumer throws an
+	 * exception, the bndruns that have not started are not resolved and the
+	 * method returns when the started resolutions are done.
+	 *
+	 * @param bndruns the bndruns to resolve, a bndrun must not be in the
+	 *            collection more than once
+	 * @param parallel the maximum number of resolutions held at the same time,
+	 *            if not positive a default based on the available processors
+	 *            and memory is used
+	 * @param starting if not {@code null}, receives each bndrun on the calling
+	 *            thread before its resolve is started
+	 * @param consumer receives each bndrun with its resolution
+	 * @param callbacks any callbacks, they can be called concurrently
+	 * @throws Exception if the consumer throws an exception
+	 */
+	public static <B extends Bndrun> void resolve(Collection<B> bndruns, int parallel,
+		ConsumerWithException<? super B> starting, BiConsumerWithException<? super B, ? super RunResolution> consumer,
+		ResolutionCallback... callbacks) throws Exception {
+		if (parallel <= 0) {
+			parallel = defaultParallel();
+		}
+		Set<Workspace> workspaces = new HashSet<>();
+		List<ProviderCache> providerCaches = new ArrayList<>();
+		Deque<Map.Entry<B, CompletableFuture<RunResolution>>> pending = new ArrayDeque<>(parallel);
+		AtomicBoolean cancelled = new AtomicBoolean();
+		try {
+			for (B bndrun : bndruns) {
+				Workspace workspace = bndrun.getWorkspace();
+				if (workspaces.add(workspace)) {
+					// load the repositories before the bndruns race for them
+					providerCaches.add(ProviderCache.open(workspace));
+					workspace.getRepositories();
+				}
+			}
+			Executor executor = Processor.getExecutor();
+			Iterator<B> iterator = bndruns.iterator();
+			while (iterator.hasNext() || !pending.isEmpty()) {
+				if (iterator.hasNext() && (pending.size() < parallel)) {
+					B bndrun = iterator.next();
+					if (starting != null) {
+						starting.accept(bndrun);
+					}
+					pending.addLast(Map.entry(bndrun, CompletableFuture.supplyAsync(() -> {
+						if (cancelled.get()) {
+							return null;
+						}
+						try {
+							// a workspace refresh must not close the
+							// repositories while the bndrun is resolved
+							return bndrun.getWorkspace()
+								.readLocked(() -> bndrun.resolve(callbacks));
+						} catch (Exception e) {
+							bndrun.exception(e, "Failed to resolve %s: %s", bndrun, e);
+							return new RunResolution(bndrun, bndrun, e, null);
+						}
+					}, executor)));
+				} else {
+					Map.Entry<B, CompletableFuture<RunResolution>> first = pending.removeFirst();
+					consumer.accept(first.getKey(), first.getValue()
+						.join());
+				}
+			}
+		} finally {
+			// only pending when the consumer failed, wait for the started
+			// resolutions before the caller closes the bndruns
+			cancelled.set(true);
+			for (Map.Entry<B, CompletableFuture<RunResolution>> entry : pending) {
+				entry.getValue()
+					.exceptionally(e -> null)
+					.join();
+			}
+			providerCaches.forEach(ProviderCache::close);
+		}
+	}
+
+	/**
+	 * Answer the default number of concurrent resolutions. A resolution of a
+	 * large bndrun can easily take a few hundred megabytes, so the number of
+	 * processors is limited by the maximum memory.
+	 */
+	static int defaultParallel() {
+		Runtime runtime = Runtime.getRuntime();
+		long byMemory = runtime.maxMemory() / (256L * 1024L * 1024L);
+		return (int) Math.max(1L, Math.min(runtime.availableProcessors(), byMemory));
+	}
+
 	public boolean update(RunResolution resolution, boolean failOnChanges, boolean writeOnChanges) throws Exception {
 		List<VersionedClause> runBundlesBeforeUpdate = model.getRunBundles();
 		if (resolution.updateBundles(model)) {
@@ -97,6 +97,9 @@ public class BndrunResolveContext extends AbstractResolveContext {
 			this.registry = registry;
 			this.properties = runModel;
 			this.project = project;
+			if ((project != null) && (project.getWorkspace() != null)) {
+				setProviderCache(ProviderCache.getProviderCache(project.getWorkspace()));
+			}
 			Predicate<Capability> predicate = createPredicateToFilterCapabilities(
 				runModel.mergeProperties(Constants.RESOLVE_REJECT), project).orElse(null);
 			if (predicate != null)
@@ -0,0 +1,168 @@
+package biz.aQute.resolve;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.osgi.resource.Capability;
+import org.osgi.resource.Requirement;
+import org.osgi.service.repository.Repository;
+
+import aQute.bnd.build.Workspace;
+import aQute.bnd.osgi.Jar;
+import aQute.bnd.service.RepositoryListenerPlugin;
+import aQute.bnd.service.RepositoryPlugin;
+
+/**
+ * A cache of the providers found in repositories that is shared by the resolve
+ * contexts of a workspace, so resolving several bndrun files against the same
+ * repositories only asks the repositories once for the same requirement.
+ * <p>
+ * The cache only lives while it is open, for example for a batch of resolves.
+ * Not every repository reports its changes, so a cache that lives as long as
+ * the workspace could return outdated providers. Resolves while no cache is
+ * open ask the repositories directly.
+ * <p>
+ * The cached providers are the providers as returned by the repository, before
+ * any blacklisting or preferences of a resolve context are applied. The
+ * providers of a repository are dropped when the repository reports a change to
+ * the {@link RepositoryListenerPlugin}s of the workspace. Repositories are held
+ * weakly, so the providers of repositories that are no longer used, like after
+ * a refresh of the workspace, are dropped as well.
+ */
+public class ProviderCache implements RepositoryListenerPlugin, AutoCloseable {
+	private final Map<Repository, Map<Key, List<Capability>>>	providers	= Collections
+		.synchronizedMap(new WeakHashMap<>());
+	private final LongAdder										hits		= new LongAdder();
+	private final LongAdder										misses		= new LongAdder();
+	private final Workspace										workspace;
+	private int													opened;
+
+	/**
+	 * The parts of a requirement a repository uses to find providers.
+	 */
+	private record Key(String namespace, Map<String, String> directives, Map<String, Object> attributes) {}
+
+	private ProviderCache(Workspace workspace) {
+		this.workspace = workspace;
+	}
+
+	/**
+	 * Open the provider cache of a workspace. The cache is added to the
+	 * workspace as a plugin so it is used by the resolves of the workspace
+	 * and receives the changes of the repositories. The cache is shared until
+	 * everyone that opened it closed it.
+	 *
+	 * @param workspace the workspace
+	 * @return the open provider cache of the workspace, must be closed
+	 */
+	public static ProviderCache open(Workspace workspace) {
+		synchronized (ProviderCache.class) {
+			ProviderCache providerCache = workspace.getPlugin(ProviderCache.class);
+			if (providerCache == null) {
+				providerCache = new ProviderCache(workspace);
+				workspace.addBasicPlugin(providerCache);
+			}
+			providerCache.opened++;
+			return providerCache;
+		}
+	}
+
+	/**
+	 * Get the open provider cache of a workspace.
+	 *
+	 * @param workspace the workspace
+	 * @return the provider cache of the workspace or {@code null} if no cache
+	 *         is open
+	 */
+	public static ProviderCache getProviderCache(Workspace workspace) {
+		return workspace.getPlugin(ProviderCache.class);
+	}
+
+	/**
+	 * Close the cache. When everyone that opened the cache closed it, it is
+	 * removed from the workspace and the cached providers are dropped.
+	 */
+	@Override
+	public void close() {
+		synchronized (ProviderCache.class) {
+			if (--opened == 0) {
+				workspace.removeBasicPlugin(this);
+				clear();
+			}
+		}
+	}
+
+	/**
+	 * Find the providers of a requirement in a repository.
+	 *
+	 * @param repository the repository
+	 * @param requirement the requirement
+	 * @return a new modifiable collection of the providers
+	 */
+	public Collection<Capability> findProviders(Repository repository, Requirement requirement) {
+		Map<Key, List<Capability>> cached = providers.computeIfAbsent(repository, r -> new ConcurrentHashMap<>());
+		Key key = new Key(requirement.getNamespace(), requirement.getDirectives(), requirement.getAttributes());
+		List<Capability> capabilities = cached.get(key);
+		if (capabilities != null) {
+			hits.increment();
+		} else {
+			misses.increment();
+			Collection<Capability> found = repository.findProviders(Collections.singleton(requirement))
+				.get(requirement);
+			capabilities = (found != null) ? new ArrayList<>(found) : Collections.emptyList();
+			List<Capability> previous = cached.putIfAbsent(key, capabilities);
+			if (previous != null) {
+				capabilities = previous;
+			}
+		}
+		return new ArrayList<>(capabilities);
+	}
+
+	/**
+	 * Drop the cached providers of all repositories.
+	 */
+	public void clear() {
+		providers.clear();
+	}
+
+	public long getHits() {
+		return hits.sum();
+	}
+
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	@Override
+	public void bundleAdded(RepositoryPlugin repository, Jar jar, File file) {
+		providers.remove(repository);
+	}
+
+	@Override
+	public void bundleRemoved(RepositoryPlugin repository, Jar jar, File file) {
+		providers.remove(repository);
+	}
+
+	@Override
+	public void repositoryRefreshed(RepositoryPlugin repository) {
+		providers.remove(repository);
+	}
+
+	@Override
+	public void repositoriesRefreshed() {
+		clear();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("ProviderCache[repositories=%s hits=%s misses=%s]", providers.size(), hits.sum(),
+			misses.sum());
+	}
+}
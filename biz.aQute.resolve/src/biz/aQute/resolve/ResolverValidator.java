@@ -100,7 +100,10 @@ public class ResolverValidator extends Processor {
 	public List<Resolution> validate(Collection<Resource> toBeChecked) throws Exception {
 		Set<Resource> allResources = new LinkedHashSet<>();
 		for (URI uri : repositories) {
-			allResources.addAll(XMLResourceParser.getResources(uri));
+			try (XMLResourceParser parser = new XMLResourceParser(uri)) {
+				parser.parse(allResources::add);
+				getInfo(parser, uri + ": ");
+			}
 		}
 		allResources.addAll(toBeChecked);
 		ResourcesRepository repository = new ResourcesRepository(allResources);
@@ -1,4 +1,4 @@
-@Version("9.3.0")
+@Version("9.4.0")
 package biz.aQute.resolve;
 
 import org.osgi.annotation.versioning.Version;
@@ -1,6 +1,7 @@
 package biz.aQute.resolve;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -8,6 +9,7 @@ import static org.junit.Assert.fail;
 import java.io.File;
 import java.io.InputStream;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -17,6 +19,8 @@ import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
 
 import org.assertj.core.api.SoftAssertions;
 import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
@@ -74,6 +78,127 @@ public class RunResolutionTest {
 		assertThat(bndrun.check()).isTrue();
 	}
 
+	@Test
+	public void testSharedProviderCache() throws Exception {
+		assertThat(ProviderCache.getProviderCache(workspace)).isNull();
+		ProviderCache providerCache = ProviderCache.open(workspace);
+		long misses;
+		try (ProviderCache nested = ProviderCache.open(workspace)) {
+			assertThat(nested).isSameAs(providerCache);
+			assertThat(ProviderCache.getProviderCache(workspace)).isSameAs(providerCache);
+
+			Bndrun bndrun = Bndrun.createBndrun(workspace, IO.getFile(ws.toFile(), "test.simple/resolve.bndrun"));
+			Set<Resource> first = RunResolution.resolve(bndrun, null)
+				.getRequired()
+				.keySet();
+			assertThat(bndrun.check()).isTrue();
+			misses = providerCache.getMisses();
+			assertThat(misses).isPositive();
+
+			// another resolve of the workspace only asks the repositories that
+			// are created for each resolve, like the workspace repository
+			Bndrun other = Bndrun.createBndrun(workspace, IO.getFile(ws.toFile(), "test.simple/resolve.bndrun"));
+			Set<Resource> second = RunResolution.resolve(other, null)
+				.getRequired()
+				.keySet();
+			assertThat(other.check()).isTrue();
+			assertThat(second).isEqualTo(first);
+			long hits = providerCache.getHits();
+			assertThat(hits).isPositive();
+			long perResolveMisses = providerCache.getMisses() - misses;
+			assertThat(perResolveMisses).isLessThan(misses);
+
+			// a refreshed repository is asked again
+			for (RepositoryPlugin repo : workspace.getRepositories()) {
+				workspace.refresh(repo);
+			}
+			misses = providerCache.getMisses();
+			RunResolution.resolve(
+				Bndrun.createBndrun(workspace, IO.getFile(ws.toFile(), "test.simple/resolve.bndrun")), null);
+			assertThat(providerCache.getMisses() - misses).isGreaterThan(perResolveMisses);
+		}
+		// still open by the first open
+		assertThat(ProviderCache.getProviderCache(workspace)).isSameAs(providerCache);
+		providerCache.close();
+
+		// a closed cache is no longer used
+		assertThat(ProviderCache.getProviderCache(workspace)).isNull();
+		misses = providerCache.getMisses();
+		RunResolution.resolve(Bndrun.createBndrun(workspace, IO.getFile(ws.toFile(), "test.simple/resolve.bndrun")),
+			null);
+		assertThat(providerCache.getMisses()).isEqualTo(misses);
+	}
+
+	@Test
+	public void testResolveConcurrently() throws Exception {
+		Set<Resource> expected = RunResolution
+			.resolve(Bndrun.createBndrun(workspace, IO.getFile(ws.toFile(), "test.simple/resolve.bndrun")), null)
+			.getRequired()
+			.keySet();
+
+		List<Bndrun> bndruns = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			bndruns.add(Bndrun.createBndrun(workspace, IO.getFile(ws.toFile(), "test.simple/resolve.bndrun")));
+		}
+		Bndrun failing = bndruns.get(2);
+		failing.setProperty(Constants.RUNREQUIRES, "osgi.identity;filter:='(osgi.identity=does.not.exist)'");
+
+		List<Bndrun> consumed = new ArrayList<>();
+		Bndrun.resolve(bndruns, 2, (bndrun, resolution) -> {
+			consumed.add(bndrun);
+			if (bndrun == failing) {
+				assertThat(resolution.isOK()).isFalse();
+				assertThat(bndrun.check()).isFalse();
+			} else {
+				assertThat(resolution.isOK()).isTrue();
+				assertThat(resolution.getRequired()
+					.keySet()).isEqualTo(expected);
+				assertThat(bndrun.check()).isTrue();
+			}
+		});
+		assertThat(consumed).containsExactlyElementsOf(bndruns);
+		bndruns.forEach(IO::close);
+	}
+
+	@Test
+	public void testResolveConcurrentlyInOneWorkspace() throws Exception {
+		// each resolve waits until all the bndruns are resolving
+		CyclicBarrier barrier = new CyclicBarrier(3);
+		List<Bndrun> bndruns = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			bndruns.add(new Bndrun(workspace, IO.getFile(ws.toFile(), "test.simple/resolve.bndrun")) {
+				@Override
+				public RunResolution resolve(ResolutionCallback... callbacks) throws Exception {
+					barrier.await(30, TimeUnit.SECONDS);
+					return super.resolve(callbacks);
+				}
+			});
+		}
+		try {
+			List<String> events = new ArrayList<>();
+			Bndrun.resolve(bndruns, 3, bndrun -> events.add("start " + bndruns.indexOf(bndrun)),
+				(bndrun, resolution) -> {
+					assertThat(resolution.exception).isNull();
+					assertThat(resolution.getRunBundles()).isNotEmpty();
+					events.add("done " + bndruns.indexOf(bndrun));
+				});
+			assertThat(events).containsExactly("start 0", "start 1", "start 2", "done 0", "done 1", "done 2");
+
+			// a failing consumer stops the batch
+			events.clear();
+			barrier.reset();
+			assertThatThrownBy(
+				() -> Bndrun.resolve(bndruns, 3, bndrun -> events.add("start " + bndruns.indexOf(bndrun)),
+					(bndrun, resolution) -> {
+						throw new IllegalStateException("consumer failed");
+					})).isInstanceOf(IllegalStateException.class);
+			assertThat(events).containsExactly("start 0", "start 1", "start 2");
+			assertThat(ProviderCache.getProviderCache(workspace)).isNull();
+		} finally {
+			bndruns.forEach(IO::close);
+		}
+	}
+
 	@Test
 	public void testExcludeSystemResource() throws Exception {
 		Bndrun bndrun = Bndrun.createBndrun(workspace, IO.getFile(ws.toFile(), "test.simple/resolve.bndrun"));
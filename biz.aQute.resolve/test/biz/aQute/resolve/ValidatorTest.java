@@ -19,6 +19,7 @@ import aQute.bnd.osgi.repository.ResourcesRepository;
 import aQute.bnd.osgi.repository.XMLResourceParser;
 import aQute.bnd.osgi.resource.CapReqBuilder;
 import aQute.bnd.osgi.resource.ResourceBuilder;
+import aQute.bnd.test.jupiter.InjectTemporaryDirectory;
 import aQute.lib.io.IO;
 import biz.aQute.resolve.ResolverValidator.Resolution;
 
@@ -71,6 +72,24 @@ public class ValidatorTest {
 		}
 	}
 
+	@Test
+	public void testInvalidIndex(@InjectTemporaryDirectory
+	File tmp) throws Exception {
+		File index = new File(tmp, "index.xml");
+		IO.store("<foo/>", index);
+		try (ResolverValidator validator = new ResolverValidator();) {
+			ResourceBuilder system = new ResourceBuilder();
+			system.addEE(EE.JavaSE_1_8);
+			system.addManifest(OSGI_CORE.R8_0_0.getManifest());
+			validator.setSystem(system.build());
+			validator.addRepository(index.toURI());
+			List<Resource> resources = XMLResourceParser.getResources(IO.getFile("testdata/repo1.index.xml")
+				.toURI());
+			validator.validate(resources);
+			assertTrue(validator.check("Invalid tag name of top element"));
+		}
+	}
+
 	@Test
 	public void testSmall() throws Exception {
 		try (ResolverValidator validator = new ResolverValidator();) {
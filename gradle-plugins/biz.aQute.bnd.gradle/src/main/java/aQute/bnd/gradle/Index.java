@@ -268,6 +268,7 @@ public class Index extends DefaultTask {
 				.files(sortedBundles)
 				.base(unwrap(getBase()))
 				.name(unwrap(getRepositoryName()))
+				.cache(new File(getTemporaryDir(), "cache"))
 				.index(indexUncompressedFile);
 
 			logReport(processor, getLogger());
@@ -49,6 +49,13 @@ public class LocalIndexerMojo extends AbstractMojo {
 	@Parameter(property = "bnd.indexer.absolute", defaultValue = "false")
 	private boolean				absolute;
 
+	/**
+	 * A directory to cache the analysis of the indexed files in, so indexing
+	 * again only analyzes the new or changed files.
+	 */
+	@Parameter(property = "bnd.indexer.cache.dir")
+	private File				cacheDir;
+
 	/**
 	 * This configuration parameter is used to set the name of the repository in
 	 * the generated index
@@ -97,6 +104,10 @@ public class LocalIndexerMojo extends AbstractMojo {
 			if (!absolute) {
 				simpleIndexer.base(baseFile.toURI());
 			}
+			if (cacheDir != null) {
+				logger.debug("Caching the analysis of the files in: {}", cacheDir.getAbsolutePath());
+				simpleIndexer.cache(cacheDir);
+			}
 			simpleIndexer.name(indexName)
 				.index(outputFile);
 			reportErrorsAndWarnings(processor);